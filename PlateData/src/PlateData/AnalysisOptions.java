@@ -0,0 +1,197 @@
+package PlateData;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * AnalysisOptions holds the parameters used when plate files are analysed in bulk rather than through
+ * the BCAData and CTGData constructors directly. Defaults match the constructor defaults, 20 ug of protein
+ * and duplicate replicates, with the streaming reader and one worker per available processor.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class AnalysisOptions {
+	private int specifiedUg = 20;
+	private ReplicateNum replicateNum = ReplicateNum.DUPLICATE;
+	private ArrayList<String> sampleNames;	// BCA sample names or CTG data set names, optional
+	private ReaderMode readerMode = ReaderMode.STREAMING;
+	private PlateFormat plateFormat = PlateFormat.WELLS_96;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private PlateCache cache;	// Optional, parsed plates are reused across runs when set
+	private OutlierPolicy outlierPolicy = OutlierPolicy.NONE;
+	private OutlierTest outlierTest = OutlierTest.DIXON;
+	private double outlierCVLimit = BCAData.DEFAULT_CV_LIMIT;
+	private Executor executor;	// Optional, PlateAnalysis runs on its own when not set
+	private long timeoutMillis;	// 0 for no timeout
+	
+	/**
+	 * Sets micrograms of protein used for BCA load volumes.
+	 * 
+	 * @param specifiedUg
+	 * @return this
+	 */
+	public AnalysisOptions setSpecifiedUg(int specifiedUg) {
+		this.specifiedUg = specifiedUg;
+		return this;
+	}
+	
+	/**
+	 * Sets duplicate or triplicate BCA layout.
+	 * 
+	 * @param replicateNum
+	 * @return this
+	 */
+	public AnalysisOptions setReplicateNum(ReplicateNum replicateNum) {
+		this.replicateNum = replicateNum;
+		return this;
+	}
+	
+	/**
+	 * Sets BCA sample names or CTG data set names applied to every file.
+	 * 
+	 * @param sampleNames
+	 * @return this
+	 */
+	public AnalysisOptions setSampleNames(ArrayList<String> sampleNames) {
+		this.sampleNames = sampleNames;
+		return this;
+	}
+	
+	/**
+	 * Sets workbook or streaming reader.
+	 * 
+	 * @param readerMode
+	 * @return this
+	 */
+	public AnalysisOptions setReaderMode(ReaderMode readerMode) {
+		this.readerMode = readerMode;
+		return this;
+	}
+	
+	/**
+	 * Sets plate geometry of every file.
+	 * 
+	 * @param plateFormat
+	 * @return this
+	 */
+	public AnalysisOptions setPlateFormat(PlateFormat plateFormat) {
+		this.plateFormat = plateFormat;
+		return this;
+	}
+	
+	/**
+	 * Sets number of files analysed at the same time.
+	 * 
+	 * @param parallelism
+	 * @return this
+	 */
+	public AnalysisOptions setParallelism(int parallelism) {
+		if(parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+	
+	/**
+	 * Sets executor PlateAnalysis runs asynchronous loads on, null for its default.
+	 * 
+	 * @param executor
+	 * @return this
+	 */
+	public AnalysisOptions setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+	
+	/**
+	 * Sets time after which PlateAnalysis gives up on an asynchronous load and cancels it.
+	 * 
+	 * @param timeoutMillis 0 for no timeout
+	 * @return this
+	 */
+	public AnalysisOptions setTimeoutMillis(long timeoutMillis) {
+		if(timeoutMillis < 0) {
+			throw new IllegalArgumentException("Timeout cannot be negative");
+		}
+		this.timeoutMillis = timeoutMillis;
+		return this;
+	}
+	
+	public int getSpecifiedUg() {
+		return specifiedUg;
+	}
+	
+	public ReplicateNum getReplicateNum() {
+		return replicateNum;
+	}
+	
+	public ArrayList<String> getSampleNames() {
+		return sampleNames;
+	}
+	
+	public ReaderMode getReaderMode() {
+		return readerMode;
+	}
+	
+	/**
+	 * Sets cache of parsed plates, files already parsed are not read through POI again.
+	 * 
+	 * @param cache
+	 * @return this
+	 */
+	public AnalysisOptions setCache(PlateCache cache) {
+		this.cache = cache;
+		return this;
+	}
+	
+	/**
+	 * Sets what is done with BCA replicate outliers, the test used to find them and the CV
+	 * at or below which groups are not tested.
+	 * 
+	 * @param outlierPolicy
+	 * @param outlierTest
+	 * @param cvLimit as a fraction
+	 * @return this
+	 */
+	public AnalysisOptions setOutliers(OutlierPolicy outlierPolicy, OutlierTest outlierTest, double cvLimit) {
+		this.outlierPolicy = outlierPolicy;
+		this.outlierTest = outlierTest;
+		this.outlierCVLimit = cvLimit;
+		return this;
+	}
+	
+	public OutlierPolicy getOutlierPolicy() {
+		return outlierPolicy;
+	}
+	
+	public OutlierTest getOutlierTest() {
+		return outlierTest;
+	}
+	
+	public double getOutlierCVLimit() {
+		return outlierCVLimit;
+	}
+	
+	public PlateCache getCache() {
+		return cache;
+	}
+	
+	public PlateFormat getPlateFormat() {
+		return plateFormat;
+	}
+	
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	public Executor getExecutor() {
+		return executor;
+	}
+	
+	public long getTimeoutMillis() {
+		return timeoutMillis;
+	}
+}
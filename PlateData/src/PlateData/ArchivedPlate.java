@@ -0,0 +1,93 @@
+package PlateData;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * ArchivedPlate is a view of one record in a PlateArchive. Header fields are read straight from the mapped 
+ * file and getMatrix returns a PlateMatrix over the mapped well values, nothing is copied. Views stay valid 
+ * until the archive is closed.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class ArchivedPlate {
+	private final ByteBuffer window;	// Mapped region holding record, little endian
+	private final int offset;		// Record start within window
+	
+	ArchivedPlate(ByteBuffer window, int offset) {
+		this.window = window;
+		this.offset = offset;
+	}
+	
+	public int getRows() {
+		return window.getInt(offset + PlateArchiveFormat.ROWS_OFFSET);
+	}
+	
+	public int getColumns() {
+		return window.getInt(offset + PlateArchiveFormat.COLUMNS_OFFSET);
+	}
+	
+	/**
+	 * Returns time plate was read or analysed in milliseconds since epoch.
+	 * 
+	 * @return timestamp
+	 */
+	public long getTimestamp() {
+		return window.getLong(offset + PlateArchiveFormat.TIMESTAMP_OFFSET);
+	}
+	
+	/**
+	 * Returns assay type stored with plate, null if none was given.
+	 * 
+	 * @return assayType
+	 */
+	public AssayType getAssayType() {
+		int ordinal = window.get(offset + PlateArchiveFormat.ASSAY_OFFSET);
+		return (ordinal < 0 || ordinal >= AssayType.values().length) ? null : AssayType.values()[ordinal];
+	}
+	
+	/**
+	 * Decodes sample names stored with plate.
+	 * 
+	 * @return list of names, empty if none were stored
+	 */
+	public ArrayList<String> getSampleNames() {
+		int count = window.getInt(offset + PlateArchiveFormat.NAME_COUNT_OFFSET);
+		ArrayList<String> names = new ArrayList<>(count);
+		
+		int position = offset + PlateArchiveFormat.RECORD_HEADER_BYTES;
+		for(int i = 0; i < count; i++) {
+			int length = window.getShort(position) & 0xFFFF;
+			byte[] utf8 = new byte[length];
+			
+			ByteBuffer name = window.duplicate();
+			name.position(position + 2);
+			name.get(utf8);
+			
+			names.add(new String(utf8, StandardCharsets.UTF_8));
+			position += 2 + length;
+		}
+		return names;
+	}
+	
+	/**
+	 * Returns well values as a PlateMatrix backed directly by the mapped file.
+	 * Matrix is read only, any attempt to set a value throws ReadOnlyBufferException.
+	 * 
+	 * @return zero copy plate values
+	 */
+	public PlateMatrix getMatrix() {
+		int nameBytes = window.getInt(offset + PlateArchiveFormat.NAME_BYTES_OFFSET);
+		int start = offset + PlateArchiveFormat.wellsOffset(nameBytes);
+		
+		ByteBuffer wells = window.duplicate();
+		wells.position(start);
+		wells.limit(start + getRows() * getColumns() * Double.BYTES);
+		
+		return PlateMatrix.wrap(wells.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer(), getRows(), getColumns());
+	}
+}
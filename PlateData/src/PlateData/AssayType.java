@@ -0,0 +1,6 @@
+package PlateData;
+
+// enum class for kind of assay held in a plate file
+public enum AssayType {
+	BCA, CTG
+}
@@ -2,12 +2,9 @@ package PlateData;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 
-import org.apache.commons.math3.stat.regression.SimpleRegression;
-
-//TODO either in superclass or this class create method for excel export with sample name and amount to load
-
 /**
  * BCAData objects are designed to calculate protein concentrations using a standard Pierce BSA protein assay kit.
  * An object oriented approach to this task was taken to ease integration with different user interfaces. Protein level measurement
@@ -16,6 +13,17 @@ import org.apache.commons.math3.stat.regression.SimpleRegression;
  * a line of best fit. Input requires plates to match layout specified in readme. Constructors exist allowing amount of protein and
  * sample triplicate or duplicate to be specified. 
  * 
+ * Calculated values form a chain, raw data to averages to line of best fit to concentrations to load volumes. Each stage
+ * is computed on first access and only stages downstream of a changed parameter are recomputed, so changing
+ * specifiedUg, replicates or sample names with the setters does not re-read the file. Because stages are computed on
+ * access, a getter can throw what the analysis throws, IllegalArgumentException when the layout does not match the plate
+ * or the standards are not the full ladder; call computeAll to have those raised in one place.
+ * 
+ * BCAData objects are not thread safe and must be confined to one thread: getters fill in stages they need and setters
+ * clear them, with no locking. An object handed to other threads must have computeAll called first and must not be
+ * changed afterwards. PlateBatch and PlateAnalysis return objects that are fully computed; use toResult for a copy
+ * that can be shared freely.
+ * 
  * @author Colin Coon
  * @version 1.1
  * @date 9/17/2019
@@ -23,16 +31,42 @@ import org.apache.commons.math3.stat.regression.SimpleRegression;
  */
 
 public class BCAData extends PlateData{
-	private ArrayList<Double> stdAvgs; //List of averages of protein standards
-	private ArrayList<Double> sampleAvgs; //List of averages for sample readings
-	private ArrayList<Double> sampleProteinConcentrations; //Concentrations of samples ug/uL
-	private ArrayList<Double> loadVolumes; //Volume required for specified protein level unit ug
+	public static final double DEFAULT_CV_LIMIT = 0.10; //Replicate CV below which outliers are not looked for
+	
+	private DoubleColumn stdAvgs; //List of averages of protein standards
+	private DoubleColumn sampleAvgs; //List of averages for sample readings
+	private DoubleColumn sampleProteinConcentrations; //Concentrations of samples ug/uL
+	private DoubleColumn loadVolumes; //Volume required for specified protein level unit ug
 	
 	private ArrayList<String> sampleNames; //Optional sample names user input
+	private ArrayList<String> providedSampleNames; //Names as last passed in, null for generic names
 	
 	private int specifiedUg; //User specified micrograms of protein, default 20ug
+	private ReplicateNum replicateNum; //Duplicate or triplicate layout
+	private PlateLayout plateLayout; //Layout set by user, null for readme layout of replicateNum
 	private double slope; 
 	private double intercept;
+	private StandardCurve standardCurve; //Curve fitted to this plate's standards or one applied from a calibration plate
+	private boolean calibrated = false; //True when standardCurve was applied rather than fitted here
+	private double background; //Mean of blank wells used
+	
+	private OutlierPolicy outlierPolicy = OutlierPolicy.NONE; //Replicate outliers kept unless set
+	private OutlierTest outlierTest = OutlierTest.DIXON;
+	private double outlierCVLimit = DEFAULT_CV_LIMIT; //Groups within this CV are not tested for outliers
+	private final ReplicateStats blankStats = new ReplicateStats(); //Replicate QC, refilled with averages
+	private final ReplicateStats stdStats = new ReplicateStats();
+	private final ReplicateStats sampleStats = new ReplicateStats();
+	
+	// Calculation stages in dependency order, computedStage is last stage holding current values
+	private static final int STAGE_NONE = 0;
+	private static final int STAGE_AVERAGES = 1;
+	private static final int STAGE_FIT = 2;
+	private static final int STAGE_CONCENTRATIONS = 3;
+	private static final int STAGE_LOAD_VOLUMES = 4;
+	
+	private int computedStage = STAGE_NONE;
+	private boolean sampleNamesCurrent = false;
+	private boolean sampleNamesProvided = false; //True when sampleNames are providedSampleNames, not generic names
 	
 	/**
 	 * Constructs BCAData object given input excel file, no other parameters. All corresponding calculation sets 
@@ -137,95 +171,292 @@ public class BCAData extends PlateData{
 	 * @throws Exception
 	 */
 	public BCAData(FileInputStream file, int protein, ReplicateNum replicateNum, ArrayList<String> samplesNameList) throws Exception{
-		super(file);
-		specifiedUg = protein;
-		
-		//Calls methods based on duplicate or triplicate values
-		if(replicateNum == ReplicateNum.DUPLICATE) {
-			stdAvgs = new ArrayList<Double>();
-			processStdAveragesDuplicate();
-			lineOfBestFit();
-			
-			sampleAvgs = new ArrayList<Double>();
-			processSampleAvgsDuplicate();
-			
-		}else if (replicateNum == ReplicateNum.TRIPLICATE){
-			stdAvgs = new ArrayList<Double>();
-			processStdAveragesTriplicate();
-			lineOfBestFit();
-			
-			sampleAvgs = new ArrayList<Double>();
-			processSampleAvgsTriplicate();
-		}
-
-		sampleProteinConcentrations = new ArrayList<Double>();
-		processConcentrations();
-		
-		loadVolumes = new ArrayList<Double>();
-		calculateLoadVolumes();	
+		this(file, protein, replicateNum, samplesNameList, ReaderMode.WORKBOOK);
+	}
+	
+	/**
+	 * Constructs BCAData object given all required parameters and how the excel file should be read.
+	 * ReaderMode.STREAMING avoids building a full workbook in memory.
+	 * 
+	 * @param file, protein, replicateNum, sampleNames, readerMode
+	 * @throws Exception
+	 */
+	public BCAData(FileInputStream file, int protein, ReplicateNum replicateNum, ArrayList<String> samplesNameList, ReaderMode readerMode) throws Exception{
+		this(file, protein, replicateNum, samplesNameList, readerMode, PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Constructs BCAData object given all required parameters, how the excel file should be read and plate format.
+	 * Standards are read from the first 7 rows of the first 2 or 3 columns, samples fill the remaining columns
+	 * for every row of the plate.
+	 * 
+	 * @param file, protein, replicateNum, sampleNames, readerMode, plateFormat
+	 * @throws Exception
+	 */
+	public BCAData(FileInputStream file, int protein, ReplicateNum replicateNum, ArrayList<String> samplesNameList, ReaderMode readerMode, PlateFormat plateFormat) throws Exception{
+		super(file, readerMode, plateFormat);
+		analyse(protein, replicateNum, samplesNameList);
+	}
+	
+	/**
+	 * Constructs BCAData object from a plate that has already been read, for example one held in a 
+	 * PlateCache, so the excel file does not need to be parsed again. Plate values are copied.
+	 * 
+	 * @param plate, protein, replicateNum, sampleNames
+	 * @throws Exception
+	 */
+	public BCAData(PlateMatrix plate, int protein, ReplicateNum replicateNum, ArrayList<String> samplesNameList) throws Exception{
+		super(plate);
+		analyse(protein, replicateNum, samplesNameList);
+	}
+	
+	/**
+	 * Stores parameters and sizes result columns, called once from each constructor.
+	 * Calculations run on first access.
+	 * 
+	 * @param protein, replicateNum, sampleNames
+	 */
+	private void analyse(int protein, ReplicateNum replicateNum, ArrayList<String> samplesNameList) {
+		PlateMatrix plate = super.getRawData();
 		
+		stdAvgs = new DoubleColumn(7);
+		sampleAvgs = new DoubleColumn(plate.getWells() / 2);
+		sampleProteinConcentrations = new DoubleColumn(plate.getWells() / 2);
+		loadVolumes = new DoubleColumn(plate.getWells() / 2);
 		sampleNames = new ArrayList<String>();
-		setSampleNames(samplesNameList);
+		
+		this.specifiedUg = protein;
+		this.replicateNum = replicateNum;
+		this.providedSampleNames = samplesNameList;
+	}
+	
+	/**
+	 * Brings every stage up to and including stage up to date, running only those 
+	 * that are out of date.
+	 * 
+	 * @param stage
+	 */
+	private void compute(int stage) {
+		for(int next = computedStage + 1; next <= stage; next++) {
+			switch(next) {
+				case STAGE_AVERAGES:
+					processAverages();
+					break;
+				case STAGE_FIT:
+					lineOfBestFit();
+					break;
+				case STAGE_CONCENTRATIONS:
+					processConcentrations();
+					break;
+				case STAGE_LOAD_VOLUMES:
+					calculateLoadVolumes();
+					break;
+			}
+			computedStage = next;
+		}
+	}
+	
+	/**
+	 * Computes every out of date stage and matches sample names, so getters only read until a setter
+	 * is called. Batches and asynchronous loads call this on their worker thread.
+	 * 
+	 * @return this
+	 * @throws IllegalArgumentException if the layout does not match the plate or standards are missing
+	 */
+	public BCAData computeAll() {
+		compute(STAGE_LOAD_VOLUMES);
+		resolveSampleNames();
+		return this;
+	}
+	
+	/**
+	 * Marks stage and every stage after it as out of date.
+	 * 
+	 * @param stage
+	 */
+	private void invalidate(int stage) {
+		computedStage = Math.min(computedStage, stage - 1);
+		if(stage <= STAGE_AVERAGES) {
+			sampleNamesCurrent = false;	// Number of samples may change
+		}
+	}
+	
+	/**
+	 * Sets micrograms of protein to load. Only load volumes are recalculated, on next access.
+	 * 
+	 * @param protein micrograms of protein
+	 */
+	public void setSpecifiedUg(int protein) {
+		if(protein != specifiedUg) {
+			specifiedUg = protein;
+			invalidate(STAGE_LOAD_VOLUMES);
+		}
+	}
+	
+	/**
+	 * Sets duplicate or triplicate layout. Averages and every value after them are
+	 * recalculated on next access.
+	 * 
+	 * @param replicateNum
+	 */
+	public void setReplicateNum(ReplicateNum replicateNum) {
+		if(replicateNum != this.replicateNum) {
+			this.replicateNum = replicateNum;
+			invalidate(STAGE_AVERAGES);
+		}
 	}
 	
 	/**
-	 * Sets the array sampleNames with constructor supplied array of sample names.
+	 * Returns duplicate or triplicate layout used for averages.
+	 * 
+	 * @return replicateNum
+	 */
+	public ReplicateNum getReplicateNum() {
+		return this.replicateNum;
+	}
+	
+	/**
+	 * Sets the array sampleNames with supplied array of sample names, replacing any set before.
 	 * If no names were passed then an array with strings Sample 1, Sample 2, ... Sample n
-	 * will be stored.
+	 * will be stored. Names are matched to samples on next access, no values are recalculated.
 	 * 
 	 */
 	public void setSampleNames(ArrayList<String> sampleNameList) {
+		this.providedSampleNames = sampleNameList;
+		sampleNamesCurrent = false;
+	}
+	
+	/**
+	 * Matches provided names to samples, generic names are used if too few were given.
+	 */
+	private void resolveSampleNames() {
+		if(sampleNamesCurrent) {
+			return;
+		}
+		compute(STAGE_AVERAGES);
+		
+		int samples = sampleAvgs.size();
+		
 		// Find way to handles this
-		if(sampleNameList == null || sampleNameList.isEmpty()) {
-			for(int i = 0; i < this.getLoadVolumes().size(); i++) {
-				this.sampleNames.add("Sample " + (i+1));
-			}
-		}else if(sampleNameList.size() < this.getLoadVolumes().size()){
+		if(providedSampleNames == null || providedSampleNames.isEmpty()) {
+			generateSampleNames(samples);
+			sampleNamesProvided = false;
+		}else if(providedSampleNames.size() < samples){
 			System.out.println("Provided list of names not of proper length, will autopopulate");
-			for(int i = 0; i < this.getLoadVolumes().size(); i++) {
-				this.sampleNames.add("Sample " + (i+1));
-			}
+			generateSampleNames(samples);
+			sampleNamesProvided = false;
 		}else {
-			this.sampleNames = sampleNameList;
+			this.sampleNames = providedSampleNames;
+			sampleNamesProvided = true;
+		}
+		sampleNamesCurrent = true;
+	}
+	
+	private void generateSampleNames(int samples) {
+		this.sampleNames = new ArrayList<String>(samples);
+		for(int i = 0; i < samples; i++) {
+			this.sampleNames.add(SampleRegistry.genericName(i+1));
 		}
 	}
 
 	/**
 	 * Returns an array of average values for standards' raw absorbance values.
 	 * 
+	 * Returned list is a boxed copy, use getStdAvgColumn for primitive access.
+	 * 
 	 * @return stdAvgs
 	 */
 	public ArrayList<Double> getStdAvgs() {
-		return this.stdAvgs;
+		compute(STAGE_AVERAGES);
+		return this.stdAvgs.toArrayList();
 	}
 
 	/**
 	 * Returns an array of average values for sample absorbance values
 	 * 
+	 * Returned list is a boxed copy, use getSampleAvgColumn for primitive access.
+	 * 
 	 * @return sampleAvgs
 	 */
 	public ArrayList<Double> getSampleAvgs() {
-		return this.sampleAvgs;
+		compute(STAGE_AVERAGES);
+		return this.sampleAvgs.toArrayList();
 	}
 
 	/**
 	 * Returns an array or protein concentrations for corresponding samples.
 	 * Calculated using line of best fit of protein standards.
 	 * 
+	 * Returned list is a boxed copy, use getConcentrationColumn for primitive access.
+	 * 
 	 * @return sampleProteinConcentrations
 	 */
 	public ArrayList<Double> getSampleProteinConcentrations() {
-		return this.sampleProteinConcentrations;
+		compute(STAGE_CONCENTRATIONS);
+		return this.sampleProteinConcentrations.toArrayList();
 	}
 
 	/**
 	 * Returns an array of all the load volumes(amount to load) for corresponding
 	 * samples based on protein concentration and desired micrograms.
 	 * 
+	 * Returned list is a boxed copy, use getLoadVolumeColumn for primitive access.
+	 * 
 	 * @return loadVolumes
 	 */
 	public ArrayList<Double> getLoadVolumes() {
-		return this.loadVolumes;
+		compute(STAGE_LOAD_VOLUMES);
+		return this.loadVolumes.toArrayList();
+	}
+
+	/**
+	 * Returns read-only primitive view of standard averages, no boxing or copying.
+	 * 
+	 * @return stdAvgs view
+	 */
+	public DoubleColumn.View getStdAvgColumn() {
+		compute(STAGE_AVERAGES);
+		return this.stdAvgs.view();
+	}
+	
+	/**
+	 * Returns read-only primitive view of sample averages, no boxing or copying.
+	 * 
+	 * @return sampleAvgs view
+	 */
+	public DoubleColumn.View getSampleAvgColumn() {
+		compute(STAGE_AVERAGES);
+		return this.sampleAvgs.view();
+	}
+	
+	/**
+	 * Returns read-only primitive view of sample protein concentrations, no boxing or copying.
+	 * 
+	 * @return sampleProteinConcentrations view
+	 */
+	public DoubleColumn.View getConcentrationColumn() {
+		compute(STAGE_CONCENTRATIONS);
+		return this.sampleProteinConcentrations.view();
+	}
+	
+	/**
+	 * Returns read-only primitive view of load volumes, no boxing or copying.
+	 * 
+	 * @return loadVolumes view
+	 */
+	public DoubleColumn.View getLoadVolumeColumn() {
+		compute(STAGE_LOAD_VOLUMES);
+		return this.loadVolumes.view();
+	}
+	
+	/**
+	 * Returns immutable snapshot of results that can be shared across threads, 
+	 * later changes to this object do not reach it.
+	 * 
+	 * @return result snapshot
+	 */
+	public BCAResult toResult() {
+		return new BCAResult(this);
 	}
 
 	/**
@@ -235,13 +466,24 @@ public class BCAData extends PlateData{
 	 * @return sampleNames
 	 */
 	public ArrayList<String> getSampleNames() {
+		resolveSampleNames();
 		return this.sampleNames;
 	}
+	
+	/**
+	 * Returns whether sample names are ones that were provided, rather than generic names Sample 1, 
+	 * Sample 2, ... used when none or too few were given.
+	 * 
+	 * @return true if names were provided
+	 */
+	public boolean hasProvidedSampleNames() {
+		resolveSampleNames();
+		return sampleNamesProvided;
+	}
 
 	/**
 	 * Returns the single value for amount of protein being to load and used for calculations.
-	 * Cannot change this value, would need to make a new object. Future functionality should include
-	 * setter that will recalculate neccesary values.
+	 * Use setSpecifiedUg to change it, only load volumes are recalculated.
 	 * 
 	 * @return specified micrograms amount
 	 */
@@ -249,122 +491,250 @@ public class BCAData extends PlateData{
 		return this.specifiedUg;
 	}
 	
-	/**This method fills the array holding average calculations
-	 * between the two replicate standards for samples 1 through 7. Default
-	 * plate set up assumes duplicates. 
+	/**
+	 * Fills standard and sample averages, and replicate QC statistics for blanks, standards and samples,
+	 * in one pass over the replicate groups of the plate layout, reusing existing columns. Outliers are
+	 * left out of averages when the outlier policy is REJECT.
 	 */
-	private void processStdAveragesDuplicate() {
-		double background = ((super.getRawDataValue(0, 0) + super.getRawDataValue(0, 1))/2);
-
-		for(int i = 0; i < 7; i++) {
-			stdAvgs.add((((super.getRawDataValue(i, 0) + super.getRawDataValue(i, 1))/2)-background));
+	private void processAverages() {
+		PlateMatrix plate = super.getRawData();
+		PlateLayout layout = getPlateLayout();
+		
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.AVERAGING)){
+			timer.wells(plate.getWells());
+			stdAvgs.clear();
+			sampleAvgs.clear();
+			
+			layout.replicateStats(plate, WellRole.BLANK, outlierPolicy, outlierTest, outlierCVLimit, blankStats);
+			layout.replicateStats(plate, WellRole.STANDARD, outlierPolicy, outlierTest, outlierCVLimit, stdStats);
+			layout.replicateStats(plate, WellRole.SAMPLE, outlierPolicy, outlierTest, outlierCVLimit, sampleStats);
+			background = blankStats.getPooledMean();
+			
+			//Standard averages in level order, less background
+			for(int g = 0; g < stdStats.getGroupCount(); g++) {
+				stdAvgs.add(stdStats.getMean(g) - background);
+			}
+			
+			//Sample averages less background, gates for no sample by requiring value to be above 0
+			for(int g = 0; g < sampleStats.getGroupCount(); g++) {
+				double value = sampleStats.getMean(g) - background;
+				if(value > 0) {
+					sampleAvgs.add(value);
+				}
+			}
 		}
 	}
 	
-	/**This method fills the array holding average calculations
-	 * between the three replicate standards for samples 1 through 7
+	/**
+	 * Using the averages of your standard samples and the corresponding
+	 * micrograms of protein in each standard. Compute line of best fit and store
+	 * line slope and intercept, used to calculate unknown concentrations. 
 	 */
-	private void processStdAveragesTriplicate() {
-		double background = ((super.getRawDataValue(0, 0) + super.getRawDataValue(0, 1) + super.getRawDataValue(0, 2))/3);
+	void lineOfBestFit() {
+		compute(STAGE_AVERAGES);
 		
-		for(int i = 0; i < 7; i++) {
-			stdAvgs.add((((super.getRawDataValue(i, 0) + super.getRawDataValue(i, 1) + super.getRawDataValue(i, 2))/3)-background));
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.FITTING)){
+			if(!calibrated) {
+				standardCurve = StandardCurve.fit(stdAvgs.toArray(), background);
+				timer.wells(getPlateLayout().getWells(WellRole.STANDARD).length);
+			}
 		}
+		
+		slope = standardCurve.getSlope();
+		intercept = standardCurve.getIntercept();	
 	}
 	
 	/**
-	 * Method reads in and processes samples by taking their average and subtracting background noise
-	 * placing these values into an ArrayList called samplesDataAvg. Default plate set up assumes duplicate 
-	 * values. Gates for no sample by requiring value to be above 0.
-	 * 
+	 * Will compute concentration of protein in samples (ug/uL) using sample averages
 	 */
-	private void processSampleAvgsDuplicate() {
-		double background = ((super.getRawDataValue(0, 0) + super.getRawDataValue(0, 1))/2);
-		double value = 0;
+	private void processConcentrations() {
+		sampleProteinConcentrations.clear();
 		
-		//Loop through each pair of columns for duplicates, avg both values
-		for(int i =2; i < 12; i+=2) {
-			for(int j = 0; j < 8; j++) {
-				value = (((super.getRawDataValue(j, i) + super.getRawDataValue(j, i+1))/2) - background);
-				if(value > 0) {
-					sampleAvgs.add(value);
-				}	
-			}
+		//Plug in averages to line of best fit from standards, divided by 2.5 since loading 2.5 uL
+		for(int i = 0; i < sampleAvgs.size(); i++) {
+			 sampleProteinConcentrations.add(standardCurve.concentration(sampleAvgs.get(i)));
 		}
 	}
 	
 	/**
-	 * Method reads in and processes samples by taking their average and subtracting background noise
-	 * placing these values into an ArrayList called samplesDataAvg. Takes in triplicate samples. 
-	 * Gates for no sample by requiring value to be above 0.
+	 * Create a list for the amount to load based on protein concentration and desired amount to load.
+	 * Units for load volume is in uL.
 	 */
-	private void processSampleAvgsTriplicate() {
-		double background = ((super.getRawDataValue(0, 0) + super.getRawDataValue(0, 1) + super.getRawDataValue(0, 2))/3 );
-		double value = 0;
+	private void calculateLoadVolumes(){
+		loadVolumes.clear();
 		
-		//Loop through each pair of columns for duplicates, avg both values
-		for(int i = 3; i < 12; i += 3) {
-			for(int j = 0; j < 8; j++) {
-				value = (((super.getRawDataValue(j, i) + super.getRawDataValue(j, i+1) + super.getRawDataValue(j, i+2))/3) - background);
-				if(value > 0) {
-					sampleAvgs.add(value);
-				}	
-			}
+		for(int i = 0; i < sampleProteinConcentrations.size(); i++) {
+			loadVolumes.add(specifiedUg/sampleProteinConcentrations.get(i));
 		}
 	}
 	
 	/**
-	 * Using the averages of your standard samples and the corresponding
-	 * micrograms of protein in each standard. Compute line of best fit and store
-	 * line slope and intercept, used to calculate unknown concentrations. 
+	 * Returns layout wells are averaged by, the readme layout for replicateNum and plate size
+	 * unless one was set.
+	 * 
+	 * @return plateLayout
 	 */
-	private void lineOfBestFit() {
-		SimpleRegression simpleRegression = new SimpleRegression(true);
-		
-		simpleRegression.addData(new double[][] {
-			{stdAvgs.get(0),0},
-			{stdAvgs.get(1),1},
-			{stdAvgs.get(2),2},
-			{stdAvgs.get(3),5},
-			{stdAvgs.get(4),10},
-			{stdAvgs.get(5),20},
-			{stdAvgs.get(6),40},
-		});
-		
-		slope = simpleRegression.getSlope();
-		intercept = simpleRegression.getIntercept();	
+	public PlateLayout getPlateLayout() {
+		if(plateLayout != null) {
+			return plateLayout;
+		}
+		PlateMatrix plate = super.getRawData();
+		return PlateLayout.bca(plate.getRows(), plate.getColumns(), replicateNum);
 	}
 	
 	/**
-	 * Will compute concentration of protein in samples (ug/uL) using sample averages
+	 * Sets layout giving blank, standard and sample wells, for plates not laid out as in the readme 
+	 * or with wells masked out. Layout needs one standard group per ladder step. Everything is 
+	 * recalculated on next access. Passing null returns to the readme layout.
+	 * 
+	 * @param layout
 	 */
-	private void processConcentrations() {
-		//Plug in averages to line of best fit from standards and divide by 2.5 since loading 2.5 uL
-		for(double i : sampleAvgs) {
-			 sampleProteinConcentrations.add(((i*this.getSlope())+this.getIntercept())/2.5);
+	public void setPlateLayout(PlateLayout layout) {
+		plateLayout = layout;
+		invalidate(STAGE_AVERAGES);
+	}
+	
+	/**
+	 * Sets what is done with replicate outliers, NONE by default. With REJECT averages and every
+	 * value after them are recalculated without outliers on next access.
+	 * 
+	 * @param policy
+	 */
+	public void setOutlierPolicy(OutlierPolicy policy) {
+		if(policy != outlierPolicy) {
+			outlierPolicy = policy;
+			invalidate(STAGE_AVERAGES);
 		}
 	}
 	
 	/**
-	 * Create a list for the amount to load based on protein concentration and desired amount to load.
-	 * Units for load volume is in uL.
+	 * Returns what is done with replicate outliers.
+	 * 
+	 * @return outlierPolicy
 	 */
-	private void calculateLoadVolumes(){
-		for(double i: sampleProteinConcentrations) {
-			loadVolumes.add(this.getSpecifiedUg()/i);
+	public OutlierPolicy getOutlierPolicy() {
+		return outlierPolicy;
+	}
+	
+	/**
+	 * Sets test used to find replicate outliers, Dixon's Q by default.
+	 * 
+	 * @param test
+	 */
+	public void setOutlierTest(OutlierTest test) {
+		if(test != outlierTest) {
+			outlierTest = test;
+			invalidate(STAGE_AVERAGES);
 		}
 	}
 	
 	/**
-	 * Will output load volumes and sample names to 2nd page in workbook
+	 * Returns test used to find replicate outliers.
+	 * 
+	 * @return outlierTest
+	 */
+	public OutlierTest getOutlierTest() {
+		return outlierTest;
+	}
+	
+	/**
+	 * Sets CV, as a fraction, at or below which replicate groups are accepted without an outlier
+	 * test, 0.10 by default. Ties at the reader's resolution make a tight triplicate look like 
+	 * an outlier to Dixon's Q, so groups are only tested once their spread is worth acting on.
+	 * 
+	 * @param cvLimit 0 to test every group
+	 */
+	public void setOutlierCVLimit(double cvLimit) {
+		if(cvLimit != outlierCVLimit) {
+			outlierCVLimit = cvLimit;
+			invalidate(STAGE_AVERAGES);
+		}
+	}
+	
+	/**
+	 * Returns CV at or below which replicate groups are not tested for outliers.
+	 * 
+	 * @return outlierCVLimit
+	 */
+	public double getOutlierCVLimit() {
+		return outlierCVLimit;
+	}
+	
+	/**
+	 * Returns mean, SD, CV and outlier of each standard replicate group, before background is 
+	 * subtracted. Object is refilled whenever averages are recalculated.
+	 * 
+	 * @return standard statistics
+	 */
+	public ReplicateStats getStandardStats() {
+		compute(STAGE_AVERAGES);
+		return stdStats;
+	}
+	
+	/**
+	 * Returns mean, SD, CV and outlier of each sample replicate group, including groups gated out 
+	 * as empty, before background is subtracted. Object is refilled whenever averages are recalculated.
 	 * 
-	 * Method is incomplete, will rely on superclass
+	 * @return sample statistics
+	 */
+	public ReplicateStats getSampleStats() {
+		compute(STAGE_AVERAGES);
+		return sampleStats;
+	}
+	
+	/**
+	 * Returns replicate QC tables for blank, standards and samples, with wells excluded or flagged.
+	 * 
+	 * @return report
+	 */
+	public String getReplicateReport() {
+		compute(STAGE_AVERAGES);
+		return "Outlier policy " + outlierPolicy + ", test " + outlierTest + ", CV limit " + outlierCVLimit + System.lineSeparator()
+				+ blankStats.report("Blank") + stdStats.report("Standard") + sampleStats.report("Sample");
+	}
+	
+	/**
+	 * Print replicate QC tables for blank, standards and samples.
+	 */
+	public void printReplicateReport() {
+		System.out.print(getReplicateReport());
+	}
+	
+	/**
+	 * Returns curve relating standard absorbance to protein, fitted from this plate's standards
+	 * unless one was applied with setStandardCurve.
+	 * 
+	 * @return standardCurve
+	 */
+	public StandardCurve getStandardCurve() {
+		compute(STAGE_FIT);
+		return standardCurve;
+	}
+	
+	/**
+	 * Applies a curve fitted from a calibration plate in place of this plate's own standards. Sample
+	 * averages are still corrected with this plate's blank. Concentrations and load volumes are 
+	 * recalculated on next access. Passing null returns to fitting this plate's standards.
+	 * 
+	 * @param curve
+	 */
+	public void setStandardCurve(StandardCurve curve) {
+		standardCurve = curve;
+		calibrated = (curve != null);
+		invalidate(STAGE_FIT);
+	}
+	
+	/**
+	 * Will output sample names, average absorbances, concentrations and load volumes to 
+	 * sheet BCA and the line of best fit to sheet BCA Fit of a new workbook. File is not closed.
 	 * 
 	 * @param file
+	 * @throws IOException
 	 */
-	public void BCAExcelOutput(FileOutputStream file) {
-		//super.outputArrayExcel(file, this.getloadVolumes());
-		
+	public void BCAExcelOutput(FileOutputStream file) throws IOException{
+		try(PlateReport report = new PlateReport(file)){
+			report.addBCA(getCreationDate(), this);
+		}
 	}
 	
 	/**
@@ -373,6 +743,7 @@ public class BCAData extends PlateData{
 	 * @return slope
 	 */
 	public double getSlope() {
+		compute(STAGE_FIT);
 		return this.slope;
 	}
 	
@@ -382,6 +753,7 @@ public class BCAData extends PlateData{
 	 * @return intercept
 	 */
 	public double getIntercept() {
+		compute(STAGE_FIT);
 		return this.intercept;
 	} 
 	
@@ -390,28 +762,32 @@ public class BCAData extends PlateData{
 	 * sample replicates.
 	 */
 	public void printStdAvgs() {
-		super.printArrayListDoubles(stdAvgs);
+		compute(STAGE_AVERAGES);
+		super.printDoubleColumn(stdAvgs);
 	}
 	
 	/**
 	 * Print the array containing the average of the sample replicates.
 	 */
 	public void printSampleAvgs() {
-		super.printArrayListDoubles(sampleAvgs);
+		compute(STAGE_AVERAGES);
+		super.printDoubleColumn(sampleAvgs);
 	}
 	
 	/**
 	 * Print the array containing the sample concentrations
 	 */
 	public void printConcentrations() {
-		super.printArrayListDoubles(sampleProteinConcentrations);
+		compute(STAGE_CONCENTRATIONS);
+		super.printDoubleColumn(sampleProteinConcentrations);
 	}
 	
 	/**
 	 * Print the array containing the volume to load for each sample in uL.
 	 */
 	public void printLoadVolumes() {
-		super.printArrayListDoubles(loadVolumes);
+		compute(STAGE_LOAD_VOLUMES);
+		super.printDoubleColumn(loadVolumes);
 	}
 	
 	/**
@@ -420,6 +796,9 @@ public class BCAData extends PlateData{
 	 * 
 	 */
 	public void printLoadVolumesFormatted() {
+		compute(STAGE_LOAD_VOLUMES);
+		resolveSampleNames();
+		
 		System.out.println("\n" + super.getCreationDate());
 		System.out.println();
 		System.out.println("Load volumes based on " + specifiedUg + " ug of protein");
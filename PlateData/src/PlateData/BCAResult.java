@@ -0,0 +1,177 @@
+package PlateData;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BCAResult is an immutable snapshot of an analysed BCA plate that can be shared by any number of threads
+ * without copying or locking. Standard averages, sample averages, concentrations and load volumes are
+ * copied once into a single double[] and handed out as read-only DoubleBuffer views over their part of it,
+ * each caller getting its own duplicate so positions are never shared. Every field is final and the array
+ * is never written after construction, so a BCAResult is safely published however it is passed on.
+ * 
+ * Taken with BCAData.toResult, later changes to the BCAData do not reach it.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class BCAResult {
+	private final DoubleBuffer stdAvgs;
+	private final DoubleBuffer sampleAvgs;
+	private final DoubleBuffer concentrations;
+	private final DoubleBuffer loadVolumes;
+	private final List<String> sampleNames;
+	private final double slope;
+	private final double intercept;
+	private final double rSquared;
+	private final int specifiedUg;
+	private final ReplicateNum replicateNum;
+	private final long creationTime;
+	
+	/**
+	 * Copies results of an analysed plate, running any stage not yet computed.
+	 * 
+	 * @param bca
+	 */
+	BCAResult(BCAData bca) {
+		DoubleColumn.View std = bca.getStdAvgColumn();
+		DoubleColumn.View avg = bca.getSampleAvgColumn();
+		DoubleColumn.View conc = bca.getConcentrationColumn();
+		DoubleColumn.View load = bca.getLoadVolumeColumn();
+		
+		// One array for every column, sample columns the same length
+		int standards = std.size();
+		int samples = load.size();
+		double[] values = new double[standards + 3 * samples];
+		std.copyTo(values, 0);
+		avg.copyTo(values, standards);
+		conc.copyTo(values, standards + samples);
+		load.copyTo(values, standards + 2 * samples);
+		
+		DoubleBuffer all = DoubleBuffer.wrap(values).asReadOnlyBuffer();
+		stdAvgs = view(all, 0, standards);
+		sampleAvgs = view(all, standards, samples);
+		concentrations = view(all, standards + samples, samples);
+		loadVolumes = view(all, standards + 2 * samples, samples);
+		
+		sampleNames = Collections.unmodifiableList(new ArrayList<>(bca.getSampleNames().subList(0, samples)));
+		slope = bca.getSlope();
+		intercept = bca.getIntercept();
+		rSquared = bca.getStandardCurve().getRSquared();
+		specifiedUg = bca.getSpecifiedUg();
+		replicateNum = bca.getReplicateNum();
+		creationTime = bca.getCreationTime();
+	}
+	
+	/**
+	 * Returns read-only view of length values from offset of a read-only buffer.
+	 */
+	static DoubleBuffer view(DoubleBuffer all, int offset, int length) {
+		DoubleBuffer part = all.duplicate();
+		part.position(offset).limit(offset + length);
+		return part.slice();
+	}
+	
+	/**
+	 * Returns read-only view of standard averages, lowest standard first.
+	 * 
+	 * @return standard averages
+	 */
+	public DoubleBuffer getStdAvgs() {
+		return stdAvgs.duplicate();
+	}
+	
+	/**
+	 * Returns read-only view of sample average absorbances.
+	 * 
+	 * @return sample averages
+	 */
+	public DoubleBuffer getSampleAvgs() {
+		return sampleAvgs.duplicate();
+	}
+	
+	/**
+	 * Returns read-only view of sample protein concentrations in ug/uL.
+	 * 
+	 * @return concentrations
+	 */
+	public DoubleBuffer getConcentrations() {
+		return concentrations.duplicate();
+	}
+	
+	/**
+	 * Returns read-only view of load volumes in uL for specifiedUg.
+	 * 
+	 * @return load volumes
+	 */
+	public DoubleBuffer getLoadVolumes() {
+		return loadVolumes.duplicate();
+	}
+	
+	public double getSampleAvg(int sample) {
+		return sampleAvgs.get(sample);
+	}
+	
+	public double getConcentration(int sample) {
+		return concentrations.get(sample);
+	}
+	
+	public double getLoadVolume(int sample) {
+		return loadVolumes.get(sample);
+	}
+	
+	/**
+	 * Returns number of samples.
+	 * 
+	 * @return samples
+	 */
+	public int getSampleCount() {
+		return loadVolumes.capacity();
+	}
+	
+	/**
+	 * Returns sample names, one per sample.
+	 * 
+	 * @return unmodifiable names
+	 */
+	public List<String> getSampleNames() {
+		return sampleNames;
+	}
+	
+	public double getSlope() {
+		return slope;
+	}
+	
+	public double getIntercept() {
+		return intercept;
+	}
+	
+	public double getRSquared() {
+		return rSquared;
+	}
+	
+	public int getSpecifiedUg() {
+		return specifiedUg;
+	}
+	
+	public ReplicateNum getReplicateNum() {
+		return replicateNum;
+	}
+	
+	/**
+	 * Returns time the analysed plate was created.
+	 * 
+	 * @return milliseconds since epoch
+	 */
+	public long getCreationTime() {
+		return creationTime;
+	}
+	
+	@Override
+	public String toString() {
+		return "BCAResult[" + getSampleCount() + " samples, slope " + slope + ", intercept " + intercept + ", r squared " + rSquared + "]";
+	}
+}
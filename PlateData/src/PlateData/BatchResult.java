@@ -0,0 +1,102 @@
+package PlateData;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BatchResult holds the outcome of a PlateBatch run. Every file ends up either in results, holding 
+ * the analysed BCAData or CTGData object, or in errors holding the exception that stopped it.
+ * Both maps keep the file order of the batch.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class BatchResult {
+	private final AssayType assayType;
+	private final Map<Path, PlateData> results = new LinkedHashMap<>();
+	private final Map<Path, Exception> errors = new LinkedHashMap<>();
+	private final long elapsedNanos;
+	
+	BatchResult(AssayType assayType, Map<Path, PlateData> results, Map<Path, Exception> errors, long elapsedNanos) {
+		this.assayType = assayType;
+		this.results.putAll(results);
+		this.errors.putAll(errors);
+		this.elapsedNanos = elapsedNanos;
+	}
+	
+	/**
+	 * Returns assay type every file was analysed as.
+	 * 
+	 * @return assayType
+	 */
+	public AssayType getAssayType() {
+		return assayType;
+	}
+	
+	/**
+	 * Returns analysed plates keyed by file. Objects are BCAData or CTGData depending on assay type.
+	 * 
+	 * @return results
+	 */
+	public Map<Path, PlateData> getResults() {
+		return Collections.unmodifiableMap(results);
+	}
+	
+	/**
+	 * Returns exceptions for files that could not be read or analysed keyed by file.
+	 * 
+	 * @return errors
+	 */
+	public Map<Path, Exception> getErrors() {
+		return Collections.unmodifiableMap(errors);
+	}
+	
+	/**
+	 * Returns true if every file in batch was analysed.
+	 * 
+	 * @return true when there are no errors
+	 */
+	public boolean isComplete() {
+		return errors.isEmpty();
+	}
+	
+	/**
+	 * Returns wall clock time taken by the batch in milliseconds.
+	 * 
+	 * @return elapsed milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+	
+	/**
+	 * Writes every result and error of the batch to one streamed Excel report. Stream is not closed.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeReport(OutputStream out) throws IOException{
+		try(PlateReport report = new PlateReport(out)){
+			report.addBatch(this);
+		}
+	}
+	
+	/**
+	 * Prints one line per file with OK or the error message.
+	 */
+	public void printSummary() {
+		System.out.println();
+		System.out.println(assayType + " batch: " + results.size() + " analysed, " + errors.size() + " failed in " + getElapsedMillis() + " ms");
+		for(Path p: results.keySet()) {
+			System.out.println("OK\t" + p.getFileName());
+		}
+		for(Map.Entry<Path, Exception> e: errors.entrySet()) {
+			System.out.println("FAILED\t" + e.getKey().getFileName() + "\t" + e.getValue());
+		}
+	}
+}
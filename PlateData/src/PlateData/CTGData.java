@@ -1,9 +1,15 @@
 package PlateData;
 
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -26,11 +32,15 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 public class CTGData extends PlateData{
 	private ArrayList<double[][]> dataSets;	// holds each data set top/bottom for each plate separately
-	private ArrayList<Double> dataSetControlAverages;	// Average value for control well raw reads corresponding to each data set
+	private double[] controlAverages;	// Average value for control well raw reads corresponding to each data set
+	private double[] controlSDs;	// Standard deviation of control well raw reads for each data set
 	
+	private ArrayList<PlateMatrix> rawPlates;	// Unnormalized plate reads in sheet order, null unless kept
 	private ArrayList<String> dataSetNames;	// Optionally provided name for each data set
 	
-	private String[] columnLabels = {"control", "control", "0.003uM", "0.01uM", "0.03uM", "0.1uM", "0.3uM", "1uM", "3uM", "10uM", "control", "control"};
+	private static final String[] DOSES_96 = {"0.003uM", "0.01uM", "0.03uM", "0.1uM", "0.3uM", "1uM", "3uM", "10uM"};	// Drug amount of each dose column on a 96 well plate
+	
+	private String[] columnLabels;	// Control or drug amount of each data set column, from PlateLayout.ctg
 	
 	
 	/**
@@ -52,62 +62,298 @@ public class CTGData extends PlateData{
 	 * @throws Exception 
 	 */
 	public CTGData(FileInputStream file, ArrayList<String> dataNames) throws Exception{
-		super();
+		this(file, dataNames, ReaderMode.WORKBOOK);
+	}
+	
+	/**
+	 * Constructor for CTGData object given acceptable CTG excel data and how it should be read.
+	 * ReaderMode.STREAMING avoids building a full workbook in memory.
+	 * 
+	 * @param file Excel File with plate read CTG data
+	 * @param dataNames optional names for each data set
+	 * @param readerMode workbook or streaming reader
+	 * @throws Exception 
+	 */
+	public CTGData(FileInputStream file, ArrayList<String> dataNames, ReaderMode readerMode) throws Exception{
+		this(file, dataNames, readerMode, PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Constructor for CTGData object given acceptable CTG excel data, how it should be read and plate format.
+	 * Each plate is split into top and bottom halves, control wells are the first two and last two columns.
+	 * 
+	 * @param file Excel File with plate read CTG data
+	 * @param dataNames optional names for each data set
+	 * @param readerMode workbook or streaming reader
+	 * @param plateFormat 96, 384 or 1536 well plates
+	 * @throws Exception 
+	 */
+	public CTGData(FileInputStream file, ArrayList<String> dataNames, ReaderMode readerMode, PlateFormat plateFormat) throws Exception{
+		this(file, dataNames, readerMode, plateFormat, false);
+	}
+	
+	/**
+	 * Constructor for CTGData object given acceptable CTG excel data, how it should be read and plate format,
+	 * optionally keeping a copy of each plate read before normalization, as PlateArchiveWriter needs.
+	 * 
+	 * @param file Excel File with plate read CTG data
+	 * @param dataNames optional names for each data set
+	 * @param readerMode workbook or streaming reader
+	 * @param plateFormat 96, 384 or 1536 well plates
+	 * @param keepRawPlates true to keep unnormalized plates for getRawPlates
+	 * @throws Exception 
+	 */
+	public CTGData(FileInputStream file, ArrayList<String> dataNames, ReaderMode readerMode, PlateFormat plateFormat, boolean keepRawPlates) throws Exception{
+		super(plateFormat);
 		
 		dataSets = new ArrayList<>();
-		processRawData(file);
+		processRawData(file, readerMode);
 		
-		dataSetControlAverages = new ArrayList<>();
-		processControlAverages();
+		dataSetNames = dataNames;
+		if(keepRawPlates) {
+			collectRawPlates();
+		}
+		columnLabels = dataSets.isEmpty() ? new String[0] : columnLabels(dataSets.get(0)[0].length);
 		
 		normalizeDataSets();
 	}
 	
+	/**
+	 * Constructor for CTGData object from plates that have already been read, for example ones 
+	 * held in a PlateCache, so the excel file does not need to be parsed again. Plate values are copied
+	 * into data sets and the given plates themselves are kept as the raw plates.
+	 * 
+	 * @param plates stacked plate reads in sheet order, all of the same format
+	 * @param dataNames optional names for each data set
+	 * @throws Exception 
+	 */
+	public CTGData(List<PlateMatrix> plates, ArrayList<String> dataNames) throws Exception{
+		super(plates.isEmpty() ? PlateFormat.WELLS_96 : plates.get(0).getFormat());
+		
+		dataSets = new ArrayList<>();
+		for(PlateMatrix plate: plates) {
+			double[][][] halves = splitHalves(plate);
+			
+			dataSets.add(halves[0]);
+			dataSets.add(halves[1]);
+		}
+		
+		dataSetNames = dataNames;
+		rawPlates = new ArrayList<>(plates);
+		columnLabels = dataSets.isEmpty() ? new String[0] : columnLabels(dataSets.get(0)[0].length);
+		
+		normalizeDataSets();
+	}
+	
+	/**
+	 * Keeps a copy of each plate read, top and bottom data set joined back together,
+	 * before data sets are normalized in place.
+	 */
+	private void collectRawPlates() {
+		rawPlates = new ArrayList<>(dataSets.size() / 2);
+		
+		for(int k = 0; k + 1 < dataSets.size(); k += 2) {
+			double[][] top = dataSets.get(k);
+			double[][] bottom = dataSets.get(k + 1);
+			int columns = top[0].length;
+			
+			PlateMatrix plate = new PlateMatrix(top.length + bottom.length, columns);
+			for(int i = 0; i < top.length; i++) {
+				for(int j = 0; j < columns; j++) {
+					plate.set(i, j, top[i][j]);
+					plate.set(i + top.length, j, bottom[i][j]);
+				}
+			}
+			rawPlates.add(plate);
+		}
+	}
+	
+	/**
+	 * Builds column labels for data sets of the given width from PlateLayout.ctg. Control columns are
+	 * labelled "control". Dose columns get their drug amount when the width is that of a 96 well plate, 
+	 * otherwise "column n" since doses of other formats are not known.
+	 * 
+	 * @param columns columns in data set
+	 * @return labels
+	 */
+	static String[] columnLabels(int columns) {
+		String[] labels = new String[columns];
+		Arrays.fill(labels, "control");
+		
+		int[] doseColumns = PlateLayout.ctg(1, columns).getLevels(WellRole.DOSE);
+		for(int d = 0; d < doseColumns.length; d++) {
+			int c = doseColumns[d];
+			labels[c] = (doseColumns.length == DOSES_96.length) ? DOSES_96[d] : "column " + (c + 1);
+		}
+		return labels;
+	}
+	
 	/**
 	 * Normalize each array data set. Normalization includes dividing each value by
 	 * corresponding control value average multiplied by 100 to get a percent
-	 * of existing metabolism in comparison to control untreated wells.
+	 * of existing metabolism in comparison to control untreated wells. Control averages
+	 * and standard deviations are taken in the same pass, timed as NORMALIZATION.
 	 */
 	private void normalizeDataSets() {
-		// Iterate through each data set and normalize to control average value
-		for(int k = 0; k < dataSets.size(); k++) {
-			for(int i = 0; i < 4; i++) {
-				for(int j = 0; j < 12; j++) {
-					dataSets.get(k)[i][j] = ((dataSets.get(k)[i][j] / dataSetControlAverages.get(k))*100);
-					//System.out.println(dataSets.get(k)[i][j]);
-				}
+		controlAverages = new double[dataSets.size()];
+		controlSDs = new double[dataSets.size()];
+		
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.NORMALIZATION)){
+			normalizeAll(dataSets, controlAverages, controlSDs);
+			if(!dataSets.isEmpty()) {
+				timer.wells((long) dataSets.size() * dataSets.get(0).length * dataSets.get(0)[0].length);
 			}
 		}
 	}
 	
 	/**
-	 * Takes average of all top control wells for corresponding data set and stores in ArrayList
-	 * dataSetControlAverages. Index of average will be same as index for corresponding data set and name. 
+	 * Normalizes every data set to its own controls in place, writing control averages and standard
+	 * deviations by data set index. Each data set is handled by normalizeToControls in one visit while it 
+	 * is in cache. Once there are more than NORMALIZE_SPLIT data sets they are split in halves across 
+	 * the common fork join pool.
+	 * 
+	 * @param dataSets top and bottom halves of plates
+	 * @param averages control average of each data set, at least dataSets.size() long
+	 * @param sds control standard deviation of each data set, at least dataSets.size() long
 	 */
-	private void processControlAverages() {
-		double controlAverage = 0;
+	static void normalizeAll(List<double[][]> dataSets, double[] averages, double[] sds) {
+		if(dataSets.size() <= NormalizeTask.SPLIT) {
+			normalizeRange(dataSets, averages, sds, 0, dataSets.size());
+		}else {
+			ForkJoinPool.commonPool().invoke(new NormalizeTask(dataSets, averages, sds, 0, dataSets.size()));
+		}
+	}
+	
+	private static void normalizeRange(List<double[][]> dataSets, double[] averages, double[] sds, int from, int to) {
+		PlateLayout layout = null;
 		
-		// Loop through all data sets and compute average (left two columns nd right two columns)
-		for(double[][] e: dataSets) {
-			controlAverage = 0;
-			
-			// Averaging first two and last two columns
-			for(int i = 0; i < 12; i++) {
-				// Skip over 8 rows to last control values
-				if(i == 2)
-					i += 8;
-				for(int j = 0; j < 4; j++) {
-					//System.out.println(e[j][i]);
-					controlAverage += (e[j][i]);
-				}
+		for(int k = from; k < to; k++) {
+			double[][] dataSet = dataSets.get(k);
+			if(layout == null || layout.getRows() != dataSet.length || layout.getColumns() != dataSet[0].length) {
+				layout = PlateLayout.ctg(dataSet.length, dataSet[0].length);
+			}
+			averages[k] = normalizeToControls(dataSet, layout, sds, k);
+		}
+	}
+	
+	/**
+	 * Splits a range of data sets in halves until each is small enough to normalize directly.
+	 */
+	private static final class NormalizeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		static final int SPLIT = 64;	// Data sets below which forking costs more than it saves
+		
+		private final List<double[][]> dataSets;
+		private final double[] averages;
+		private final double[] sds;
+		private final int from;
+		private final int to;
+		
+		NormalizeTask(List<double[][]> dataSets, double[] averages, double[] sds, int from, int to) {
+			this.dataSets = dataSets;
+			this.averages = averages;
+			this.sds = sds;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if(to - from <= SPLIT) {
+				normalizeRange(dataSets, averages, sds, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new NormalizeTask(dataSets, averages, sds, from, middle), new NormalizeTask(dataSets, averages, sds, middle, to));
+		}
+	}
+	
+	/**
+	 * Averages the control wells of a data set, in the order of PlateLayout.ctg, then divides each 
+	 * value by the average multiplied by 100, in place. Both loops run over the same 48 values on a
+	 * 96 well plate so the second finds them in cache. Average and normalized values are the same as
+	 * controlAverage followed by normalize.
+	 * 
+	 * @param dataSet top or bottom half of a plate
+	 * @param layout PlateLayout.ctg of data set's size
+	 * @param sds control standard deviation written at index
+	 * @param index position of data set
+	 * @return controlAverage
+	 */
+	static double normalizeToControls(double[][] dataSet, PlateLayout layout, double[] sds, int index) {
+		int[] rows = layout.wellRows(WellRole.CONTROL);
+		int[] columns = layout.wellColumns(WellRole.CONTROL);
+		int n = rows.length;
+		double shift = dataSet[rows[0]][columns[0]];
+		double sum = 0;
+		double shiftedSum = 0;
+		double shiftedSquares = 0;
+		
+		for(int i = 0; i < n; i++) {
+			double x = dataSet[rows[i]][columns[i]];
+			double d = x - shift;
+			sum += x;
+			shiftedSum += d;
+			shiftedSquares += d * d;
+		}
+		double controlAverage = sum / n;
+		sds[index] = (n < 2) ? Double.NaN : Math.sqrt(Math.max(0, (n * shiftedSquares - shiftedSum * shiftedSum) / ((double) n * (n - 1))));
+		
+		for(double[] row: dataSet) {
+			for(int j = 0; j < row.length; j++) {
+				row[j] = ((row[j] / controlAverage)*100);
+			}
+		}
+		return controlAverage;
+	}
+	
+	/**
+	 * Averages control wells of a data set and normalizes it to them in place.
+	 * 
+	 * @param dataSet top or bottom half of a plate
+	 * @return controlAverage
+	 */
+	static double normalizeToControls(double[][] dataSet) {
+		double[] sd = new double[1];
+		return normalizeToControls(dataSet, PlateLayout.ctg(dataSet.length, dataSet[0].length), sd, 0);
+	}
+	
+	/**
+	 * Divides each value in a data set by control average multiplied by 100, in place.
+	 * 
+	 * @param dataSet top or bottom half of a plate
+	 * @param controlAverage average of control wells for data set
+	 */
+	static void normalize(double[][] dataSet, double controlAverage) {
+		for(int i = 0; i < dataSet.length; i++) {
+			for(int j = 0; j < dataSet[i].length; j++) {
+				dataSet[i][j] = ((dataSet[i][j] / controlAverage)*100);
 			}
-			
-			// Average for 16 control wells
-			controlAverage /= 16;
-			dataSetControlAverages.add(controlAverage);
 		}
 	}
 	
+	/**
+	 * Average of the control wells in a data set, first two and last two columns 
+	 * (16 wells for a 96 well plate), as given by PlateLayout.ctg.
+	 * 
+	 * @param dataSet top or bottom half of a plate
+	 * @return controlAverage
+	 */
+	static double controlAverage(double[][] dataSet) {
+		return PlateLayout.ctg(dataSet.length, dataSet[0].length).mean(dataSet, WellRole.CONTROL);
+	}
+	
+	/**
+	 * Splits a plate into top and bottom halves, used as separate data sets.
+	 * 
+	 * @param plate
+	 * @return array holding top then bottom half
+	 */
+	static double[][][] splitHalves(PlateMatrix plate) {
+		int half = plate.getRows() / 2;
+		return new double[][][] {plate.toArray(0, half), plate.toArray(half, half)};
+	}
+	
 	/**
 	 * 
 	 * @param file
@@ -116,7 +362,14 @@ public class CTGData extends PlateData{
 	@Override
 	public void processRawData(FileInputStream file) throws IOException{
 		//Create workbook object using input stream object
-		XSSFWorkbook workbook = new XSSFWorkbook(file);
+		XSSFWorkbook workbook;
+		PlateMetrics.Timer parse = PlateMetrics.start(PipelineStage.WORKBOOK_PARSE);
+		try {
+			workbook = new XSSFWorkbook(file);
+		} finally {
+			parse.close();
+		}
+		PlateMetrics.Timer extraction = PlateMetrics.start(PipelineStage.CELL_EXTRACTION);
 				
 		//Get first sheet of workbook/excel file
 		XSSFSheet sheet = workbook.getSheetAt(0);
@@ -125,6 +378,10 @@ public class CTGData extends PlateData{
 		//Since iterating through the whole file we need to account for blank rows
 		double[][] rawDataTop;
 		double[][] rawDataBot;
+		
+		int plateRows = super.getPlateFormat().getRows();
+		int plateColumns = super.getPlateFormat().getColumns();
+		int half = plateRows / 2;
 				
 		//variables for counting 
 		int i = 0;
@@ -144,28 +401,28 @@ public class CTGData extends PlateData{
 		
 		// Loop runs until an empty cell/ plate value is encountered
 		while(continueRunning) {
-			rawDataTop = new double[4][12];
-			rawDataBot = new double[4][12];
+			rawDataTop = new double[half][plateColumns];
+			rawDataBot = new double[half][plateColumns];
 
 			i = 0;	// Reset storage array to first row
 			
-			//Iterate skipping first row and through next 8 rows
-			for(int p = firstRowCount; p < firstRowCount + 8; p++) {
+			//Iterate skipping first row and through next 8 rows (or plate row count)
+			for(int p = firstRowCount; p < firstRowCount + plateRows; p++) {
 				Row rowAttempt = sheet.getRow(p);
 						
 				j = 0;	// Reset storage array to first column
 						
-				//Loop through 12 cell values excluding first cell
-				for(int k = 1; k < 13; k++) {
+				//Loop through 12 cell values (or plate column count) excluding first cell
+				for(int k = 1; k <= plateColumns; k++) {
 					Cell cellAttempt = rowAttempt.getCell(k);
 							
 					// After getting cell type and value we set in top or bottom rawData array respectively
 					switch(cellAttempt.getCellType()) {
 						case NUMERIC:
-							if(i < 4) {
+							if(i < half) {
 								rawDataTop[i][j] = cellAttempt.getNumericCellValue();
 							}else {
-								rawDataBot[i - 4][j] = cellAttempt.getNumericCellValue();
+								rawDataBot[i - half][j] = cellAttempt.getNumericCellValue();
 							}
 						j++;
 					}
@@ -176,8 +433,9 @@ public class CTGData extends PlateData{
 			// Once top and bottom arrays have been digested we add them consecutively to all dataSets ArrayList
 			dataSets.add(rawDataTop);
 			dataSets.add(rawDataBot);
+			PlateMetrics.recordPlate(plateRows * plateColumns);
 			
-			firstRowCount += 10;	// After each plate is consumed we increment 10 rows to next plate
+			firstRowCount += plateRows + 2;	// After each plate is consumed we increment 10 rows (plate rows plus 2) to next plate
 			
 			// Stop loop from running if incremented cell is empty
 			try {
@@ -187,6 +445,25 @@ public class CTGData extends PlateData{
 				continueRunning = false;
 			}
 		}
+		
+		extraction.wells((long) dataSets.size() * half * plateColumns).close();
+	}
+	
+	/**
+	 * Streams every stacked plate from the first sheet using PlateSheetReader and splits
+	 * each into top and bottom data sets, same as processRawData.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	@Override
+	public void processRawDataStreaming(InputStream file) throws IOException{
+		PlateSheetReader.read(file, super.getPlateFormat(), Integer.MAX_VALUE, (index, plate) -> {
+			double[][][] halves = splitHalves(plate);
+			
+			dataSets.add(halves[0]);
+			dataSets.add(halves[1]);
+		});
 	}
 	
 	/**
@@ -199,16 +476,82 @@ public class CTGData extends PlateData{
 	}
 	
 	/**
-	 * Returns the average value for all control wells in top data set
+	 * Returns immutable snapshot of normalized data sets and control statistics that can be
+	 * shared across threads, later changes to this object do not reach it.
+	 * 
+	 * @return result snapshot
+	 */
+	public CTGResult toResult() {
+		return new CTGResult(this);
+	}
+	
+	/**
+	 * Returns unnormalized plate reads in sheet order. Data sets 2n and 2n + 1 
+	 * are the top and bottom halves of plate n. Plates read from a file are only kept 
+	 * when asked for on construction.
 	 * 
-	 * @return topControlAverage
+	 * @return rawPlates, null if not kept
+	 */
+	public ArrayList<PlateMatrix> getRawPlates(){
+		return rawPlates;
+	}
+	
+	/**
+	 * Returns names provided for each data set, may be null as names are optional.
+	 * 
+	 * @return dataSetNames
+	 */
+	public ArrayList<String> getDataSetNames(){
+		return dataSetNames;
+	}
+	
+	/**
+	 * Returns the average value of control wells for each data set, as a boxed copy.
+	 * 
+	 * @return control averages
 	 */
 	public ArrayList<Double> getDataSetControlAverages() {
-		return dataSetControlAverages;
+		ArrayList<Double> averages = new ArrayList<>(controlAverages.length);
+		for(double e: controlAverages) {
+			averages.add(e);
+		}
+		return averages;
 	}
 	
 	/**
-	 * Return 1D array holding string values for uM drug amount in each column
+	 * Returns average of raw control wells of a data set.
+	 * 
+	 * @param dataSet index of data set
+	 * @return control average
+	 */
+	public double getControlAverage(int dataSet) {
+		return controlAverages[dataSet];
+	}
+	
+	/**
+	 * Returns standard deviation of raw control wells of a data set.
+	 * 
+	 * @param dataSet index of data set
+	 * @return control standard deviation
+	 */
+	public double getControlSD(int dataSet) {
+		return controlSDs[dataSet];
+	}
+	
+	/**
+	 * Returns coefficient of variation of raw control wells of a data set, a check on 
+	 * how evenly untreated wells were seeded and read.
+	 * 
+	 * @param dataSet index of data set
+	 * @return control CV as a fraction
+	 */
+	public double getControlCV(int dataSet) {
+		return controlSDs[dataSet] / controlAverages[dataSet];
+	}
+	
+	/**
+	 * Return 1D array holding string values for uM drug amount in each column. Only 96 well 
+	 * data sets have doses until they are set with setColumnLabels.
 	 * 
 	 * @return columnLabels array
 	 */
@@ -216,6 +559,44 @@ public class CTGData extends PlateData{
 		return columnLabels;
 	}
 	
+	/**
+	 * Sets label of each data set column, for example "100nM", to give the doses of plate formats 
+	 * other than 96 well. Control columns should stay "control".
+	 * 
+	 * @param labels one per data set column
+	 */
+	public void setColumnLabels(String[] labels) {
+		if(labels.length != columnLabels.length) {
+			throw new IllegalArgumentException("Expected " + columnLabels.length + " column labels, got " + labels.length);
+		}
+		columnLabels = labels.clone();
+	}
+	
+	/**
+	 * Fits a four parameter logistic dose response curve to every row of every data set using
+	 * the doses in columnLabels. Data sets are fit in parallel.
+	 * 
+	 * @return fits per data set, one per row
+	 * @throws IllegalArgumentException when fewer than four columns have doses, as for formats 
+	 * other than 96 well before setColumnLabels
+	 */
+	public ArrayList<DoseResponseFit[]> fitDoseResponses() {
+		return new DoseResponseEngine(columnLabels).fit(this);
+	}
+	
+	/**
+	 * Will output normalized data sets with their names and control averages to sheet CTG
+	 * of a new workbook. File is not closed.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public void CTGExcelOutput(FileOutputStream file) throws IOException{
+		try(PlateReport report = new PlateReport(file)){
+			report.addCTG(getCreationDate(), this);
+		}
+	}
+	
 	/**
 	 * Prints the normalized values held in array topNormaizedValues.
 	 * Method will first print column label values for amount of drug.
@@ -0,0 +1,80 @@
+package PlateData;
+
+/**
+ * CTGPlate holds a single normalized CTG plate read, top and bottom halves (4 rows each on a 96 well plate) as separate data sets
+ * along with the control average each was normalized against. Produced one at a time by 
+ * CTGPlateIterator so only the current plate needs to be held in memory.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class CTGPlate {
+	private final int index;	// Position of plate in sheet, starting at 0
+	private final double[][] top;
+	private final double[][] bottom;
+	private final double topControlAverage;
+	private final double bottomControlAverage;
+	
+	/**
+	 * Normalizes raw top and bottom halves in place to their own control averages.
+	 * 
+	 * @param index position of plate in sheet
+	 * @param rawTop top half of raw plate values
+	 * @param rawBottom bottom half of raw plate values
+	 */
+	CTGPlate(int index, double[][] rawTop, double[][] rawBottom) {
+		this.index = index;
+		this.top = rawTop;
+		this.bottom = rawBottom;
+		
+		topControlAverage = CTGData.normalizeToControls(top);
+		bottomControlAverage = CTGData.normalizeToControls(bottom);
+	}
+	
+	/**
+	 * Returns position of plate in sheet, starting at 0. Data set index in CTGData 
+	 * is 2 * index for top and 2 * index + 1 for bottom.
+	 * 
+	 * @return index
+	 */
+	public int getIndex() {
+		return index;
+	}
+	
+	/**
+	 * Returns normalized top half as percent of control.
+	 * 
+	 * @return top data set
+	 */
+	public double[][] getTop() {
+		return top;
+	}
+	
+	/**
+	 * Returns normalized bottom half as percent of control.
+	 * 
+	 * @return bottom data set
+	 */
+	public double[][] getBottom() {
+		return bottom;
+	}
+	
+	/**
+	 * Returns average raw value of top control wells.
+	 * 
+	 * @return topControlAverage
+	 */
+	public double getTopControlAverage() {
+		return topControlAverage;
+	}
+	
+	/**
+	 * Returns average raw value of bottom control wells.
+	 * 
+	 * @return bottomControlAverage
+	 */
+	public double getBottomControlAverage() {
+		return bottomControlAverage;
+	}
+}
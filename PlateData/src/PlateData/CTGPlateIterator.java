@@ -0,0 +1,257 @@
+package PlateData;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+/**
+ * CTGPlateIterator walks the stacked plates of a CTG workbook one plate at a time. Sheet XML is pulled 
+ * only as far as the next plate, which is then normalized and handed back as a CTGPlate. Unlike CTGData, 
+ * which holds every data set, memory use stays the same however many plates the workbook holds.
+ * Iterator must be closed, or used through stream() with try-with-resources, to release the file.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class CTGPlateIterator implements Iterator<CTGPlate>, Closeable {
+	private final OPCPackage pkg;
+	private final InputStream sheet;
+	private final XMLStreamReader xml;
+	private final PlateBlockAssembler assembler;
+	
+	private PlateMatrix pending;	// Next raw plate read ahead by hasNext
+	private boolean exhausted = false;
+	private int plateIndex = 0;
+	
+	// Cell state while pulling sheet XML
+	private int rowIndex = -1;
+	private int columnIndex = -1;
+	private boolean rowDeferred;	// Row would open a plate, started on its first numeric cell
+	
+	/**
+	 * Opens CTG workbook file of 96 well plates. Package entries are read from the zip on demand.
+	 * 
+	 * @param file .xlsx CTG plate file
+	 * @return iterator positioned before first plate
+	 * @throws IOException
+	 */
+	public static CTGPlateIterator open(File file) throws IOException{
+		return open(file, PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Opens CTG workbook file. Package entries are read from the zip on demand.
+	 * 
+	 * @param file .xlsx CTG plate file
+	 * @param format plate geometry
+	 * @return iterator positioned before first plate
+	 * @throws IOException
+	 */
+	public static CTGPlateIterator open(File file, PlateFormat format) throws IOException{
+		try {
+			return new CTGPlateIterator(OPCPackage.open(file, PackageAccess.READ), format);
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to open workbook " + file, e);
+		}
+	}
+	
+	/**
+	 * Opens CTG workbook from input stream. Compressed package is buffered by POI,
+	 * prefer open(File) for very large workbooks.
+	 * 
+	 * @param file input stream of .xlsx CTG plate file
+	 * @return iterator positioned before first plate
+	 * @throws IOException
+	 */
+	public static CTGPlateIterator open(InputStream file) throws IOException{
+		try {
+			return new CTGPlateIterator(OPCPackage.open(file), PlateFormat.WELLS_96);
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to open workbook", e);
+		}
+	}
+	
+	/**
+	 * Returns lazily evaluated stream of plates in file. Closing the stream closes the file.
+	 * 
+	 * @param file .xlsx CTG plate file
+	 * @return stream of normalized plates
+	 * @throws IOException
+	 */
+	public static Stream<CTGPlate> stream(File file) throws IOException{
+		CTGPlateIterator plates = open(file);
+		
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(plates, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(() -> {
+					try {
+						plates.close();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
+	
+	private CTGPlateIterator(OPCPackage pkg, PlateFormat format) throws IOException{
+		this.pkg = pkg;
+		this.assembler = new PlateBlockAssembler(format, Integer.MAX_VALUE, (index, values) -> pending = values);
+		
+		try {
+			Iterator<InputStream> sheets = new XSSFReader(pkg).getSheetsData();
+			if(!sheets.hasNext()) {
+				throw new IOException("Workbook has no sheets");
+			}
+			sheet = sheets.next();
+			
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			xml = factory.createXMLStreamReader(sheet);
+		} catch (OpenXML4JException | XMLStreamException e) {
+			pkg.revert();
+			throw new IOException("Unable to read first sheet", e);
+		} catch (IOException e) {
+			pkg.revert();
+			throw e;
+		}
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if(pending == null && !exhausted) {
+			try {
+				advance();
+			} catch (XMLStreamException e) {
+				exhausted = true;
+				throw new UncheckedIOException(new IOException("Unable to parse sheet", e));
+			}
+		}
+		return pending != null;
+	}
+	
+	@Override
+	public CTGPlate next() {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		
+		double[][][] halves = CTGData.splitHalves(pending);
+		pending = null;
+		
+		return new CTGPlate(plateIndex++, halves[0], halves[1]);
+	}
+	
+	/**
+	 * Pulls sheet XML until assembler completes a plate or sheet data ends.
+	 */
+	private void advance() throws XMLStreamException{
+		while(pending == null && !exhausted && xml.hasNext()) {
+			int event = xml.next();
+			
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				switch(xml.getLocalName()) {
+					case "row":
+						String r = xml.getAttributeValue(null, "r");
+						rowIndex = (r != null) ? Integer.parseInt(r) - 1 : rowIndex + 1;
+						columnIndex = -1;
+						
+						// An empty or formatted only row must not open an all zero plate
+						rowDeferred = assembler.opensBlock(rowIndex);
+						if(!rowDeferred && !assembler.startRow(rowIndex)) {
+							exhausted = true;
+						}
+						break;
+					case "c":
+						String ref = xml.getAttributeValue(null, "r");
+						columnIndex = (ref != null) ? PlateSheetReader.columnFromReference(ref) : columnIndex + 1;
+						String type = xml.getAttributeValue(null, "t");
+						
+						// Skip straight past cells that are not numeric
+						if(type != null && !"n".equals(type)) {
+							skipElement();
+						}
+						break;
+					case "v":
+						String text = xml.getElementText();
+						if(!text.isEmpty()) {
+							if(rowDeferred) {
+								rowDeferred = false;
+								if(!assembler.startRow(rowIndex)) {
+									exhausted = true;
+									break;
+								}
+							}
+							assembler.cell(rowIndex, columnIndex, Double.parseDouble(text));
+						}
+						break;
+					default:
+						break;
+				}
+			}else if(event == XMLStreamConstants.END_ELEMENT) {
+				String name = xml.getLocalName();
+				if("row".equals(name)) {
+					if(rowDeferred) {
+						// No value in a row that would start a plate ends the plates, as an empty row does
+						assembler.finish();
+						exhausted = true;
+					}else if(!assembler.endRow(rowIndex)) {
+						exhausted = true;
+					}
+				}else if("sheetData".equals(name)) {
+					assembler.finish();
+					exhausted = true;
+				}
+			}
+		}
+		
+		if(pending == null && !exhausted) {
+			assembler.finish();
+			exhausted = true;
+		}
+	}
+	
+	/**
+	 * Moves reader to end of current element.
+	 */
+	private void skipElement() throws XMLStreamException{
+		int depth = 1;
+		while(depth > 0) {
+			int event = xml.next();
+			if(event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}else if(event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws IOException{
+		try {
+			xml.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			sheet.close();
+			pkg.revert();
+		}
+	}
+}
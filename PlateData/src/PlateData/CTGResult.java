@@ -0,0 +1,193 @@
+package PlateData;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CTGResult is an immutable snapshot of analysed CTG data sets that can be shared by any number of threads
+ * without copying or locking. Every normalized data set, then control averages and control standard
+ * deviations, are copied once into a single double[], data sets row-major one after another, and handed out
+ * as read-only DoubleBuffer views over their part of it, each caller getting its own duplicate. Every field
+ * is final and the array is never written after construction, so a CTGResult is safely published however it
+ * is passed on.
+ * 
+ * Taken with CTGData.toResult, later changes to the CTGData do not reach it.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class CTGResult {
+	private final DoubleBuffer values;	// Whole array, data sets then control averages then SDs
+	private final int dataSets;
+	private final int rows;
+	private final int columns;
+	private final DoubleBuffer controlAverages;
+	private final DoubleBuffer controlSDs;
+	private final List<String> dataSetNames;
+	private final List<String> columnLabels;
+	private final long creationTime;
+	
+	/**
+	 * Copies normalized data sets and control statistics of analysed data.
+	 * 
+	 * @param ctg
+	 */
+	CTGResult(CTGData ctg) {
+		ArrayList<double[][]> sets = ctg.getDataSets();
+		dataSets = sets.size();
+		rows = (dataSets == 0) ? 0 : sets.get(0).length;
+		columns = (rows == 0) ? 0 : sets.get(0)[0].length;
+		int wells = rows * columns;
+		
+		double[] all = new double[dataSets * wells + 2 * dataSets];
+		for(int s = 0; s < dataSets; s++) {
+			double[][] set = sets.get(s);
+			if(set.length != rows) {
+				throw new IllegalStateException("Data set " + s + " has " + set.length + " rows, expected " + rows);
+			}
+			for(int r = 0; r < rows; r++) {
+				System.arraycopy(set[r], 0, all, s * wells + r * columns, columns);
+			}
+			all[dataSets * wells + s] = ctg.getControlAverage(s);
+			all[dataSets * wells + dataSets + s] = ctg.getControlSD(s);
+		}
+		
+		values = DoubleBuffer.wrap(all).asReadOnlyBuffer();
+		controlAverages = BCAResult.view(values, dataSets * wells, dataSets);
+		controlSDs = BCAResult.view(values, dataSets * wells + dataSets, dataSets);
+		
+		ArrayList<String> names = new ArrayList<>(dataSets);
+		for(int s = 0; s < dataSets; s++) {
+			names.add((ctg.getDataSetNames() != null && s < ctg.getDataSetNames().size()) ? ctg.getDataSetNames().get(s) : "Data Set " + (s + 1));
+		}
+		dataSetNames = Collections.unmodifiableList(names);
+		
+		String[] labels = ctg.getColumnLabels();
+		columnLabels = (labels == null) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(Arrays.asList(labels)));
+		creationTime = ctg.getCreationTime();
+	}
+	
+	/**
+	 * Returns number of data sets.
+	 * 
+	 * @return data sets
+	 */
+	public int getDataSetCount() {
+		return dataSets;
+	}
+	
+	/**
+	 * Returns rows in each data set.
+	 * 
+	 * @return rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+	
+	/**
+	 * Returns columns in each data set.
+	 * 
+	 * @return columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+	
+	/**
+	 * Returns read-only row-major view of a normalized data set, percent of control.
+	 * 
+	 * @param dataSet index of data set
+	 * @return values, row * getColumns() + column
+	 */
+	public DoubleBuffer getDataSet(int dataSet) {
+		checkDataSet(dataSet);
+		return BCAResult.view(values, dataSet * rows * columns, rows * columns);
+	}
+	
+	/**
+	 * Returns one normalized value.
+	 * 
+	 * @param dataSet index of data set
+	 * @param row
+	 * @param column
+	 * @return percent of control
+	 */
+	public double getValue(int dataSet, int row, int column) {
+		checkDataSet(dataSet);
+		if(row < 0 || row >= rows || column < 0 || column >= columns) {
+			throw new IndexOutOfBoundsException("Well (" + row + ", " + column + ") outside " + rows + "x" + columns + " data set");
+		}
+		return values.get((dataSet * rows + row) * columns + column);
+	}
+	
+	/**
+	 * Returns read-only view of control averages, one per data set.
+	 * 
+	 * @return control averages
+	 */
+	public DoubleBuffer getControlAverages() {
+		return controlAverages.duplicate();
+	}
+	
+	/**
+	 * Returns read-only view of control standard deviations, one per data set.
+	 * 
+	 * @return control standard deviations
+	 */
+	public DoubleBuffer getControlSDs() {
+		return controlSDs.duplicate();
+	}
+	
+	public double getControlAverage(int dataSet) {
+		checkDataSet(dataSet);
+		return controlAverages.get(dataSet);
+	}
+	
+	public double getControlSD(int dataSet) {
+		checkDataSet(dataSet);
+		return controlSDs.get(dataSet);
+	}
+	
+	/**
+	 * Returns data set names, Data Set n where none was given.
+	 * 
+	 * @return unmodifiable names
+	 */
+	public List<String> getDataSetNames() {
+		return dataSetNames;
+	}
+	
+	/**
+	 * Returns column labels of the data sets.
+	 * 
+	 * @return unmodifiable labels
+	 */
+	public List<String> getColumnLabels() {
+		return columnLabels;
+	}
+	
+	/**
+	 * Returns time the analysed data was created.
+	 * 
+	 * @return milliseconds since epoch
+	 */
+	public long getCreationTime() {
+		return creationTime;
+	}
+	
+	private void checkDataSet(int dataSet) {
+		if(dataSet < 0 || dataSet >= dataSets) {
+			throw new IndexOutOfBoundsException("Data set " + dataSet + " of " + dataSets);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "CTGResult[" + dataSets + " data sets of " + rows + "x" + columns + "]";
+	}
+}
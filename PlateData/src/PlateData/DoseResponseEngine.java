@@ -0,0 +1,297 @@
+package PlateData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * DoseResponseEngine fits a four parameter logistic curve to every row of CTG data sets, giving IC50, hill,
+ * plateaus and fit quality per row. Doses are parsed once from the column labels ("0.003uM", "100nM", ...),
+ * columns without a dose such as controls are left out of the fit. Each row starts from the fit of the row
+ * before it when that fit converged, neighbouring rows usually being replicates or related compounds, which
+ * cuts iterations to a handful. The first row of each data set starts from its own guess, so fits do not depend
+ * on how data sets are split across threads and the same file gives the same fits on any number of cores. Data
+ * sets are split across threads of the common fork join pool, each thread reusing one solver's buffers for all
+ * of its rows.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class DoseResponseEngine {
+	private static final double MAX_HILL = 10;
+	
+	private final int[] doseColumns; //Data set columns holding a dose
+	private final double[] logDoses; //log10 uM dose of each dose column
+	private final double minLogDose;
+	private final double maxLogDose;
+	
+	/**
+	 * Creates engine for data sets laid out with the given column labels.
+	 * 
+	 * @param columnLabels labels as in CTGData.getColumnLabels()
+	 * @throws IllegalArgumentException if fewer than four columns have a dose
+	 */
+	public DoseResponseEngine(String[] columnLabels) {
+		int[] columns = new int[columnLabels.length];
+		double[] doses = new double[columnLabels.length];
+		int n = 0;
+		
+		for(int i = 0; i < columnLabels.length; i++) {
+			double dose = parseDose(columnLabels[i]);
+			if(dose > 0) {
+				columns[n] = i;
+				doses[n] = Math.log10(dose);
+				n++;
+			}
+		}
+		
+		if(n < DoseResponseSolver.PARAMETERS) {
+			throw new IllegalArgumentException("At least " + DoseResponseSolver.PARAMETERS + " dose columns are needed, found " + n);
+		}
+		doseColumns = Arrays.copyOf(columns, n);
+		logDoses = Arrays.copyOf(doses, n);
+		
+		double[] sorted = logDoses.clone();
+		Arrays.sort(sorted);
+		minLogDose = sorted[0];
+		maxLogDose = sorted[n - 1];
+	}
+	
+	/**
+	 * Parses a dose label such as "0.003uM", "100 nM" or "1mM" into uM. A number without
+	 * a unit is taken as uM.
+	 * 
+	 * @param label
+	 * @return dose in uM or NaN if label is not a dose, for example "control"
+	 */
+	public static double parseDose(String label) {
+		if(label == null) {
+			return Double.NaN;
+		}
+		String s = label.trim();
+		
+		int end = 0;
+		while(end < s.length() && ("0123456789.+-eE".indexOf(s.charAt(end)) >= 0)) {
+			// Stop at a unit starting with e such as a stray letter, only treat e as exponent when a digit follows
+			if((s.charAt(end) == 'e' || s.charAt(end) == 'E') && (end + 1 >= s.length() || "0123456789+-".indexOf(s.charAt(end + 1)) < 0)) {
+				break;
+			}
+			end++;
+		}
+		if(end == 0) {
+			return Double.NaN;
+		}
+		
+		double value;
+		try {
+			value = Double.parseDouble(s.substring(0, end));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+		
+		String unit = s.substring(end).trim();
+		switch(unit) {
+			case "":
+			case "uM":
+			case "\u00b5M":
+			case "\u03bcM":
+				return value;
+			case "pM":
+				return value * 1e-6;
+			case "nM":
+				return value * 1e-3;
+			case "mM":
+				return value * 1e3;
+			case "M":
+				return value * 1e6;
+			default:
+				return Double.NaN;
+		}
+	}
+	
+	/**
+	 * Returns doses in uM of the columns that are fit.
+	 * 
+	 * @return doses
+	 */
+	public double[] getDoses() {
+		double[] doses = new double[logDoses.length];
+		for(int i = 0; i < doses.length; i++) {
+			doses[i] = Math.pow(10, logDoses[i]);
+		}
+		return doses;
+	}
+	
+	/**
+	 * Fits every row of every data set of a CTGData object.
+	 * 
+	 * @param data
+	 * @return fits per data set, one per row
+	 */
+	public ArrayList<DoseResponseFit[]> fit(CTGData data) {
+		return fit(data.getDataSets(), ForkJoinPool.getCommonPoolParallelism());
+	}
+	
+	/**
+	 * Fits every row of each data set with at most parallelism threads.
+	 * 
+	 * @param dataSets normalized data sets
+	 * @param parallelism threads to split data sets over, 1 fits on calling thread
+	 * @return fits per data set, one per row
+	 */
+	public ArrayList<DoseResponseFit[]> fit(List<double[][]> dataSets, int parallelism) {
+		DoseResponseFit[][] fits = new DoseResponseFit[dataSets.size()][];
+		int chunks = Math.max(1, Math.min(parallelism, dataSets.size()));
+		
+		if(chunks == 1) {
+			fitRange(dataSets, 0, dataSets.size(), fits);
+		}else {
+			List<RecursiveAction> tasks = new ArrayList<>(chunks);
+			for(int c = 0; c < chunks; c++) {
+				int from = (int) ((long) dataSets.size() * c / chunks);
+				int to = (int) ((long) dataSets.size() * (c + 1) / chunks);
+				tasks.add(new RecursiveAction() {
+					private static final long serialVersionUID = 1L;
+					
+					@Override
+					protected void compute() {
+						fitRange(dataSets, from, to, fits);
+					}
+				});
+			}
+			ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll(tasks);
+				}
+			});
+		}
+		
+		ArrayList<DoseResponseFit[]> result = new ArrayList<>(fits.length);
+		for(DoseResponseFit[] f: fits) {
+			result.add(f);
+		}
+		return result;
+	}
+	
+	/**
+	 * Fits every row of one data set on the calling thread.
+	 * 
+	 * @param dataSet normalized data set
+	 * @param index data set index reported in fits
+	 * @return one fit per row
+	 */
+	public DoseResponseFit[] fit(double[][] dataSet, int index) {
+		return fit(dataSet, index, new DoseResponseSolver(logDoses.length), new Workspace(logDoses.length));
+	}
+	
+	/**
+	 * Fits data sets from up to to with one solver. Warm starts stay within a data set, chunk boundaries
+	 * depend on parallelism and must not change the fits.
+	 */
+	private void fitRange(List<double[][]> dataSets, int from, int to, DoseResponseFit[][] fits) {
+		DoseResponseSolver solver = new DoseResponseSolver(logDoses.length);
+		Workspace workspace = new Workspace(logDoses.length);
+		
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.FITTING)){
+			long wells = 0;
+			for(int i = from; i < to; i++) {
+				fits[i] = fit(dataSets.get(i), i, solver, workspace);
+				wells += (long) dataSets.get(i).length * logDoses.length;
+			}
+			timer.wells(wells);
+		}
+	}
+	
+	private DoseResponseFit[] fit(double[][] dataSet, int index, DoseResponseSolver solver, Workspace workspace) {
+		DoseResponseFit[] fits = new DoseResponseFit[dataSet.length];
+		double[] warm = null;	// First row starts from its own guess
+		
+		for(int r = 0; r < dataSet.length; r++) {
+			// Gather finite responses of dose columns
+			int n = 0;
+			double sum = 0;
+			for(int k = 0; k < doseColumns.length; k++) {
+				int column = doseColumns[k];
+				if(column < dataSet[r].length) {
+					double v = dataSet[r][column];
+					if(!Double.isNaN(v) && !Double.isInfinite(v)) {
+						workspace.x[n] = logDoses[k];
+						workspace.y[n] = v;
+						sum += v;
+						n++;
+					}
+				}
+			}
+			
+			if(n < DoseResponseSolver.PARAMETERS) {
+				fits[r] = new DoseResponseFit(index, r, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, false);
+				continue;
+			}
+			
+			double[] p = solver.fit(workspace.x, workspace.y, n, warm);
+			double sse = solver.getSse();
+			int iterations = solver.getIterations();
+			boolean converged = solver.isConverged();
+			
+			// A warm start can settle in a poor local minimum, retry from the data's own guess and keep the better fit
+			if(warm != null && !(converged && isPlausible(p))) {
+				System.arraycopy(p, 0, workspace.best, 0, DoseResponseSolver.PARAMETERS);
+				p = solver.fit(workspace.x, workspace.y, n, null);
+				iterations += solver.getIterations();
+				
+				if(solver.getSse() <= sse) {
+					sse = solver.getSse();
+					converged = solver.isConverged();
+				}else {
+					p = workspace.best;
+				}
+			}
+			
+			double mean = sum / n;
+			double sst = 0;
+			for(int i = 0; i < n; i++) {
+				double d = workspace.y[i] - mean;
+				sst += d * d;
+			}
+			
+			fits[r] = new DoseResponseFit(index, r, p[0], p[1], p[2], p[3], 
+					(sst > 0) ? 1 - sse / sst : Double.NaN, Math.sqrt(sse / n), iterations, converged);
+			
+			// Only sensible curves are carried to the next row, a flat row fit far outside the doses would hold back its neighbours
+			if(converged && isPlausible(p)) {
+				System.arraycopy(p, 0, workspace.warmBuffer, 0, DoseResponseSolver.PARAMETERS);
+				warm = workspace.warmBuffer;
+			}
+		}
+		return fits;
+	}
+	
+	/**
+	 * Returns true if curve has its IC50 within a decade of the doses and a hill slope seen in practice.
+	 */
+	private boolean isPlausible(double[] p) {
+		return p[2] >= minLogDose - 1 && p[2] <= maxLogDose + 1 && Math.abs(p[3]) <= MAX_HILL;
+	}
+	
+	/**
+	 * Per thread gather buffers and parameters carried between rows.
+	 */
+	private static final class Workspace {
+		final double[] x;
+		final double[] y;
+		final double[] warmBuffer = new double[DoseResponseSolver.PARAMETERS];
+		final double[] best = new double[DoseResponseSolver.PARAMETERS];
+		
+		Workspace(int capacity) {
+			x = new double[capacity];
+			y = new double[capacity];
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package PlateData;
+
+/**
+ * DoseResponseFit holds the four parameter logistic fit of one row of a CTG data set, 
+ * response = bottom + (top - bottom) / (1 + 10^((log10(dose) - log10(IC50)) * hill)),
+ * along with how well the curve fits. Doses and IC50 are in uM. Rows that could not be fit,
+ * too few finite responses or a solver that did not converge, report converged false.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class DoseResponseFit {
+	private final int dataSet;
+	private final int row;
+	private final double bottom;
+	private final double top;
+	private final double logIC50;
+	private final double hill;
+	private final double rSquared;
+	private final double rmse;
+	private final int iterations;
+	private final boolean converged;
+	
+	DoseResponseFit(int dataSet, int row, double bottom, double top, double logIC50, double hill, 
+			double rSquared, double rmse, int iterations, boolean converged) {
+		this.dataSet = dataSet;
+		this.row = row;
+		this.bottom = bottom;
+		this.top = top;
+		this.logIC50 = logIC50;
+		this.hill = hill;
+		this.rSquared = rSquared;
+		this.rmse = rmse;
+		this.iterations = iterations;
+		this.converged = converged;
+	}
+	
+	/**
+	 * Returns index of data set in CTGData.getDataSets().
+	 * 
+	 * @return dataSet
+	 */
+	public int getDataSet() {
+		return dataSet;
+	}
+	
+	/**
+	 * Returns row within data set.
+	 * 
+	 * @return row
+	 */
+	public int getRow() {
+		return row;
+	}
+	
+	/**
+	 * Returns response approached at high dose.
+	 * 
+	 * @return bottom
+	 */
+	public double getBottom() {
+		return bottom;
+	}
+	
+	/**
+	 * Returns response approached at low dose.
+	 * 
+	 * @return top
+	 */
+	public double getTop() {
+		return top;
+	}
+	
+	/**
+	 * Returns dose giving a response half way between top and bottom, in uM.
+	 * 
+	 * @return IC50, or EC50 for increasing responses
+	 */
+	public double getIC50() {
+		return Math.pow(10, logIC50);
+	}
+	
+	/**
+	 * Returns log10 of IC50 in uM, the parameter actually fit.
+	 * 
+	 * @return logIC50
+	 */
+	public double getLogIC50() {
+		return logIC50;
+	}
+	
+	/**
+	 * Returns hill slope, positive when response falls with dose.
+	 * 
+	 * @return hill
+	 */
+	public double getHill() {
+		return hill;
+	}
+	
+	/**
+	 * Returns coefficient of determination of fit.
+	 * 
+	 * @return rSquared
+	 */
+	public double getRSquared() {
+		return rSquared;
+	}
+	
+	/**
+	 * Returns root mean square of residuals, in response units.
+	 * 
+	 * @return rmse
+	 */
+	public double getRmse() {
+		return rmse;
+	}
+	
+	/**
+	 * Returns number of Levenberg-Marquardt iterations used.
+	 * 
+	 * @return iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+	
+	/**
+	 * Returns true if solver reached a minimum.
+	 * 
+	 * @return converged
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("set %d row %d: IC50 %.4g uM, hill %.3f, top %.2f, bottom %.2f, R2 %.4f, RMSE %.3f, %d iterations%s",
+				dataSet, row, getIC50(), hill, top, bottom, rSquared, rmse, iterations, converged ? "" : " (not converged)");
+	}
+}
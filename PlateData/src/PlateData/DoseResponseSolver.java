@@ -0,0 +1,283 @@
+package PlateData;
+
+/**
+ * DoseResponseSolver fits a four parameter logistic curve to one dose series with the Levenberg-Marquardt
+ * method. Parameters are bottom, top, log10 IC50 and hill. All working arrays are allocated once and reused 
+ * for every curve, so a solver should be kept per thread and fed row after row. Solvers are not thread safe.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+final class DoseResponseSolver {
+	static final int PARAMETERS = 4;
+	static final int MAX_ITERATIONS = 100;
+	
+	private static final double LN10 = Math.log(10);
+	private static final double TOLERANCE = 1e-8;
+	private static final double MAX_LAMBDA = 1e10;
+	
+	private final double[] jacobian; //Row per point, PARAMETERS columns
+	private final double[] residuals;
+	private final double[] jtj = new double[PARAMETERS * PARAMETERS];
+	private final double[] gradient = new double[PARAMETERS];
+	private final double[] system = new double[PARAMETERS * PARAMETERS];
+	private final double[] step = new double[PARAMETERS];
+	private final double[] params = new double[PARAMETERS];
+	private final double[] trial = new double[PARAMETERS];
+	
+	private int iterations;
+	private boolean converged;
+	private double sse;
+	
+	/**
+	 * @param capacity largest number of points that will be fit
+	 */
+	DoseResponseSolver(int capacity) {
+		jacobian = new double[capacity * PARAMETERS];
+		residuals = new double[capacity];
+	}
+	
+	/**
+	 * Fits curve to the first n points. Starts from start when given, usually the fit of a neighbouring 
+	 * row, otherwise from a guess taken from the data.
+	 * 
+	 * @param x log10 doses
+	 * @param y responses
+	 * @param n number of points, at least PARAMETERS
+	 * @param start bottom, top, logIC50, hill to start from, or null
+	 * @return fitted bottom, top, logIC50, hill, valid until next call
+	 */
+	double[] fit(double[] x, double[] y, int n, double[] start) {
+		if(start != null) {
+			System.arraycopy(start, 0, params, 0, PARAMETERS);
+		}else {
+			initialGuess(x, y, n);
+		}
+		
+		iterations = 0;
+		converged = false;
+		sse = sse(x, y, n, params);
+		
+		double lambda = 1e-3;
+		
+		while(iterations < MAX_ITERATIONS && !converged) {
+			iterations++;
+			linearize(x, y, n);
+			
+			boolean improved = false;
+			while(!improved) {
+				// Marquardt damping scales the diagonal so each parameter moves on its own scale
+				System.arraycopy(jtj, 0, system, 0, jtj.length);
+				for(int i = 0; i < PARAMETERS; i++) {
+					system[i * PARAMETERS + i] += lambda * jtj[i * PARAMETERS + i] + 1e-12;
+				}
+				
+				if(solve()) {
+					for(int i = 0; i < PARAMETERS; i++) {
+						trial[i] = params[i] + step[i];
+					}
+					double trialSse = sse(x, y, n, trial);
+					
+					if(trialSse < sse) {
+						improved = true;
+						converged = (sse - trialSse) <= TOLERANCE * (sse + TOLERANCE);
+						System.arraycopy(trial, 0, params, 0, PARAMETERS);
+						sse = trialSse;
+						lambda = Math.max(lambda * 0.1, 1e-12);
+						continue;
+					}
+				}
+				
+				lambda *= 10;
+				if(lambda > MAX_LAMBDA) {
+					// No downhill step left, parameters sit at a minimum
+					converged = isFinite(params);
+					break;
+				}
+			}
+			
+			if(!improved) {
+				break;
+			}
+		}
+		
+		return params;
+	}
+	
+	/**
+	 * Returns iterations used by last fit.
+	 */
+	int getIterations() {
+		return iterations;
+	}
+	
+	/**
+	 * Returns true if last fit reached a minimum.
+	 */
+	boolean isConverged() {
+		return converged;
+	}
+	
+	/**
+	 * Returns sum of squared residuals of last fit.
+	 */
+	double getSse() {
+		return sse;
+	}
+	
+	/**
+	 * Starting point from data, plateaus from extreme responses, IC50 at point nearest the midpoint
+	 * and hill sign from the direction responses move with dose.
+	 */
+	private void initialGuess(double[] x, double[] y, int n) {
+		double min = y[0];
+		double max = y[0];
+		double meanX = 0;
+		double meanY = 0;
+		for(int i = 0; i < n; i++) {
+			min = Math.min(min, y[i]);
+			max = Math.max(max, y[i]);
+			meanX += x[i];
+			meanY += y[i];
+		}
+		meanX /= n;
+		meanY /= n;
+		
+		double mid = (min + max) / 2;
+		double covariance = 0;
+		int nearest = 0;
+		for(int i = 0; i < n; i++) {
+			covariance += (x[i] - meanX) * (y[i] - meanY);
+			if(Math.abs(y[i] - mid) < Math.abs(y[nearest] - mid)) {
+				nearest = i;
+			}
+		}
+		
+		boolean falling = covariance <= 0;
+		params[0] = falling ? min : max;
+		params[1] = falling ? max : min;
+		params[2] = x[nearest];
+		params[3] = 1;
+	}
+	
+	/**
+	 * Fills jacobian, residuals, J'J and J'r at current parameters.
+	 */
+	private void linearize(double[] x, double[] y, int n) {
+		double bottom = params[0];
+		double span = params[1] - params[0];
+		double c = params[2];
+		double h = params[3];
+		
+		for(int i = 0; i < n; i++) {
+			double e = Math.exp((x[i] - c) * h * LN10);
+			double d = 1 + e;
+			double inv = 1 / d;
+			double slope = span * e * LN10 * inv * inv;
+			
+			int j = i * PARAMETERS;
+			jacobian[j] = 1 - inv;
+			jacobian[j + 1] = inv;
+			jacobian[j + 2] = slope * h;
+			jacobian[j + 3] = -slope * (x[i] - c);
+			residuals[i] = y[i] - (bottom + span * inv);
+		}
+		
+		for(int a = 0; a < PARAMETERS; a++) {
+			double g = 0;
+			for(int i = 0; i < n; i++) {
+				g += jacobian[i * PARAMETERS + a] * residuals[i];
+			}
+			gradient[a] = g;
+			
+			for(int b = a; b < PARAMETERS; b++) {
+				double s = 0;
+				for(int i = 0; i < n; i++) {
+					s += jacobian[i * PARAMETERS + a] * jacobian[i * PARAMETERS + b];
+				}
+				jtj[a * PARAMETERS + b] = s;
+				jtj[b * PARAMETERS + a] = s;
+			}
+		}
+	}
+	
+	/**
+	 * Solves system * step = gradient in place by Gaussian elimination with partial pivoting.
+	 * 
+	 * @return false if system is singular
+	 */
+	private boolean solve() {
+		System.arraycopy(gradient, 0, step, 0, PARAMETERS);
+		
+		for(int col = 0; col < PARAMETERS; col++) {
+			int pivot = col;
+			for(int r = col + 1; r < PARAMETERS; r++) {
+				if(Math.abs(system[r * PARAMETERS + col]) > Math.abs(system[pivot * PARAMETERS + col])) {
+					pivot = r;
+				}
+			}
+			double p = system[pivot * PARAMETERS + col];
+			if(p == 0 || Double.isNaN(p)) {
+				return false;
+			}
+			if(pivot != col) {
+				for(int k = 0; k < PARAMETERS; k++) {
+					double t = system[col * PARAMETERS + k];
+					system[col * PARAMETERS + k] = system[pivot * PARAMETERS + k];
+					system[pivot * PARAMETERS + k] = t;
+				}
+				double t = step[col];
+				step[col] = step[pivot];
+				step[pivot] = t;
+			}
+			
+			for(int r = col + 1; r < PARAMETERS; r++) {
+				double f = system[r * PARAMETERS + col] / p;
+				if(f != 0) {
+					for(int k = col; k < PARAMETERS; k++) {
+						system[r * PARAMETERS + k] -= f * system[col * PARAMETERS + k];
+					}
+					step[r] -= f * step[col];
+				}
+			}
+		}
+		
+		for(int r = PARAMETERS - 1; r >= 0; r--) {
+			double s = step[r];
+			for(int k = r + 1; k < PARAMETERS; k++) {
+				s -= system[r * PARAMETERS + k] * step[k];
+			}
+			step[r] = s / system[r * PARAMETERS + r];
+		}
+		return isFinite(step);
+	}
+	
+	/**
+	 * Sum of squared residuals at p, infinite if curve cannot be evaluated.
+	 */
+	static double sse(double[] x, double[] y, int n, double[] p) {
+		double s = 0;
+		for(int i = 0; i < n; i++) {
+			double r = y[i] - evaluate(p, x[i]);
+			s += r * r;
+		}
+		return Double.isNaN(s) ? Double.POSITIVE_INFINITY : s;
+	}
+	
+	/**
+	 * Response of curve with parameters p at log10 dose x.
+	 */
+	static double evaluate(double[] p, double x) {
+		return p[0] + (p[1] - p[0]) / (1 + Math.exp((x - p[2]) * p[3] * LN10));
+	}
+	
+	private static boolean isFinite(double[] values) {
+		for(int i = 0; i < PARAMETERS; i++) {
+			if(Double.isNaN(values[i]) || Double.isInfinite(values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
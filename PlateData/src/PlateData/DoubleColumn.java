@@ -0,0 +1,170 @@
+package PlateData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * DoubleColumn is a growable list of primitive double values used to hold calculated results without 
+ * boxing every value into a Double. Values are stored in one backing array which is reused when the 
+ * column is cleared and refilled. A read-only View can be handed out to callers while the column 
+ * itself stays private to the object that fills it.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class DoubleColumn {
+	private double[] values;
+	private int size;
+	private final View view = new View(this);
+	
+	/**
+	 * Constructs empty column with room for 16 values.
+	 */
+	public DoubleColumn() {
+		this(16);
+	}
+	
+	/**
+	 * Constructs empty column with room for given number of values before growing.
+	 * 
+	 * @param capacity
+	 */
+	public DoubleColumn(int capacity) {
+		values = new double[Math.max(capacity, 1)];
+	}
+	
+	/**
+	 * Appends value to end of column, growing backing array if needed.
+	 * 
+	 * @param value
+	 */
+	public void add(double value) {
+		if(size == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		values[size++] = value;
+	}
+	
+	/**
+	 * Returns value at index.
+	 * 
+	 * @param index
+	 * @return value
+	 */
+	public double get(int index) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " size " + size);
+		}
+		return values[index];
+	}
+	
+	/**
+	 * Replaces value at index.
+	 * 
+	 * @param index
+	 * @param value
+	 */
+	public void set(int index, double value) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " size " + size);
+		}
+		values[index] = value;
+	}
+	
+	/**
+	 * Returns number of values held.
+	 * 
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all values, backing array is kept for reuse.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Returns copy of values as a primitive array.
+	 * 
+	 * @return values
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+	
+	/**
+	 * Copies values into destination array starting at offset.
+	 * 
+	 * @param destination
+	 * @param offset
+	 */
+	public void copyTo(double[] destination, int offset) {
+		System.arraycopy(values, 0, destination, offset, size);
+	}
+	
+	/**
+	 * Returns boxed copy of values for callers using ArrayList<Double>.
+	 * 
+	 * @return list of values
+	 */
+	public ArrayList<Double> toArrayList() {
+		ArrayList<Double> list = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			list.add(values[i]);
+		}
+		return list;
+	}
+	
+	/**
+	 * Returns read-only view of this column. View always reflects current values.
+	 * 
+	 * @return view
+	 */
+	public View view() {
+		return view;
+	}
+	
+	/**
+	 * Read-only view over a DoubleColumn, no values are copied.
+	 */
+	public static final class View {
+		private final DoubleColumn column;
+		
+		private View(DoubleColumn column) {
+			this.column = column;
+		}
+		
+		public double get(int index) {
+			return column.get(index);
+		}
+		
+		public int size() {
+			return column.size;
+		}
+		
+		public boolean isEmpty() {
+			return column.size == 0;
+		}
+		
+		public double[] toArray() {
+			return column.toArray();
+		}
+		
+		public void copyTo(double[] destination, int offset) {
+			column.copyTo(destination, offset);
+		}
+		
+		public ArrayList<Double> toArrayList() {
+			return column.toArrayList();
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package PlateData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * JournalEntry is one sample's result read back from a ResultsJournal, a BCA sample with its average,
+ * concentration, load volume and the plate's standard curve, or a CTG data set with its control average
+ * and normalized values. Values not recorded for the assay are NaN. Entries are immutable.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class JournalEntry {
+	private final String sampleName;
+	private final AssayType assayType;
+	private final long timestamp;
+	private final String source;
+	
+	private double average = Double.NaN;
+	private double concentration = Double.NaN;
+	private double loadVolume = Double.NaN;
+	private double slope = Double.NaN;
+	private double intercept = Double.NaN;
+	private double rSquared = Double.NaN;
+	private double specifiedUg = Double.NaN;
+	private double controlAverage = Double.NaN;
+	private double controlSD = Double.NaN;
+	private double[][] normalized;
+	
+	/**
+	 * Reads entry at position slot of a record, see ResultsJournalFormat.
+	 * 
+	 * @param sampleName name the entry was indexed under
+	 * @param record whole record, little endian, starting at 0
+	 * @param slot sample within a BCA record, 0 for CTG
+	 */
+	JournalEntry(String sampleName, ByteBuffer record, int slot) {
+		this.sampleName = sampleName;
+		this.timestamp = record.getLong(ResultsJournalFormat.TIMESTAMP_OFFSET);
+		
+		int sourceBytes = record.getInt(ResultsJournalFormat.SOURCE_BYTES_OFFSET);
+		byte[] utf8 = new byte[sourceBytes];
+		record.position(ResultsJournalFormat.RECORD_HEADER_BYTES);
+		record.get(utf8);
+		this.source = new String(utf8, StandardCharsets.UTF_8);
+		
+		int body = ResultsJournalFormat.bodyOffset(sourceBytes);
+		if(record.get(ResultsJournalFormat.KIND_OFFSET) == ResultsJournalFormat.KIND_BCA) {
+			assayType = AssayType.BCA;
+			slope = record.getDouble(body);
+			intercept = record.getDouble(body + 8);
+			rSquared = record.getDouble(body + 16);
+			specifiedUg = record.getDouble(body + 24);
+			
+			int sample = body + ResultsJournalFormat.BCA_FIT_BYTES + slot * ResultsJournalFormat.BCA_SAMPLE_BYTES;
+			average = record.getDouble(sample + 8);
+			concentration = record.getDouble(sample + 16);
+			loadVolume = record.getDouble(sample + 24);
+		}else {
+			assayType = AssayType.CTG;
+			int rows = record.getInt(body + 4);
+			int columns = record.getInt(body + 8);
+			controlAverage = record.getDouble(body + 16);
+			controlSD = record.getDouble(body + 24);
+			
+			normalized = new double[rows][columns];
+			int values = body + ResultsJournalFormat.CTG_HEADER_BYTES;
+			for(int i = 0; i < rows; i++) {
+				for(int j = 0; j < columns; j++) {
+					normalized[i][j] = record.getDouble(values + (i * columns + j) * Double.BYTES);
+				}
+			}
+		}
+	}
+	
+	public String getSampleName() {
+		return sampleName;
+	}
+	
+	public AssayType getAssayType() {
+		return assayType;
+	}
+	
+	/**
+	 * Returns creation time of the analysed plate.
+	 * 
+	 * @return milliseconds since epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+	
+	/**
+	 * Returns label given when result was journaled, usually file name.
+	 * 
+	 * @return source
+	 */
+	public String getSource() {
+		return source;
+	}
+	
+	/**
+	 * Returns BCA average absorbance less background.
+	 * 
+	 * @return average, NaN for CTG
+	 */
+	public double getAverage() {
+		return average;
+	}
+	
+	/**
+	 * Returns BCA protein concentration in ug/uL.
+	 * 
+	 * @return concentration, NaN for CTG
+	 */
+	public double getConcentration() {
+		return concentration;
+	}
+	
+	/**
+	 * Returns BCA load volume in uL for specifiedUg.
+	 * 
+	 * @return load volume, NaN for CTG
+	 */
+	public double getLoadVolume() {
+		return loadVolume;
+	}
+	
+	public double getSlope() {
+		return slope;
+	}
+	
+	public double getIntercept() {
+		return intercept;
+	}
+	
+	public double getRSquared() {
+		return rSquared;
+	}
+	
+	public double getSpecifiedUg() {
+		return specifiedUg;
+	}
+	
+	/**
+	 * Returns CTG control average of the data set.
+	 * 
+	 * @return control average, NaN for BCA
+	 */
+	public double getControlAverage() {
+		return controlAverage;
+	}
+	
+	/**
+	 * Returns CTG control standard deviation of the data set.
+	 * 
+	 * @return control standard deviation, NaN for BCA
+	 */
+	public double getControlSD() {
+		return controlSD;
+	}
+	
+	/**
+	 * Returns copy of CTG normalized values, percent of control.
+	 * 
+	 * @return normalized data set, null for BCA
+	 */
+	public double[][] getNormalized() {
+		if(normalized == null) {
+			return null;
+		}
+		double[][] copy = new double[normalized.length][];
+		for(int i = 0; i < normalized.length; i++) {
+			copy[i] = normalized[i].clone();
+		}
+		return copy;
+	}
+	
+	/**
+	 * Returns mean of CTG normalized values, overall viability of the data set.
+	 * 
+	 * @return mean percent of control, NaN for BCA
+	 */
+	public double getMeanNormalized() {
+		if(normalized == null) {
+			return Double.NaN;
+		}
+		double sum = 0;
+		int n = 0;
+		for(double[] row: normalized) {
+			for(double e: row) {
+				sum += e;
+				n++;
+			}
+		}
+		return sum / n;
+	}
+	
+	@Override
+	public String toString() {
+		if(assayType == AssayType.BCA) {
+			return String.format("%s %s %s: average %.4f, concentration %.4f ug/uL, load %.2f uL", sampleName, new Date(timestamp), source, average, concentration, loadVolume);
+		}
+		return String.format("%s %s %s: control average %.1f, %dx%d normalized", sampleName, new Date(timestamp), source, controlAverage,
+				normalized.length, normalized.length == 0 ? 0 : normalized[0].length);
+	}
+}
@@ -0,0 +1,425 @@
+package PlateData;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * KineticPlate holds a kinetic run, the same plate read again and again over time, and keeps per well rate
+ * statistics up to date as each read arrives. Reads can be added one at a time, or streamed from a workbook
+ * or text export with the reads stacked as plate blocks, KineticPlate being a PlateBlockHandler itself.
+ * 
+ * Nothing is refitted and the full series is never stored. Each read updates running sums shared by every
+ * well for time and per well for value, giving the least squares slope of the whole run, and the trapezoid
+ * area under the curve. The last window reads are kept in a time-major ring buffer, read k of well w at
+ * slot (k % window) * wells + w, with running sums over the window giving the slope of the latest window.
+ * The largest window slope is Vmax, and lag time is where the tangent at Vmax crosses the well's first
+ * value. Memory is a fixed window plus a few values per well however long the run.
+ * 
+ * Times are seconds from the first read, so slopes are in read units per second. getRawData returns the
+ * latest read.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class KineticPlate extends PlateData implements PlateBlockHandler {
+	public static final int DEFAULT_WINDOW = 5;
+	private static final int RESUM_READS = 4096;	// Window sums recomputed from ring this often to drop rounding drift
+	
+	private final int rows;
+	private final int columns;
+	private final int wells;
+	private final int window;
+	private final double intervalSeconds;
+	
+	private final double[] ring;		// Last window reads, time-major
+	private final double[] ringTimes;
+	private int reads;
+	private double firstTime;
+	private double lastTime;		// From first read
+	
+	// Whole run, time sums shared by every well
+	private double sumT;
+	private double sumTT;
+	private final double[] sumY;
+	private final double[] sumTY;
+	private final double[] sumYY;
+	
+	// Latest window
+	private double windowT;
+	private double windowTT;
+	private final double[] windowY;
+	private final double[] windowTY;
+	
+	private final double[] baseline;
+	private final double[] auc;
+	private final double[] vmax;
+	private final double[] vmaxTime;
+	private final double[] lag;
+	
+	/**
+	 * Creates empty kinetic run with a 5 read Vmax window. Add reads with addRead or stream them with
+	 * processRawDataStreaming.
+	 * 
+	 * @param plateFormat
+	 * @param intervalSeconds time between reads given without a time
+	 * @throws Exception
+	 */
+	public KineticPlate(PlateFormat plateFormat, double intervalSeconds) throws Exception{
+		this(plateFormat, intervalSeconds, DEFAULT_WINDOW);
+	}
+	
+	/**
+	 * Creates empty kinetic run. Add reads with addRead or stream them with processRawDataStreaming.
+	 * 
+	 * @param plateFormat
+	 * @param intervalSeconds time between reads given without a time
+	 * @param window reads in each Vmax slope, at least 2
+	 * @throws Exception
+	 */
+	public KineticPlate(PlateFormat plateFormat, double intervalSeconds, int window) throws Exception{
+		super(plateFormat);
+		if(window < 2) {
+			throw new IllegalArgumentException("Vmax window must be at least 2 reads");
+		}
+		if(!(intervalSeconds > 0)) {
+			throw new IllegalArgumentException("Read interval must be positive");
+		}
+		
+		this.rows = plateFormat.getRows();
+		this.columns = plateFormat.getColumns();
+		this.wells = rows * columns;
+		this.window = window;
+		this.intervalSeconds = intervalSeconds;
+		
+		ring = new double[window * wells];
+		ringTimes = new double[window];
+		sumY = new double[wells];
+		sumTY = new double[wells];
+		sumYY = new double[wells];
+		windowY = new double[wells];
+		windowTY = new double[wells];
+		baseline = new double[wells];
+		auc = new double[wells];
+		vmax = new double[wells];
+		vmaxTime = new double[wells];
+		lag = new double[wells];
+		Arrays.fill(vmax, Double.NEGATIVE_INFINITY);
+	}
+	
+	/**
+	 * Streams every stacked read of a kinetic workbook export.
+	 * 
+	 * @param file
+	 * @param plateFormat
+	 * @param intervalSeconds time between reads
+	 * @throws Exception
+	 */
+	public KineticPlate(FileInputStream file, PlateFormat plateFormat, double intervalSeconds) throws Exception{
+		this(plateFormat, intervalSeconds, DEFAULT_WINDOW);
+		processRawDataStreaming(file);
+	}
+	
+	/**
+	 * Adds every stacked read of a workbook to the run, each interval after the one before. Reads are
+	 * folded in as each plate block is parsed.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	@Override
+	public void processRawDataStreaming(InputStream file) throws IOException{
+		PlateSheetReader.read(file, getPlateFormat(), Integer.MAX_VALUE, this);
+	}
+	
+	/**
+	 * Kinetic runs are always streamed, workbook mode reads the same way.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	@Override
+	public void processRawData(FileInputStream file) throws IOException{
+		processRawDataStreaming(file);
+	}
+	
+	/**
+	 * Receives a read from a plate reader, see PlateSheetReader.read and PlateTextReader.read.
+	 * 
+	 * @param index position of read in sheet
+	 * @param plate read
+	 */
+	@Override
+	public void plate(int index, PlateMatrix plate) {
+		addRead(plate);
+	}
+	
+	/**
+	 * Adds a read one interval after the last, or at time 0 if it is the first.
+	 * 
+	 * @param plate read, not kept past the window
+	 */
+	public void addRead(PlateMatrix plate) {
+		addRead((reads == 0) ? 0 : firstTime + lastTime + intervalSeconds, plate);
+	}
+	
+	/**
+	 * Adds a read taken at a time, updating every well's statistics.
+	 * 
+	 * @param seconds time of read, later than the last read
+	 * @param plate read, not kept past the window
+	 */
+	public void addRead(double seconds, PlateMatrix plate) {
+		if(plate.getRows() != rows || plate.getColumns() != columns) {
+			throw new IllegalArgumentException("Read is " + plate.getRows() + "x" + plate.getColumns() + ", run is " + rows + "x" + columns);
+		}
+		if(reads == 0) {
+			firstTime = seconds;
+		}else if(!(seconds - firstTime > lastTime)) {
+			throw new IllegalArgumentException("Read at " + seconds + " s is not after the last read");
+		}
+		
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.FITTING)){
+			timer.wells(wells);
+			update(seconds - firstTime, plate);
+		}
+		setRawData(plate);
+	}
+	
+	/**
+	 * Folds one read into the running sums, ring buffer and per well results.
+	 */
+	private void update(double t, PlateMatrix plate) {
+		int slot = reads % window;
+		int previous = (slot + window - 1) % window;
+		boolean full = reads >= window;
+		double dt = t - lastTime;
+		
+		double leaving = ringTimes[slot];
+		if(full) {
+			windowT -= leaving;
+			windowTT -= leaving * leaving;
+		}
+		windowT += t;
+		windowTT += t * t;
+		ringTimes[slot] = t;
+		sumT += t;
+		sumTT += t * t;
+		
+		int m = Math.min(reads + 1, window);
+		boolean rated = (reads + 1 >= window);
+		double denominator = m * windowTT - windowT * windowT;
+		double meanT = windowT / m;
+		
+		int base = slot * wells;
+		int previousBase = previous * wells;
+		for(int w = 0; w < wells; w++) {
+			double y = plate.get(w);
+			
+			if(reads == 0) {
+				baseline[w] = y;
+			}else {
+				auc[w] += 0.5 * dt * (y + ring[previousBase + w]);
+			}
+			sumY[w] += y;
+			sumTY[w] += t * y;
+			sumYY[w] += y * y;
+			
+			if(full) {
+				double old = ring[base + w];
+				windowY[w] -= old;
+				windowTY[w] -= leaving * old;
+			}
+			windowY[w] += y;
+			windowTY[w] += t * y;
+			ring[base + w] = y;
+			
+			if(rated) {
+				double slope = (m * windowTY[w] - windowT * windowY[w]) / denominator;
+				if(slope > vmax[w]) {
+					vmax[w] = slope;
+					vmaxTime[w] = meanT;
+					lag[w] = (slope > 0) ? Math.max(0, meanT - (windowY[w] / m - baseline[w]) / slope) : Double.NaN;
+				}
+			}
+		}
+		
+		reads++;
+		lastTime = t;
+		if(reads % RESUM_READS == 0) {
+			resumWindow();
+		}
+	}
+	
+	/**
+	 * Recomputes window sums from the ring buffer.
+	 */
+	private void resumWindow() {
+		windowT = 0;
+		windowTT = 0;
+		Arrays.fill(windowY, 0);
+		Arrays.fill(windowTY, 0);
+		for(int k = 0; k < window; k++) {
+			double t = ringTimes[k];
+			windowT += t;
+			windowTT += t * t;
+			int base = k * wells;
+			for(int w = 0; w < wells; w++) {
+				windowY[w] += ring[base + w];
+				windowTY[w] += t * ring[base + w];
+			}
+		}
+	}
+	
+	/**
+	 * Returns number of reads added.
+	 * 
+	 * @return reads
+	 */
+	public int getReadCount() {
+		return reads;
+	}
+	
+	/**
+	 * Returns time of last read from the first.
+	 * 
+	 * @return seconds
+	 */
+	public double getElapsedSeconds() {
+		return lastTime;
+	}
+	
+	public int getWindow() {
+		return window;
+	}
+	
+	public double getIntervalSeconds() {
+		return intervalSeconds;
+	}
+	
+	/**
+	 * Returns a recent read still held in the ring buffer.
+	 * 
+	 * @param age 0 for the latest read, up to window - 1
+	 * @return copy of read
+	 */
+	public PlateMatrix getRecentRead(int age) {
+		if(age < 0 || age >= Math.min(reads, window)) {
+			throw new IndexOutOfBoundsException("Read " + age + " back is not held, " + Math.min(reads, window) + " reads in window");
+		}
+		double[] values = new double[wells];
+		System.arraycopy(ring, ((reads - 1 - age) % window) * wells, values, 0, wells);
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns least squares slope of each well over the whole run.
+	 * 
+	 * @return units per second, NaN before two reads
+	 */
+	public PlateMatrix getSlopes() {
+		double[] values = new double[wells];
+		double denominator = reads * sumTT - sumT * sumT;
+		for(int w = 0; w < wells; w++) {
+			values[w] = (reads < 2) ? Double.NaN : (reads * sumTY[w] - sumT * sumY[w]) / denominator;
+		}
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns least squares intercept of each well over the whole run, value at the first read's time.
+	 * 
+	 * @return intercepts, NaN before two reads
+	 */
+	public PlateMatrix getIntercepts() {
+		double[] values = getSlopes().toFlatArray();
+		for(int w = 0; w < wells; w++) {
+			values[w] = (sumY[w] - values[w] * sumT) / reads;
+		}
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns r squared of each well's line over the whole run.
+	 * 
+	 * @return r squared, NaN before three reads or for a flat well
+	 */
+	public PlateMatrix getRSquared() {
+		double[] values = new double[wells];
+		double tt = reads * sumTT - sumT * sumT;
+		for(int w = 0; w < wells; w++) {
+			double ty = reads * sumTY[w] - sumT * sumY[w];
+			double yy = reads * sumYY[w] - sumY[w] * sumY[w];
+			values[w] = (reads < 3 || !(yy > 0)) ? Double.NaN : Math.min(1, ty * ty / (tt * yy));
+		}
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns largest slope of each well over any window of consecutive reads.
+	 * 
+	 * @return units per second, NaN before window reads
+	 */
+	public PlateMatrix getVmax() {
+		double[] values = new double[wells];
+		for(int w = 0; w < wells; w++) {
+			values[w] = (reads < window) ? Double.NaN : vmax[w];
+		}
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns mid time of the window giving each well's Vmax.
+	 * 
+	 * @return seconds from first read, NaN before window reads
+	 */
+	public PlateMatrix getVmaxTimes() {
+		double[] values = new double[wells];
+		for(int w = 0; w < wells; w++) {
+			values[w] = (reads < window) ? Double.NaN : vmaxTime[w];
+		}
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns lag time of each well, where the tangent at Vmax reaches the well's first value.
+	 * 
+	 * @return seconds from first read, 0 if rising from the start, NaN if well never rises or before window reads
+	 */
+	public PlateMatrix getLagTimes() {
+		double[] values = new double[wells];
+		for(int w = 0; w < wells; w++) {
+			values[w] = (reads < window) ? Double.NaN : lag[w];
+		}
+		return PlateMatrix.wrap(values, rows, columns);
+	}
+	
+	/**
+	 * Returns trapezoid area under each well's curve from the first read to the last.
+	 * 
+	 * @return unit seconds
+	 */
+	public PlateMatrix getAUC() {
+		return PlateMatrix.wrap(auc.clone(), rows, columns);
+	}
+	
+	/**
+	 * Prints Vmax, lag time and AUC of each well.
+	 */
+	public void printRates() {
+		PlateMatrix vmaxes = getVmax();
+		PlateMatrix lags = getLagTimes();
+		PlateMatrix areas = getAUC();
+		
+		System.out.println(reads + " reads over " + lastTime + " s");
+		System.out.println(String.format("%-6s %14s %12s %14s", "Well", "Vmax /s", "Lag s", "AUC"));
+		for(int w = 0; w < wells; w++) {
+			int row = w / columns;
+			String letters = (row < 26) ? String.valueOf((char) ('A' + row)) : "" + (char) ('A' + row / 26 - 1) + (char) ('A' + row % 26);
+			String name = letters + (w % columns + 1);
+			System.out.println(String.format("%-6s %14.6f %12.1f %14.3f", name, vmaxes.get(w), lags.get(w), areas.get(w)));
+		}
+	}
+}
@@ -0,0 +1,6 @@
+package PlateData;
+
+// enum class for what is done with replicate outliers, no testing, flag them or drop them from averages
+public enum OutlierPolicy {
+	NONE, FLAG, REJECT
+}
@@ -0,0 +1,6 @@
+package PlateData;
+
+// enum class for test used to find a single replicate outlier, Grubbs or Dixon's Q at 95% confidence
+public enum OutlierTest {
+	GRUBBS, DIXON
+}
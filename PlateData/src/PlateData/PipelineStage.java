@@ -0,0 +1,6 @@
+package PlateData;
+
+// enum class for the timed stages of reading and analysing a plate
+public enum PipelineStage {
+	FILE_OPEN, WORKBOOK_PARSE, CELL_EXTRACTION, AVERAGING, FITTING, NORMALIZATION, OUTPUT
+}
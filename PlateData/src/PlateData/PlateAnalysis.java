@@ -0,0 +1,201 @@
+package PlateData;
+
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PlateAnalysis loads and analyses plate files without blocking the caller, for GUI and service threads
+ * that should not wait on file I/O and POI parsing. Each call returns a CompletableFuture at once and reads
+ * the file through PlateBatch.analyse on the options' executor, or on a shared PlateExecutors executor,
+ * a virtual thread per load when the JVM has them, so many loads can overlap without a platform thread each.
+ * 
+ * Cancelling a returned future interrupts its load, a load not yet started never runs. A running load checks
+ * for the interrupt before each row of a streamed or text plate and again before BCA averaging and curve
+ * fitting, then stops with CancellationException; building a whole workbook with ReaderMode.WORKBOOK cannot
+ * be interrupted and runs to the end of the parse first. With a timeout set in the options, or given to
+ * withTimeout, a load still running when it passes is cancelled the same way and the future completes
+ * with TimeoutException. Failures complete the future with the exception the
+ * constructors would have thrown. Cancelling a stage made from the future, for example by thenApply, does
+ * not reach the load.
+ * 
+ * PlateAnalysis.bcaAsync(file, options).thenAccept(bca -> show(bca.getLoadVolumes()));
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class PlateAnalysis {
+	private static final Object LOCK = new Object();
+	private static ExecutorService defaultExecutor;
+	private static ScheduledExecutorService timer;
+	
+	private PlateAnalysis() {
+	}
+	
+	/**
+	 * Loads and analyses a BCA plate file.
+	 * 
+	 * @param file workbook or text export
+	 * @param options analysis parameters, executor and timeout
+	 * @return future analysed plate
+	 */
+	public static CompletableFuture<BCAData> bcaAsync(Path file, AnalysisOptions options) {
+		return start(() -> (BCAData) PlateBatch.analyse(file, AssayType.BCA, options), options);
+	}
+	
+	/**
+	 * Loads and analyses a CTG plate file.
+	 * 
+	 * @param file workbook or text export
+	 * @param options analysis parameters, executor and timeout
+	 * @return future analysed data sets
+	 */
+	public static CompletableFuture<CTGData> ctgAsync(Path file, AnalysisOptions options) {
+		return start(() -> (CTGData) PlateBatch.analyse(file, AssayType.CTG, options), options);
+	}
+	
+	/**
+	 * Loads and analyses a plate file of either assay.
+	 * 
+	 * @param file workbook or text export
+	 * @param assayType BCA or CTG
+	 * @param options analysis parameters, executor and timeout
+	 * @return future BCAData or CTGData
+	 */
+	public static CompletableFuture<PlateData> analyseAsync(Path file, AssayType assayType, AnalysisOptions options) {
+		return start(() -> PlateBatch.analyse(file, assayType, options), options);
+	}
+	
+	/**
+	 * Submits load to the options' executor and starts its timeout.
+	 */
+	private static <T> CompletableFuture<T> start(Load<T> load, AnalysisOptions options) {
+		Executor executor = (options.getExecutor() != null) ? options.getExecutor() : getDefaultExecutor();
+		PlateFuture<T> future = submit(load, executor);
+		if(options.getTimeoutMillis() > 0) {
+			withTimeout(future, options.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+		}
+		return future;
+	}
+	
+	/**
+	 * Fails future with TimeoutException if it has not completed in time. A future from this class also
+	 * has its load cancelled.
+	 * 
+	 * @param future
+	 * @param timeout
+	 * @param unit
+	 * @return future
+	 */
+	public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+		ScheduledFuture<?> expiry = getTimer().schedule(() -> {
+			if(future.completeExceptionally(new TimeoutException("Plate analysis did not finish in " + unit.toMillis(timeout) + " ms"))
+					&& future instanceof PlateFuture) {
+				((PlateFuture<T>) future).stop();
+			}
+		}, timeout, unit);
+		future.whenComplete((result, error) -> expiry.cancel(false));
+		return future;
+	}
+	
+	/**
+	 * Runs load on executor, completing the returned future with its result.
+	 */
+	private static <T> PlateFuture<T> submit(Load<T> load, Executor executor) {
+		PlateFuture<T> future = new PlateFuture<>();
+		FutureTask<Void> task = new FutureTask<>(() -> {
+			try {
+				future.complete(load.run());
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+			return null;
+		});
+		future.task = task;
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+	
+	/**
+	 * Throws CancellationException if the current thread has been interrupted, as the thread of a cancelled 
+	 * or timed out load is. The interrupt is left set.
+	 */
+	static void checkCancelled() {
+		if(Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("Plate analysis interrupted");
+		}
+	}
+	
+	private static ExecutorService getDefaultExecutor() {
+		synchronized(LOCK) {
+			if(defaultExecutor == null) {
+				defaultExecutor = PlateExecutors.newPerTaskExecutor("PlateAnalysis");
+			}
+			return defaultExecutor;
+		}
+	}
+	
+	private static ScheduledExecutorService getTimer() {
+		synchronized(LOCK) {
+			if(timer == null) {
+				ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+					Thread thread = new Thread(r, "PlateAnalysis-timeout");
+					thread.setDaemon(true);
+					return thread;
+				});
+				scheduler.setRemoveOnCancelPolicy(true);	// Loads usually finish first
+				timer = scheduler;
+			}
+			return timer;
+		}
+	}
+	
+	/**
+	 * Work done by a load, throwing whatever the constructors throw.
+	 */
+	private interface Load<T> {
+		T run() throws Exception;
+	}
+	
+	/**
+	 * Future that interrupts its load when cancelled.
+	 */
+	private static final class PlateFuture<T> extends CompletableFuture<T> {
+		private volatile FutureTask<Void> task;
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if(cancelled) {
+				stop();
+			}
+			return cancelled;
+		}
+		
+		void stop() {
+			FutureTask<Void> running = task;
+			if(running != null) {
+				running.cancel(true);
+			}
+		}
+		
+		@Override
+		public <U> CompletableFuture<U> newIncompleteFuture() {
+			return new CompletableFuture<>();	// Dependent stages are plain futures
+		}
+	}
+}
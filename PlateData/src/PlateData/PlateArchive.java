@@ -0,0 +1,146 @@
+package PlateData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * PlateArchive reads a binary plate archive written by PlateArchiveWriter. The file is memory mapped 
+ * read only in windows of up to 1 GB, each ending on a record boundary, and an index of record positions 
+ * is built by walking record headers. Plates are then exposed as ArchivedPlate views over the mapping so 
+ * scanning history is limited by disk and page cache, not by parsing. Records appended after opening are 
+ * not seen until the archive is opened again.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateArchive implements Closeable {
+	private final FileChannel channel;
+	private final ArrayList<ByteBuffer> windows = new ArrayList<>();
+	
+	// Index of records, window number and offset within window
+	private int[] recordWindow = new int[1024];
+	private int[] recordOffset = new int[1024];
+	private int size = 0;
+	
+	/**
+	 * Opens and maps archive, indexing every complete record. A partially written 
+	 * last record, for example after a crash, is ignored, as is a zero filled tail or a last
+	 * record whose magic or length is bad.
+	 * 
+	 * @param archive archive file
+	 * @throws IOException if file is not a plate archive or a record before the last is corrupt
+	 */
+	public PlateArchive(Path archive) throws IOException{
+		channel = FileChannel.open(archive, StandardOpenOption.READ);
+		try {
+			index(archive);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	private void index(Path archive) throws IOException{
+		long fileSize = channel.size();
+		
+		ByteBuffer header = ByteBuffer.allocate(PlateArchiveFormat.FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		channel.read(header, 0);
+		if(fileSize < PlateArchiveFormat.FILE_HEADER_BYTES || header.getInt(0) != PlateArchiveFormat.FILE_MAGIC) {
+			throw new IOException(archive + " is not a plate archive");
+		}
+		
+		long position = PlateArchiveFormat.FILE_HEADER_BYTES;
+		while(position + PlateArchiveFormat.RECORD_HEADER_BYTES <= fileSize) {
+			long windowBytes = Math.min(fileSize - position, PlateArchiveFormat.MAX_RECORD_BYTES);
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, windowBytes);
+			ByteBuffer window = mapped.order(ByteOrder.LITTLE_ENDIAN);
+			
+			int offset = 0;
+			boolean tail = false;
+			while(offset + PlateArchiveFormat.RECORD_HEADER_BYTES <= windowBytes) {
+				int length = PlateArchiveFormat.recordLength(window, offset);
+				if(length < 0) {
+					if(PlateArchiveFormat.recordFollows(channel, position + offset + 8, fileSize)) {
+						throw new IOException("Corrupt record at byte " + (position + offset) + " of " + archive);
+					}
+					tail = true;	// Torn or zero filled last record
+					break;
+				}
+				if(offset + (long) length > windowBytes) {
+					break;	// Record continues past window, or last record is incomplete
+				}
+				addRecord(windows.size(), offset);
+				offset += length;
+			}
+			
+			windows.add(window);
+			if(tail || offset == 0) {
+				break;	// Incomplete record at end of file
+			}
+			position += offset;
+		}
+	}
+	
+	private void addRecord(int window, int offset) {
+		if(size == recordWindow.length) {
+			recordWindow = Arrays.copyOf(recordWindow, size * 2);
+			recordOffset = Arrays.copyOf(recordOffset, size * 2);
+		}
+		recordWindow[size] = window;
+		recordOffset[size] = offset;
+		size++;
+	}
+	
+	/**
+	 * Returns number of plates in archive.
+	 * 
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns view of plate at index, in order written.
+	 * 
+	 * @param index
+	 * @return plate view
+	 */
+	public ArchivedPlate get(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " size " + size);
+		}
+		return new ArchivedPlate(windows.get(recordWindow[index]), recordOffset[index]);
+	}
+	
+	/**
+	 * Visits every plate in order written.
+	 * 
+	 * @param visitor
+	 */
+	public void forEach(Consumer<ArchivedPlate> visitor) {
+		for(int i = 0; i < size; i++) {
+			visitor.accept(get(i));
+		}
+	}
+	
+	/**
+	 * Closes file. Mapped windows are released by the garbage collector, views 
+	 * must not be used after closing.
+	 */
+	@Override
+	public void close() throws IOException{
+		windows.clear();
+		channel.close();
+	}
+}
@@ -0,0 +1,104 @@
+package PlateData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Layout constants shared by PlateArchiveWriter and PlateArchive. All values are little endian.
+ * 
+ * File header, 16 bytes: int magic "PLTA", short version, short reserved, long reserved.
+ * 
+ * Each record follows directly after the previous one and starts on an 8 byte boundary:
+ * int magic "PLTR", int record length in bytes including this header and padding, int rows, int columns,
+ * long timestamp in milliseconds since epoch, byte assay type (ordinal of AssayType, -1 if unknown), 
+ * 3 reserved bytes, int sample name count, int sample name bytes, then each name as unsigned short 
+ * length and UTF-8 bytes, zero padding to the next 8 byte boundary, then rows * columns float64 well
+ * values in row-major order.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+final class PlateArchiveFormat {
+	static final int FILE_MAGIC = 0x41544C50;	// "PLTA" little endian
+	static final short VERSION = 1;
+	static final int FILE_HEADER_BYTES = 16;
+	
+	static final int RECORD_MAGIC = 0x52544C50;	// "PLTR" little endian
+	static final int RECORD_HEADER_BYTES = 36;
+	
+	// Offsets within record header
+	static final int LENGTH_OFFSET = 4;
+	static final int ROWS_OFFSET = 8;
+	static final int COLUMNS_OFFSET = 12;
+	static final int TIMESTAMP_OFFSET = 16;
+	static final int ASSAY_OFFSET = 24;
+	static final int NAME_COUNT_OFFSET = 28;
+	static final int NAME_BYTES_OFFSET = 32;
+	
+	static final int MAX_RECORD_BYTES = 1 << 30;	// Records never straddle a mapped window
+	
+	private PlateArchiveFormat() {
+	}
+	
+	/**
+	 * Rounds up to next multiple of 8.
+	 */
+	static int align(int bytes) {
+		return (bytes + 7) & ~7;
+	}
+	
+	/**
+	 * Offset of well values from record start.
+	 */
+	static int wellsOffset(int nameBytes) {
+		return align(RECORD_HEADER_BYTES + nameBytes);
+	}
+	
+	/**
+	 * Returns length of record whose header starts at offset of a little endian buffer, or -1 if its magic
+	 * is wrong or its length cannot hold its header, names and wells.
+	 */
+	static int recordLength(ByteBuffer buffer, int offset) {
+		if(buffer.getInt(offset) != RECORD_MAGIC) {
+			return -1;
+		}
+		int length = buffer.getInt(offset + LENGTH_OFFSET);
+		int rows = buffer.getInt(offset + ROWS_OFFSET);
+		int columns = buffer.getInt(offset + COLUMNS_OFFSET);
+		int nameBytes = buffer.getInt(offset + NAME_BYTES_OFFSET);
+		if(rows <= 0 || columns <= 0 || nameBytes < 0) {
+			return -1;
+		}
+		
+		long minimum = RECORD_HEADER_BYTES + (long) nameBytes + (long) rows * columns * Double.BYTES;
+		if(length < minimum || length > MAX_RECORD_BYTES || (length & 7) != 0) {
+			return -1;
+		}
+		return length;
+	}
+	
+	/**
+	 * Returns true if a record magic is found on an 8 byte boundary from position to end of file, telling
+	 * a corrupt record in the middle of the archive from an incomplete one at its end.
+	 */
+	static boolean recordFollows(FileChannel channel, long position, long fileSize) throws IOException{
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+		while(position + Integer.BYTES <= fileSize) {
+			buffer.clear();
+			int n = channel.read(buffer, position);
+			for(int i = 0; i + Integer.BYTES <= n; i += 8) {
+				if(buffer.getInt(i) == RECORD_MAGIC) {
+					return true;
+				}
+			}
+			if(n < 8) {
+				return false;
+			}
+			position += n & ~7;
+		}
+		return false;
+	}
+}
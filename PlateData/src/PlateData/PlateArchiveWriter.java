@@ -0,0 +1,231 @@
+package PlateData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PlateArchiveWriter appends plate reads to a binary plate archive, see PlateArchiveFormat for the layout.
+ * Existing archives are opened for append, records already written are never changed. A last record left
+ * incomplete by a crash is cut off when the archive is opened again, so new records follow the last whole
+ * one rather than the torn bytes. Reads are stored 
+ * raw, one record per plate, with plate geometry, time, assay type and sample names so they can be 
+ * analysed again later through PlateArchive without POI.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateArchiveWriter implements Closeable {
+	private final FileChannel channel;
+	private long end;	// Where the next record is written
+	private long records = 0;
+	
+	/**
+	 * Opens archive for append, creating it with a file header if it does not exist. Record headers of an
+	 * existing archive are walked with the same checks as PlateArchive and a torn or zero filled tail is
+	 * truncated.
+	 * 
+	 * @param archive archive file
+	 * @throws IOException if file exists but is not a plate archive, or a record before the last is corrupt
+	 */
+	public PlateArchiveWriter(Path archive) throws IOException{
+		channel = FileChannel.open(archive, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		
+		try {
+			if(channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(PlateArchiveFormat.FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(PlateArchiveFormat.FILE_MAGIC).putShort(PlateArchiveFormat.VERSION);
+				header.clear();
+				writeFully(header, 0);
+				end = PlateArchiveFormat.FILE_HEADER_BYTES;
+			}else {
+				ByteBuffer header = ByteBuffer.allocate(PlateArchiveFormat.FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				channel.read(header, 0);
+				if(header.getInt(0) != PlateArchiveFormat.FILE_MAGIC) {
+					throw new IOException(archive + " is not a plate archive");
+				}
+				if(header.getShort(4) > PlateArchiveFormat.VERSION) {
+					throw new IOException(archive + " was written by a newer version, format " + header.getShort(4));
+				}
+				end = lastRecordEnd(archive);
+				if(end < channel.size()) {
+					channel.truncate(end);
+				}
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns end of the last whole record, walking record headers from the file header.
+	 */
+	private long lastRecordEnd(Path archive) throws IOException{
+		long fileSize = channel.size();
+		long position = PlateArchiveFormat.FILE_HEADER_BYTES;
+		ByteBuffer header = ByteBuffer.allocate(PlateArchiveFormat.RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		
+		while(position + PlateArchiveFormat.RECORD_HEADER_BYTES <= fileSize) {
+			header.clear();
+			while(header.hasRemaining() && channel.read(header, position + header.position()) >= 0) {
+				// Fill header
+			}
+			int length = PlateArchiveFormat.recordLength(header, 0);
+			if(length < 0) {
+				if(PlateArchiveFormat.recordFollows(channel, position + 8, fileSize)) {
+					throw new IOException("Corrupt record at byte " + position + " of " + archive);
+				}
+				break;	// Torn or zero filled last record
+			}
+			if(position + length > fileSize) {
+				break;	// Last record is incomplete
+			}
+			position += length;
+		}
+		return Math.min(position, fileSize);
+	}
+	
+	/**
+	 * Appends BCA plate read with its sample names and creation time.
+	 * 
+	 * @param plate
+	 * @throws IOException
+	 */
+	public void write(BCAData plate) throws IOException{
+		write(plate.getRawData(), plate.getCreationTime(), AssayType.BCA, plate.getSampleNames());
+	}
+	
+	/**
+	 * Appends every plate read of a CTG file, one record per plate. Names of the 
+	 * top and bottom data sets are stored with each plate when provided. Data read from a file
+	 * must have been constructed with keepRawPlates.
+	 * 
+	 * @param data
+	 * @throws IOException
+	 */
+	public void write(CTGData data) throws IOException{
+		ArrayList<String> names = data.getDataSetNames();
+		if(data.getRawPlates() == null) {
+			throw new IllegalArgumentException("CTG raw plates were not kept, construct CTGData with keepRawPlates");
+		}
+		
+		for(int p = 0; p < data.getRawPlates().size(); p++) {
+			List<String> plateNames = Collections.emptyList();
+			if(names != null && names.size() >= 2 * p + 2) {
+				plateNames = names.subList(2 * p, 2 * p + 2);
+			}
+			write(data.getRawPlates().get(p), data.getCreationTime(), AssayType.CTG, plateNames);
+		}
+	}
+	
+	/**
+	 * Appends a plate read without assay type or names.
+	 * 
+	 * @param plate
+	 * @throws IOException
+	 */
+	public void write(PlateData plate) throws IOException{
+		write(plate.getRawData(), plate.getCreationTime(), null, null);
+	}
+	
+	/**
+	 * Appends one record.
+	 * 
+	 * @param plate well values
+	 * @param timestamp milliseconds since epoch
+	 * @param assayType may be null
+	 * @param sampleNames may be null
+	 * @throws IOException
+	 */
+	public synchronized void write(PlateMatrix plate, long timestamp, AssayType assayType, List<String> sampleNames) throws IOException{
+		List<byte[]> names = new ArrayList<>();
+		int nameBytes = 0;
+		if(sampleNames != null) {
+			for(String name: sampleNames) {
+				byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+				if(utf8.length > 0xFFFF) {
+					throw new IOException("Sample name longer than 65535 bytes");
+				}
+				names.add(utf8);
+				nameBytes += 2 + utf8.length;
+			}
+		}
+		
+		int wellsOffset = PlateArchiveFormat.wellsOffset(nameBytes);
+		long length = (long) wellsOffset + (long) plate.getWells() * Double.BYTES;
+		if(length > PlateArchiveFormat.MAX_RECORD_BYTES) {
+			throw new IOException("Plate record too large for archive, " + length + " bytes");
+		}
+		
+		ByteBuffer record = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+		record.putInt(PlateArchiveFormat.RECORD_MAGIC);
+		record.putInt((int) length);
+		record.putInt(plate.getRows());
+		record.putInt(plate.getColumns());
+		record.putLong(timestamp);
+		record.put(assayType == null ? (byte) -1 : (byte) assayType.ordinal());
+		record.put(new byte[3]);
+		record.putInt(names.size());
+		record.putInt(nameBytes);
+		for(byte[] utf8: names) {
+			record.putShort((short) utf8.length);
+			record.put(utf8);
+		}
+		
+		record.position(wellsOffset);
+		for(int i = 0; i < plate.getWells(); i++) {
+			record.putDouble(plate.get(i));
+		}
+		record.flip();
+		
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.OUTPUT)){
+			timer.wells(plate.getWells()).bytes(length);
+			writeFully(record, end);
+		}
+		end += length;
+		records++;
+	}
+	
+	private void writeFully(ByteBuffer buffer, long position) throws IOException{
+		while(buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+	
+	/**
+	 * Returns number of records written since opening.
+	 * 
+	 * @return records
+	 */
+	public long getRecordsWritten() {
+		return records;
+	}
+	
+	/**
+	 * Forces written records to disk.
+	 * 
+	 * @throws IOException
+	 */
+	public void flush() throws IOException{
+		channel.force(false);
+	}
+	
+	@Override
+	public void close() throws IOException{
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
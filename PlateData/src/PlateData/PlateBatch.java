@@ -0,0 +1,166 @@
+package PlateData;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * PlateBatch analyses every plate file in a directory, or a given list of files, at the same time on a 
+ * bounded fork join pool. Each file is read and analysed independently so a corrupt workbook is recorded 
+ * as an error for that file without stopping the rest of the batch.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateBatch {
+	
+	/**
+	 * Analyses all .xlsx, .csv, .tsv and .txt files in directory using default options.
+	 * 
+	 * @param dir directory holding plate files
+	 * @param assayType BCA or CTG
+	 * @return per file results and errors
+	 * @throws IOException if directory cannot be listed
+	 */
+	public static BatchResult process(Path dir, AssayType assayType) throws IOException{
+		return process(dir, assayType, new AnalysisOptions());
+	}
+	
+	/**
+	 * Analyses all .xlsx, .csv, .tsv and .txt files in directory. Excel lock files (~$name.xlsx) are skipped and
+	 * files are processed in name order.
+	 * 
+	 * @param dir directory holding plate files
+	 * @param assayType BCA or CTG
+	 * @param options analysis parameters and parallelism
+	 * @return per file results and errors
+	 * @throws IOException if directory cannot be listed
+	 */
+	public static BatchResult process(Path dir, AssayType assayType, AnalysisOptions options) throws IOException{
+		List<Path> files = new ArrayList<>();
+		
+		try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.{xlsx,csv,tsv,txt}")){
+			for(Path p: stream) {
+				if(!p.getFileName().toString().startsWith("~$") && Files.isRegularFile(p)) {
+					files.add(p);
+				}
+			}
+		}
+		Collections.sort(files);
+		
+		return process(files, assayType, options);
+	}
+	
+	/**
+	 * Analyses given files with at most options.getParallelism() files in progress at once.
+	 * 
+	 * @param files plate files
+	 * @param assayType BCA or CTG
+	 * @param options analysis parameters and parallelism
+	 * @return per file results and errors
+	 */
+	public static BatchResult process(List<Path> files, AssayType assayType, AnalysisOptions options) {
+		long start = System.nanoTime();
+		
+		Map<Path, PlateData> results = new LinkedHashMap<>();
+		Map<Path, Exception> errors = new LinkedHashMap<>();
+		
+		List<Callable<PlateData>> tasks = new ArrayList<>(files.size());
+		for(Path p: files) {
+			tasks.add(() -> analyse(p, assayType, options));
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(Math.min(options.getParallelism(), Math.max(1, files.size())));
+		try {
+			List<Future<PlateData>> futures = pool.invokeAll(tasks);
+			
+			// Futures are in same order as files
+			for(int i = 0; i < files.size(); i++) {
+				try {
+					results.put(files.get(i), futures.get(i).get());
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					errors.put(files.get(i), (cause instanceof Exception) ? (Exception) cause : e);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					errors.put(files.get(i), e);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		
+		return new BatchResult(assayType, results, errors, System.nanoTime() - start);
+	}
+	
+	/**
+	 * Reads and analyses a single plate file, text exports through PlateTextReader and workbooks
+	 * through options cache when one is set. BCA plates are returned with every stage computed.
+	 * 
+	 * @param file plate file
+	 * @param assayType BCA or CTG
+	 * @param options analysis parameters
+	 * @return BCAData or CTGData object
+	 * @throws Exception if file cannot be read or analysed
+	 */
+	public static PlateData analyse(Path file, AssayType assayType, AnalysisOptions options) throws Exception{
+		if(PlateTextReader.isTextFile(file)) {
+			if(assayType == AssayType.CTG) {
+				return new CTGData(PlateTextReader.readPlates(file, options.getPlateFormat()), options.getSampleNames());
+			}
+			return configure(new BCAData(PlateTextReader.readFirstPlate(file, options.getPlateFormat()), options.getSpecifiedUg(), options.getReplicateNum(), options.getSampleNames()), options);
+		}
+		
+		PlateCache cache = options.getCache();
+		if(cache != null) {
+			if(assayType == AssayType.CTG) {
+				return new CTGData(cache.load(file, options.getPlateFormat()), options.getSampleNames());
+			}
+			return configure(new BCAData(cache.loadFirst(file, options.getPlateFormat()), options.getSpecifiedUg(), options.getReplicateNum(), options.getSampleNames()), options);
+		}
+		
+		try(FileInputStream in = open(file)){
+			if(assayType == AssayType.CTG) {
+				return new CTGData(in, options.getSampleNames(), options.getReaderMode(), options.getPlateFormat());
+			}
+			return configure(new BCAData(in, options.getSpecifiedUg(), options.getReplicateNum(), options.getSampleNames(), options.getReaderMode(), options.getPlateFormat()), options);
+		}
+	}
+	
+	/**
+	 * Applies BCA options not taken by the constructors, then computes every stage so averaging and the
+	 * curve fit run on the calling worker thread and the returned object is only read afterwards. A plate
+	 * read on an interrupted thread is not analysed.
+	 */
+	static BCAData configure(BCAData bca, AnalysisOptions options) {
+		bca.setOutlierPolicy(options.getOutlierPolicy());
+		bca.setOutlierTest(options.getOutlierTest());
+		bca.setOutlierCVLimit(options.getOutlierCVLimit());
+		PlateAnalysis.checkCancelled();
+		return bca.computeAll();
+	}
+	
+	/**
+	 * Opens plate file, timed as PipelineStage.FILE_OPEN and counted in bytes read.
+	 */
+	private static FileInputStream open(Path file) throws IOException{
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.FILE_OPEN)){
+			long size = Files.size(file);
+			timer.bytes(size);
+			PlateMetrics.recordBytes(size);
+			return new FileInputStream(file.toFile());
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package PlateData;
+
+/**
+ * Collects individual cell values into plate blocks following the layout of the template files.
+ * First row of a sheet holds column labels, next rows hold the plate (8 for a 96 well plate) with row label 
+ * in first column, stacked plates follow after one blank row and one label row. Readers feed rows and cells in sheet order and the assembler
+ * hands each completed block to a PlateBlockHandler.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+class PlateBlockAssembler {
+	static final int FIRST_ROW = 1;		// Skip label row
+	
+	private final PlateFormat format;
+	private final int plateStride;	// Rows from start of one plate to start of the next
+	private final int maxPlates;
+	private final PlateBlockHandler handler;
+	
+	private PlateMatrix block;	// Plate currently being filled, null between plates
+	private int blockIndex = -1;
+	private int platesEmitted = 0;
+	private boolean finished = false;
+	
+	/**
+	 * @param format geometry of each plate
+	 * @param maxPlates number of plates to read before stopping, use Integer.MAX_VALUE for all plates
+	 * @param handler receives each completed plate
+	 */
+	PlateBlockAssembler(PlateFormat format, int maxPlates, PlateBlockHandler handler) {
+		this.format = format;
+		this.plateStride = format.getRows() + 2;
+		this.maxPlates = maxPlates;
+		this.handler = handler;
+	}
+	
+	/**
+	 * Signals start of a row. Returns false once no more rows are needed.
+	 * 
+	 * @param rowIndex 0 based sheet row
+	 * @return true if reading should continue
+	 * @throws java.util.concurrent.CancellationException if the reading thread was interrupted
+	 */
+	boolean startRow(int rowIndex) {
+		if(finished) {
+			return false;
+		}
+		PlateAnalysis.checkCancelled();
+		if(rowIndex < FIRST_ROW) {
+			return true;
+		}
+		
+		int plate = (rowIndex - FIRST_ROW) / plateStride;
+		int offset = (rowIndex - FIRST_ROW) % plateStride;
+		
+		if(plate != blockIndex) {
+			// Previous plate finished early (short block) so hand it back before moving on
+			if(block != null && !emit()) {
+				return false;
+			}
+			
+			// A plate must start on its first row, same as an empty row ending the workbook reader loop
+			if(offset != 0) {
+				finished = true;
+				return false;
+			}
+			blockIndex = plate;
+			block = new PlateMatrix(format);
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns true if row would start a new plate block, readers check a row holds values before
+	 * starting it so a trailing empty row does not open an all zero plate.
+	 * 
+	 * @param rowIndex 0 based sheet row
+	 * @return true if row is the first row of a plate not yet started
+	 */
+	boolean opensBlock(int rowIndex) {
+		return !finished && rowIndex >= FIRST_ROW && (rowIndex - FIRST_ROW) / plateStride != blockIndex;
+	}
+	
+	/**
+	 * Stores a numeric cell value if it falls inside the current plate.
+	 * 
+	 * @param rowIndex 0 based sheet row
+	 * @param columnIndex 0 based sheet column, first column holds row labels
+	 * @param value numeric cell value
+	 */
+	void cell(int rowIndex, int columnIndex, double value) {
+		if(block == null || rowIndex < FIRST_ROW || columnIndex < 1 || columnIndex > format.getColumns()) {
+			return;
+		}
+		int offset = (rowIndex - FIRST_ROW) % plateStride;
+		if(offset < format.getRows()) {
+			block.set(offset, columnIndex - 1, value);
+		}
+	}
+	
+	/**
+	 * Signals end of a row, last row of a plate hands the plate back straight away.
+	 * 
+	 * @param rowIndex 0 based sheet row
+	 * @return true if reading should continue
+	 */
+	boolean endRow(int rowIndex) {
+		if(block != null && rowIndex >= FIRST_ROW && (rowIndex - FIRST_ROW) % plateStride == format.getRows() - 1) {
+			return emit();
+		}
+		return !finished;
+	}
+	
+	/**
+	 * Signals end of sheet, any partially filled plate is handed back.
+	 */
+	void finish() {
+		if(block != null) {
+			emit();
+		}
+		finished = true;
+	}
+	
+	/**
+	 * Number of plates handed back so far.
+	 * 
+	 * @return platesEmitted
+	 */
+	int getPlatesEmitted() {
+		return platesEmitted;
+	}
+	
+	private boolean emit() {
+		PlateMetrics.recordPlate(block.getWells());
+		handler.plate(platesEmitted, block);
+		block = null;
+		platesEmitted++;
+		
+		if(platesEmitted >= maxPlates) {
+			finished = true;
+		}
+		return !finished;
+	}
+}
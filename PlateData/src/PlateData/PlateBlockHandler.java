@@ -0,0 +1,20 @@
+package PlateData;
+
+/**
+ * Callback used by the plate readers to hand back each plate block as soon as it has been read.
+ * Blocks are handed back in the order they appear in the sheet, index starting at 0.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public interface PlateBlockHandler {
+	
+	/**
+	 * Called once for every complete plate block read from the sheet.
+	 * 
+	 * @param index position of the plate in the sheet, starting at 0
+	 * @param plate plate values without labels, owned by the handler from here on
+	 */
+	void plate(int index, PlateMatrix plate);
+}
@@ -0,0 +1,212 @@
+package PlateData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PlateCache keeps parsed plates in memory keyed by a SHA-256 hash of the file contents, so re-running
+ * the same file with a different specifiedUg, ReplicateNum or list of names reads the bytes and hashes 
+ * them but skips POI entirely. Cache size is bounded by total number of wells held; the least recently 
+ * used file is evicted first. Hit, miss and eviction counts are kept for tuning the bound.
+ * 
+ * Plates handed out are shared between callers and must not be modified, BCAData and CTGData copy 
+ * them on construction.
+ * 
+ * PlateCache cache = new PlateCache(100000);
+ * BCAData plate = new BCAData(cache.loadFirst(path, PlateFormat.WELLS_96), 15, ReplicateNum.DUPLICATE, names);
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateCache {
+	private final long maxWells;
+	private final LinkedHashMap<String, List<PlateMatrix>> entries = new LinkedHashMap<>(16, 0.75f, true);	// access order for LRU
+	
+	private long wellCount = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	
+	/**
+	 * Constructs empty cache holding at most maxWells plate values in total, 
+	 * roughly 8 bytes each. A 96 well plate counts as 96.
+	 * 
+	 * @param maxWells
+	 */
+	public PlateCache(long maxWells) {
+		if(maxWells < 1) {
+			throw new IllegalArgumentException("Cache must hold at least one well");
+		}
+		this.maxWells = maxWells;
+	}
+	
+	/**
+	 * Returns every stacked plate in file, parsing it only if its contents are not already cached.
+	 * 
+	 * @param file .xlsx plate file
+	 * @param format plate geometry
+	 * @return plates in sheet order, shared and read only
+	 * @throws IOException
+	 */
+	public List<PlateMatrix> load(Path file, PlateFormat format) throws IOException{
+		byte[] bytes;
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.FILE_OPEN)){
+			bytes = Files.readAllBytes(file);
+			timer.bytes(bytes.length);
+		}
+		PlateMetrics.recordBytes(bytes.length);
+		return load(bytes, format);
+	}
+	
+	/**
+	 * Returns every stacked plate in stream, parsing it only if its contents are not already cached.
+	 * Stream is read to the end but not closed.
+	 * 
+	 * @param file input stream of .xlsx plate file
+	 * @param format plate geometry
+	 * @return plates in sheet order, shared and read only
+	 * @throws IOException
+	 */
+	public List<PlateMatrix> load(InputStream file, PlateFormat format) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		int read;
+		while((read = file.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		return load(bytes.toByteArray(), format);
+	}
+	
+	/**
+	 * Returns first plate in file, parsing it only if its contents are not already cached.
+	 * 
+	 * @param file .xlsx plate file
+	 * @param format plate geometry
+	 * @return first plate, shared and read only
+	 * @throws IOException
+	 */
+	public PlateMatrix loadFirst(Path file, PlateFormat format) throws IOException{
+		List<PlateMatrix> plates = load(file, format);
+		if(plates.isEmpty()) {
+			throw new IOException("No plate values found in " + file);
+		}
+		return plates.get(0);
+	}
+	
+	/**
+	 * Returns every stacked plate in file contents, parsing only on a cache miss.
+	 * 
+	 * @param contents .xlsx file bytes
+	 * @param format plate geometry
+	 * @return plates in sheet order, shared and read only
+	 * @throws IOException
+	 */
+	public List<PlateMatrix> load(byte[] contents, PlateFormat format) throws IOException{
+		String key = hash(contents) + ":" + format;
+		
+		synchronized(this) {
+			List<PlateMatrix> cached = entries.get(key);
+			if(cached != null) {
+				hits++;
+				return cached;
+			}
+			misses++;
+		}
+		
+		// Parse outside lock so other files can be served meanwhile
+		List<PlateMatrix> plates = Collections.unmodifiableList(PlateSheetReader.readPlates(new ByteArrayInputStream(contents), format));
+		
+		synchronized(this) {
+			List<PlateMatrix> previous = entries.put(key, plates);
+			if(previous != null) {
+				wellCount -= wells(previous);
+			}
+			wellCount += wells(plates);
+			evict();
+		}
+		return plates;
+	}
+	
+	/**
+	 * Removes least recently used entries until within bound. Newest entry is
+	 * kept even if it alone is larger than the bound.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<String, List<PlateMatrix>>> eldest = entries.entrySet().iterator();
+		while(wellCount > maxWells && entries.size() > 1) {
+			Map.Entry<String, List<PlateMatrix>> e = eldest.next();
+			wellCount -= wells(e.getValue());
+			eldest.remove();
+			evictions++;
+		}
+	}
+	
+	private static long wells(List<PlateMatrix> plates) {
+		long wells = 0;
+		for(PlateMatrix p: plates) {
+			wells += p.getWells();
+		}
+		return wells;
+	}
+	
+	private static String hash(byte[] contents) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(contents);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for(byte b: digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+	
+	/**
+	 * Removes every entry, counters are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		wellCount = 0;
+	}
+	
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	public synchronized long getWellCount() {
+		return wellCount;
+	}
+	
+	public synchronized long getHits() {
+		return hits;
+	}
+	
+	public synchronized long getMisses() {
+		return misses;
+	}
+	
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+	
+	/**
+	 * Prints entry count, wells held and hit, miss and eviction counters.
+	 */
+	public synchronized void printStats() {
+		System.out.println("Plate cache: " + entries.size() + " files, " + wellCount + "/" + maxWells + " wells, " 
+				+ hits + " hits, " + misses + " misses, " + evictions + " evictions");
+	}
+}
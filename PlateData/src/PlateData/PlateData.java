@@ -2,6 +2,8 @@ package PlateData;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.time.LocalDateTime;
@@ -11,12 +13,10 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
-//TODO output to excel file super method or would just handle in subclasses ?
-
 /**
  * PlateData objects are meant to hold an array of data values corresponding to standard laboratory plate reader output. 
- * By specifying a .xls document with raw plate reader out put, data will be processed without labels into 2D
- * array for down stream analysis via object extension. 
+ * By specifying a .xls document with raw plate reader out put, data will be processed without labels into a
+ * PlateMatrix for down stream analysis via object extension. 96 well plates are assumed unless a PlateFormat is given.
  * 
  * @author Colin Coon
  * @version 1.1
@@ -25,8 +25,10 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
  */
 
 public class PlateData {
-	private double[][] rawData; //Excel input of plate read 
+	private PlateMatrix rawData; //Excel input of plate read 
+	private PlateFormat plateFormat; //Geometry of plate read
 	private String creationDate; 
+	private long creationTime; //Milliseconds since epoch of object creation
 	
 	/**
 	 * Constructs PlateData object given no input excel file. No data processing
@@ -38,6 +40,20 @@ public class PlateData {
 	 * @throws Exception
 	 */
 	public PlateData() throws Exception{
+		this(PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Constructs PlateData object of given plate format with no input excel file. 
+	 * No data processing occurs, assumes that will happen downstream.
+	 * 
+	 * @param plateFormat
+	 * @throws Exception
+	 */
+	public PlateData(PlateFormat plateFormat) throws Exception{
+		this.plateFormat = plateFormat;
+		
+		creationTime = System.currentTimeMillis();
 		LocalDateTime date = LocalDateTime.now(); //Store date of object creation
 		creationDate = date.getMonth() + "/" + date.getDayOfMonth() + "/" + date.getYear();
 	}
@@ -51,16 +67,77 @@ public class PlateData {
 	 * @throws Exception
 	 */
 	public PlateData(FileInputStream file) throws Exception{
-		rawData = new double[8][12];
-		processRawData(file);
+		this(file, ReaderMode.WORKBOOK);
+	}
+	
+	/**
+	 * Constructs PlateData object given input excel file and how it should be read. 
+	 * ReaderMode.STREAMING reads plate values straight from the sheet XML without 
+	 * building a workbook in memory.
+	 * 
+	 * @param file, readerMode
+	 * @throws Exception
+	 */
+	public PlateData(FileInputStream file, ReaderMode readerMode) throws Exception{
+		this(file, readerMode, PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Constructs PlateData object given input excel file, how it should be read
+	 * and the plate format, 96, 384 or 1536 wells.
+	 * 
+	 * @param file, readerMode, plateFormat
+	 * @throws Exception
+	 */
+	public PlateData(FileInputStream file, ReaderMode readerMode, PlateFormat plateFormat) throws Exception{
+		this(plateFormat);
 		
-		LocalDateTime date = LocalDateTime.now(); //Store date of object creation
-		creationDate = date.getMonth() + "/" + date.getDayOfMonth() + "/" + date.getYear();
+		rawData = new PlateMatrix(plateFormat);
+		processRawData(file, readerMode);
+	}
+	
+	/**
+	 * Constructs PlateData object from a plate that has already been read, for example
+	 * one held in a PlateCache. Values are copied so the source plate can be shared.
+	 * 
+	 * @param plate
+	 * @throws Exception
+	 */
+	public PlateData(PlateMatrix plate) throws Exception{
+		this(plate.getFormat());
+		
+		rawData = plate.copy();
+	}
+	
+	/**
+	 * Raw excel file is processed using specified reader mode. Subclasses override
+	 * processRawData and processRawDataStreaming for their own layouts.
+	 * 
+	 * @param file, readerMode
+	 * @throws Exception
+	 */
+	public void processRawData(FileInputStream file, ReaderMode readerMode) throws Exception{
+		if(readerMode == ReaderMode.STREAMING) {
+			processRawDataStreaming(file);
+		}else {
+			processRawData(file);
+		}
+	}
+	
+	/**
+	 * Raw excel file is streamed through PlateSheetReader, only the first plate
+	 * of the first sheet is parsed and stored in rawData.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public void processRawDataStreaming(InputStream file) throws IOException{
+		rawData = PlateSheetReader.readFirstPlate(file, plateFormat);
 	}
 	
 	/**
-	 * Raw excel file as specified is processed and stored in 2D
-	 * array called rawData
+	 * Raw excel file as specified is processed and stored in 
+	 * PlateMatrix called rawData
 	 * 
 	 * @param file
 	 * @return rawData
@@ -68,7 +145,14 @@ public class PlateData {
 	 */
 	public void processRawData(FileInputStream file) throws Exception{
 		//Create workbook object using input stream object
-		XSSFWorkbook workbook = new XSSFWorkbook(file);
+		XSSFWorkbook workbook;
+		PlateMetrics.Timer parse = PlateMetrics.start(PipelineStage.WORKBOOK_PARSE);
+		try {
+			workbook = new XSSFWorkbook(file);
+		} finally {
+			parse.close();
+		}
+		PlateMetrics.Timer extraction = PlateMetrics.start(PipelineStage.CELL_EXTRACTION);
 				
 		//Get first sheet of workbook/excel file
 		XSSFSheet sheet = workbook.getSheetAt(0);
@@ -80,36 +164,44 @@ public class PlateData {
 		//Create Iterator interface for rows in excel document
 		Iterator<Row> rowIterator = sheet.iterator();
 				
-		//Iterate skipping first row and through next 8 rows
-		for(int p = 1; p < 9; p++) {
+		//Iterate skipping first row and through next 8 rows (or plate row count)
+		for(int p = 1; p <= plateFormat.getRows(); p++) {
 			Row rowAttempt = sheet.getRow(p);
 					
 			j = 0;
 					
-			//Loop through 12 cell values excluding first cell
-			for(int k = 1; k < 13; k++) {
+			//Loop through 12 cell values (or plate column count) excluding first cell
+			for(int k = 1; k <= plateFormat.getColumns(); k++) {
 				Cell cellAttempt = rowAttempt.getCell(k);
 						
 				switch(cellAttempt.getCellType()) {
 					case NUMERIC:
-						rawData[i][j] = cellAttempt.getNumericCellValue();
+						rawData.set(i, j, cellAttempt.getNumericCellValue());
 						j++;
 				}
 			}
 			i++;
-		}		
+		}
+		
+		extraction.wells(rawData.getWells()).close();
+		PlateMetrics.recordPlate(rawData.getWells());
 	}
 	
 	/**
-	 * Method will output a number array to Excel file, 2nd page, next blank column
-	 * Logic will include outputtting new column for each array in this array.
+	 * Method will output a number array to a new Excel file, one value per row down the given 
+	 * column of the given page. Earlier pages are left blank. Workbook is streamed so arrays of 
+	 * any length can be written, file is not closed.
 	 * 
-	 * @param file for output, meant to be same as input file
-	 * @param array for output, suggest labels and values
+	 * @param file for output
+	 * @param array for output, null entries leave a blank cell
+	 * @param page zero based sheet index
+	 * @param column zero based column
+	 * @throws IOException
 	 */
-	public void outputArrayExcel(FileOutputStream file, ArrayList<Number> array, int page, int column) {
-		
-	
+	public void outputArrayExcel(FileOutputStream file, ArrayList<Number> array, int page, int column) throws IOException{
+		try(PlateReport report = new PlateReport(file)){
+			report.addColumn(page, column, array);
+		}
 	}
 	
 	/**
@@ -119,13 +211,49 @@ public class PlateData {
 		return creationDate;
 	}	
 	
+	/**
+	 * Returns time this object was created in milliseconds since epoch.
+	 * 
+	 * @return creationTime
+	 */
+	public long getCreationTime() {
+		return creationTime;
+	}
+	
+	/**
+	 * Replaces plate values, for subclasses that read plates their own way.
+	 * 
+	 * @param plate values, not copied
+	 */
+	void setRawData(PlateMatrix plate) {
+		rawData = plate;
+	}
+	
 	/**
 	 * Get a specific value from rawData array using standard array conventions. 
 	 * 
 	 * @return rawData double array
 	 */
 	public double getRawDataValue(int x, int y){
-		return rawData[x][y];
+		return rawData.get(x, y);
+	}
+	
+	/**
+	 * Returns plate values as a PlateMatrix for bulk row, column and block access.
+	 * 
+	 * @return rawData
+	 */
+	public PlateMatrix getRawData() {
+		return rawData;
+	}
+	
+	/**
+	 * Returns plate geometry, 96 well unless specified on creation.
+	 * 
+	 * @return plateFormat
+	 */
+	public PlateFormat getPlateFormat() {
+		return plateFormat;
 	}
 	
 	/** 
@@ -171,12 +299,24 @@ public class PlateData {
 		}
 	}
 	
+	/**
+	 * Print values of a DoubleColumn, one per line.
+	 * 
+	 * @param column
+	 */
+	public void printDoubleColumn(DoubleColumn column) {
+		System.out.println();
+		for(int i = 0; i < column.size(); i++) {
+			System.out.println(column.get(i));
+		}
+	}
+	
 	/**
 	 * Print the raw data values, unaltered using the
 	 * printRawData method.
 	 */
 	public void printRawData() {
-		print2DArray(rawData);
+		print2DArray(rawData.toArray());
 	}
 	
 	/**
@@ -0,0 +1,70 @@
+package PlateData;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PlateExecutors creates executors that start a thread per task, virtual threads when the running JVM has
+ * them (Java 21 and later) and pooled daemon platform threads otherwise. The projects compile for Java 11,
+ * so virtual threads are found by reflection once when the class loads.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class PlateExecutors {
+	private static final Method OF_VIRTUAL = find(Thread.class, "ofVirtual");
+	private static final Method PER_TASK = find(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+	
+	private PlateExecutors() {
+	}
+	
+	/**
+	 * Returns true if executors from this class run tasks on virtual threads.
+	 * 
+	 * @return virtual threads available
+	 */
+	public static boolean hasVirtualThreads() {
+		return OF_VIRTUAL != null && PER_TASK != null;
+	}
+	
+	/**
+	 * Creates an executor starting a new thread for each task, named name-1, name-2 and so on.
+	 * Threads are virtual when available, otherwise idle platform threads are kept for a minute
+	 * and reused. Neither kind stops the JVM from exiting.
+	 * 
+	 * @param name thread name prefix
+	 * @return executor, shut down by caller
+	 */
+	public static ExecutorService newPerTaskExecutor(String name) {
+		if(hasVirtualThreads()) {
+			try {
+				Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+				Object builder = OF_VIRTUAL.invoke(null);
+				builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+				ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+				return (ExecutorService) PER_TASK.invoke(null, factory);
+			} catch (ReflectiveOperationException e) {
+				// Fall through to platform threads
+			}
+		}
+		
+		AtomicLong count = new AtomicLong();
+		return Executors.newCachedThreadPool(task -> {
+			Thread t = new Thread(task, name + "-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+	
+	private static Method find(Class<?> type, String method, Class<?>... parameters) {
+		try {
+			return type.getMethod(method, parameters);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+}
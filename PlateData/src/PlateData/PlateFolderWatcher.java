@@ -0,0 +1,497 @@
+package PlateData;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * PlateFolderWatcher watches a folder the plate reader exports into and analyses each new .xlsx, .csv, .tsv
+ * or .txt file as BCA or CTG, writing name.ext.results.xlsx next to it, or name.ext.error.txt if it could not
+ * be analysed. The extension is kept so plate.xlsx and plate.csv do not overwrite each other's results. A file
+ * is only picked up once its size and modified time have stopped changing for the debounce interval, so files
+ * still being copied are left alone.
+ * 
+ * Stable files go onto a bounded queue read by a fixed number of workers. When the queue is full the watch
+ * thread waits, and any events the operating system drops meanwhile are recovered by rescanning the folder,
+ * so a burst of hundreds of files costs one queue of memory. Finished files are appended to a ledger file,
+ * .platedata-processed, in the folder, keyed by name, size and modified time; on restart the folder is
+ * scanned and only files not in the ledger, or changed since, are analysed. The ledger is compacted on start
+ * to files still in the folder, and only the last version of each file present is held in memory.
+ * 
+ * A folder that cannot be read, for example a share that has dropped, does not stop the watcher. It retries
+ * with a growing delay and rescans the whole folder once it can read it again.
+ * 
+ * java PlateData.PlateFolderWatcher \\share\plates BCA
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateFolderWatcher implements Closeable {
+	public static final String LEDGER_NAME = ".platedata-processed";
+	public static final String RESULT_SUFFIX = ".results.xlsx";
+	public static final String ERROR_SUFFIX = ".error.txt";
+	
+	private static final Path STOP = Paths.get("");	// Queue entry telling a worker to exit
+	private static final long MIN_RETRY_MILLIS = 1000;	// First wait after the folder could not be read
+	private static final long MAX_RETRY_MILLIS = 60000;
+	
+	private final Path dir;
+	private final AssayType assayType;
+	private final AnalysisOptions options;
+	private final long debounceNanos;
+	private final BlockingQueue<Path> queue;
+	private final Thread[] workers;
+	private final Thread watcher;
+	private final WatchService watchService;
+	
+	private final Map<Path, Pending> pending = new HashMap<>();	// Watch thread only
+	private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+	private final Map<String, String> ledger = new ConcurrentHashMap<>();	// File name to ledger key of version analysed, added to by workers
+	private final BufferedWriter ledgerWriter;
+	
+	private final AtomicLong processed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private volatile boolean running = true;
+	
+	/**
+	 * Creates watcher with a 2 second debounce and a queue of 64 files. Call start to begin.
+	 * 
+	 * @param dir folder plate files are exported to
+	 * @param assayType BCA or CTG
+	 * @param options analysis parameters, parallelism gives number of workers
+	 * @throws IOException if folder cannot be watched or ledger cannot be read
+	 */
+	public PlateFolderWatcher(Path dir, AssayType assayType, AnalysisOptions options) throws IOException{
+		this(dir, assayType, options, 2000, 64);
+	}
+	
+	/**
+	 * Creates watcher. Call start to begin.
+	 * 
+	 * @param dir folder plate files are exported to
+	 * @param assayType BCA or CTG
+	 * @param options analysis parameters, parallelism gives number of workers
+	 * @param debounceMillis time a file's size and modified time must be unchanged before it is analysed
+	 * @param queueCapacity stable files waiting for a worker before the watch thread waits
+	 * @throws IOException if folder cannot be watched or ledger cannot be read
+	 */
+	public PlateFolderWatcher(Path dir, AssayType assayType, AnalysisOptions options, long debounceMillis, int queueCapacity) throws IOException{
+		if(queueCapacity < 1) {
+			throw new IllegalArgumentException("queueCapacity must be at least 1");
+		}
+		this.dir = dir.toAbsolutePath();
+		this.assayType = assayType;
+		this.options = options;
+		this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		
+		Path ledgerFile = this.dir.resolve(LEDGER_NAME);
+		if(Files.exists(ledgerFile)) {
+			loadLedger(ledgerFile);
+		}
+		ledgerWriter = Files.newBufferedWriter(ledgerFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		
+		watchService = this.dir.getFileSystem().newWatchService();
+		this.dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+		
+		watcher = new Thread(this::watch, "PlateFolderWatcher " + this.dir.getFileName());
+		workers = new Thread[options.getParallelism()];
+		for(int i = 0; i < workers.length; i++) {
+			workers[i] = new Thread(this::work, "PlateFolderWatcher worker " + (i + 1));
+		}
+	}
+	
+	/**
+	 * Starts watch and worker threads. Files already in the folder and not in the ledger are picked up first.
+	 */
+	public void start() {
+		for(Thread t: workers) {
+			t.start();
+		}
+		watcher.start();
+	}
+	
+	/**
+	 * Stops watching and waits for workers to finish the file they are on. Files still queued are
+	 * not in the ledger and are analysed on next start.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException{
+		if(!running) {
+			return;
+		}
+		running = false;
+		watchService.close();
+		watcher.interrupt();	// Wakes a watch thread waiting to retry the folder
+		
+		try {
+			watcher.join();
+			queue.clear();
+			for(int i = 0; i < workers.length; i++) {
+				queue.put(STOP);
+			}
+			for(Thread t: workers) {
+				t.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			synchronized(ledgerWriter) {
+				ledgerWriter.close();
+			}
+		}
+	}
+	
+	/**
+	 * Returns number of files analysed and written since start.
+	 * 
+	 * @return processed
+	 */
+	public long getProcessed() {
+		return processed.get();
+	}
+	
+	/**
+	 * Returns number of files that could not be analysed since start.
+	 * 
+	 * @return failed
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+	
+	/**
+	 * Returns number of stable files waiting for a worker.
+	 * 
+	 * @return queued files
+	 */
+	public int getQueued() {
+		return queue.size();
+	}
+	
+	/**
+	 * Watch thread, collects events into pending and hands over files that have settled. When the folder
+	 * cannot be read the thread waits, doubling the wait up to a minute, then registers the folder again
+	 * and rescans it.
+	 */
+	private void watch() {
+		boolean rescan = true;	// Whole folder is looked at first
+		long retryMillis = MIN_RETRY_MILLIS;
+		WatchKey folderKey = null;
+		
+		while(running) {
+			try {
+				if(rescan) {
+					folderKey = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);	// Same key while still valid
+					scan();
+					rescan = false;
+					retryMillis = MIN_RETRY_MILLIS;
+				}
+				
+				WatchKey key = watchService.poll(Math.max(1, TimeUnit.NANOSECONDS.toMillis(debounceNanos) / 4), TimeUnit.MILLISECONDS);
+				if(key != null) {
+					for(WatchEvent<?> event: key.pollEvents()) {
+						if(event.kind() == OVERFLOW) {
+							rescan = true;	// Events were dropped, look at the whole folder
+						}else if(event.kind() == ENTRY_DELETE) {
+							ledger.remove(((Path) event.context()).toString());
+						}else {
+							touch(dir.resolve((Path) event.context()));
+						}
+					}
+					key.reset();
+				}
+				if(!folderKey.isValid()) {
+					throw new IOException("Folder is no longer accessible");	// Deleted or unmounted
+				}
+				submitSettled();
+			} catch (ClosedWatchServiceException e) {
+				return;	// Closed by close()
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (IOException e) {
+				System.err.println("Unable to watch " + dir + ", retrying in " + retryMillis / 1000 + " s: " + e);
+				rescan = true;
+				try {
+					Thread.sleep(retryMillis);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+			}
+		}
+	}
+	
+	/**
+	 * Adds every plate file in folder to pending, and drops ledger entries of files no longer in it.
+	 */
+	private void scan() throws IOException{
+		Set<String> names = new HashSet<>();
+		try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir)){
+			for(Path p: stream) {
+				names.add(p.getFileName().toString());
+				touch(p);
+			}
+		} catch (DirectoryIteratorException e) {
+			throw e.getCause();
+		}
+		ledger.keySet().removeIf(name -> !names.contains(name) && !Files.exists(dir.resolve(name)));
+	}
+	
+	/**
+	 * Records that file was seen changing, restarting its debounce.
+	 */
+	private void touch(Path file) {
+		if(isPlateFile(file) && !inFlight.contains(file)) {
+			pending.computeIfAbsent(file, p -> new Pending()).since = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * Queues pending files whose size and modified time have not changed for the debounce interval,
+	 * waiting for room in the queue.
+	 */
+	private void submitSettled() throws InterruptedException{
+		long now = System.nanoTime();
+		
+		for(Iterator<Map.Entry<Path, Pending>> it = pending.entrySet().iterator(); it.hasNext() && running;) {
+			Map.Entry<Path, Pending> e = it.next();
+			Path file = e.getKey();
+			Pending p = e.getValue();
+			
+			long size;
+			long modified;
+			try {
+				size = Files.size(file);
+				modified = Files.getLastModifiedTime(file).toMillis();
+			} catch (IOException ex) {
+				it.remove();	// Deleted or renamed away
+				continue;
+			}
+			
+			if(size != p.size || modified != p.modified) {
+				p.size = size;
+				p.modified = modified;
+				p.since = now;
+			}else if(now - p.since >= debounceNanos) {
+				it.remove();
+				if(!ledgerKey(file, size, modified).equals(ledger.get(file.getFileName().toString())) && inFlight.add(file)) {
+					queue.put(file);	// Blocks while workers are behind
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Worker thread, analyses queued files until told to stop.
+	 */
+	private void work() {
+		try {
+			while(true) {
+				Path file = queue.take();
+				if(file == STOP) {
+					return;
+				}
+				try {
+					process(file);
+				} finally {
+					inFlight.remove(file);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Analyses one file and writes its results or error next to it, then records it in the ledger.
+	 */
+	private void process(Path file) {
+		String base = file.getFileName().toString();
+		long size;
+		long modified;
+		try {
+			size = Files.size(file);
+			modified = Files.getLastModifiedTime(file).toMillis();
+		} catch (IOException e) {
+			return;	// Gone before a worker got to it
+		}
+		
+		String status;
+		try {
+			PlateData data = PlateBatch.analyse(file, assayType, options);
+			writeAtomically(dir.resolve(base + RESULT_SUFFIX), out -> {
+				try(PlateReport report = new PlateReport(out)){
+					report.add(file.getFileName().toString(), data);
+				}
+			});
+			Files.deleteIfExists(dir.resolve(base + ERROR_SUFFIX));
+			processed.incrementAndGet();
+			status = "OK";
+		} catch (Exception e) {
+			failed.incrementAndGet();
+			status = "ERROR";
+			try {
+				StringWriter trace = new StringWriter();
+				e.printStackTrace(new PrintWriter(trace));
+				writeAtomically(dir.resolve(base + ERROR_SUFFIX), out -> out.write(trace.toString().getBytes(StandardCharsets.UTF_8)));
+			} catch (IOException writeError) {
+				System.err.println("Unable to write error for " + file + ": " + writeError);
+			}
+		}
+		
+		String key = ledgerKey(file, size, modified);
+		ledger.put(base, key);	// Not analysed again on a rescan or a later event for the same file
+		synchronized(ledgerWriter) {
+			try {
+				ledgerWriter.write(key + "\t" + status);
+				ledgerWriter.newLine();
+				ledgerWriter.flush();
+			} catch (IOException e) {
+				System.err.println("Unable to update ledger for " + file + ": " + e);
+			}
+		}
+	}
+	
+	/**
+	 * Loads ledger entries of files still in the folder and unchanged since they were analysed, then
+	 * rewrites the ledger with only those, so it does not grow across restarts.
+	 */
+	private void loadLedger(Path ledgerFile) throws IOException{
+		Map<String, String> kept = new LinkedHashMap<>();	// Latest line of each file, by name
+		
+		for(String line: Files.readAllLines(ledgerFile, StandardCharsets.UTF_8)) {
+			int end = line.lastIndexOf('\t');	// Drop trailing status
+			int modifiedStart = (end > 0) ? line.lastIndexOf('\t', end - 1) : -1;
+			int sizeStart = (modifiedStart > 0) ? line.lastIndexOf('\t', modifiedStart - 1) : -1;
+			if(sizeStart <= 0) {
+				continue;
+			}
+			
+			String name = line.substring(0, sizeStart);
+			String key = line.substring(0, end);
+			Path file = dir.resolve(name);
+			try {
+				if(key.equals(ledgerKey(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()))) {
+					ledger.put(name, key);
+					kept.put(name, line);
+				}
+			} catch (IOException e) {
+				// Deleted or renamed away since it was analysed
+			}
+		}
+		
+		writeAtomically(ledgerFile, out -> {
+			for(String line: kept.values()) {
+				out.write((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+			}
+		});
+	}
+	
+	/**
+	 * Writes to a temporary file and renames it into place, so readers never see half a result.
+	 */
+	private void writeAtomically(Path target, OutputWork work) throws IOException{
+		Path temp = Files.createTempFile(dir, ".platedata", ".tmp");
+		try {
+			try(OutputStream out = Files.newOutputStream(temp)){
+				work.write(out);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	/**
+	 * Returns true for plate exports, skipping lock files, hidden files and this watcher's own output.
+	 */
+	static boolean isPlateFile(Path file) {
+		String name = file.getFileName().toString();
+		String lower = name.toLowerCase();
+		
+		if(name.startsWith("~$") || name.startsWith(".") || lower.endsWith(RESULT_SUFFIX) || lower.endsWith(ERROR_SUFFIX)) {
+			return false;
+		}
+		return lower.endsWith(".xlsx") || PlateTextReader.isTextFile(file);
+	}
+	
+	private static String ledgerKey(Path file, long size, long modified) {
+		return file.getFileName() + "\t" + size + "\t" + modified;
+	}
+	
+	/**
+	 * Size and modified time last seen for a file and when they last changed.
+	 */
+	private static final class Pending {
+		long size = -1;
+		long modified = -1;
+		long since;
+	}
+	
+	private interface OutputWork {
+		void write(OutputStream out) throws IOException;
+	}
+	
+	/**
+	 * Watches a folder until the process is stopped.
+	 * 
+	 * @param args folder, BCA or CTG
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception{
+		if(args.length < 2) {
+			System.err.println("Usage: PlateFolderWatcher <folder> <BCA|CTG>");
+			System.exit(2);
+		}
+		
+		PlateFolderWatcher watcher = new PlateFolderWatcher(Paths.get(args[0]), AssayType.valueOf(args[1].toUpperCase()), new AnalysisOptions());
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+				System.err.println("Error stopping watcher: " + e);
+			}
+		}));
+		
+		watcher.start();
+		System.out.println("Watching " + args[0] + " for " + args[1].toUpperCase() + " plates");
+		Thread.currentThread().join();
+	}
+}
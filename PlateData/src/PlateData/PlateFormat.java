@@ -0,0 +1,42 @@
+package PlateData;
+
+// enum class for standard plate geometries, rows by columns
+public enum PlateFormat {
+	WELLS_96(8, 12), WELLS_384(16, 24), WELLS_1536(32, 48);
+	
+	private final int rows;
+	private final int columns;
+	
+	PlateFormat(int rows, int columns) {
+		this.rows = rows;
+		this.columns = columns;
+	}
+	
+	public int getRows() {
+		return rows;
+	}
+	
+	public int getColumns() {
+		return columns;
+	}
+	
+	public int getWells() {
+		return rows * columns;
+	}
+	
+	/**
+	 * Returns format matching dimensions, null if not a standard plate.
+	 * 
+	 * @param rows
+	 * @param columns
+	 * @return format or null
+	 */
+	public static PlateFormat fromDimensions(int rows, int columns) {
+		for(PlateFormat f: values()) {
+			if(f.rows == rows && f.columns == columns) {
+				return f;
+			}
+		}
+		return null;
+	}
+}
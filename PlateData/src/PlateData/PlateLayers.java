@@ -0,0 +1,266 @@
+package PlateData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+/**
+ * PlateLayers holds the plates of several sheets of one workbook as named layers, for exports that put each
+ * wavelength or read on its own sheet, such as 562 nm with a 650 nm reference for BCA. Each layer is named
+ * after its sheet and holds every plate stacked on that sheet. The package is opened once and the sheet
+ * XML of each wanted sheet is copied out in turn, then sheets are parsed in parallel with PlateSheetReader.
+ * 
+ * Layers are combined with whole plate operations on PlateMatrix, difference gives a layer less a
+ * reference layer plate by plate, and bca and ctg analyse the result.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class PlateLayers {
+	private final PlateFormat format;
+	private final Map<String, List<PlateMatrix>> layers = new LinkedHashMap<>();
+	
+	/**
+	 * Creates empty layers, add to them with put.
+	 * 
+	 * @param format plate geometry of every layer
+	 */
+	public PlateLayers(PlateFormat format) {
+		this.format = format;
+	}
+	
+	/**
+	 * Reads every sheet of a workbook, parsing sheets in parallel on all processors.
+	 * 
+	 * @param file input stream of .xlsx file
+	 * @param format plate geometry
+	 * @return layers in sheet order
+	 * @throws IOException
+	 */
+	public static PlateLayers read(InputStream file, PlateFormat format) throws IOException{
+		return read(file, format, null, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Reads selected sheets of a workbook, parsing up to parallelism sheets at once.
+	 * 
+	 * @param file input stream of .xlsx file
+	 * @param format plate geometry
+	 * @param sheets names of sheets to read, null for all
+	 * @param parallelism sheets parsed at once
+	 * @return layers in sheet order
+	 * @throws IOException if a sheet named cannot be found or read
+	 */
+	public static PlateLayers read(InputStream file, PlateFormat format, Collection<String> sheets, int parallelism) throws IOException{
+		Set<String> wanted = (sheets == null) ? null : new LinkedHashSet<>(sheets);
+		List<String> names = new ArrayList<>();
+		List<byte[]> xml = new ArrayList<>();
+		
+		OPCPackage pkg;
+		PlateMetrics.Timer parse = PlateMetrics.start(PipelineStage.WORKBOOK_PARSE);
+		try {
+			pkg = OPCPackage.open(file);
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to open workbook", e);
+		} finally {
+			parse.close();
+		}
+		
+		try {
+			XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+			while(iterator.hasNext()) {
+				try(InputStream sheet = iterator.next()){
+					String name = iterator.getSheetName();
+					if(wanted == null || wanted.contains(name)) {
+						names.add(name);
+						xml.add(sheet.readAllBytes());
+					}
+				}
+			}
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to read sheets", e);
+		} finally {
+			pkg.revert();	// Read only, nothing to save
+		}
+		
+		if(wanted != null && names.size() < wanted.size()) {
+			wanted.removeAll(names);
+			throw new IOException("Sheets not found: " + wanted);
+		}
+		
+		List<Callable<List<PlateMatrix>>> tasks = new ArrayList<>(xml.size());
+		for(byte[] sheet: xml) {
+			tasks.add(() -> parse(sheet, format));
+		}
+		
+		PlateLayers layers = new PlateLayers(format);
+		List<List<PlateMatrix>> parsed = new ArrayList<>(tasks.size());
+		if(parallelism <= 1 || tasks.size() <= 1) {
+			for(byte[] sheet: xml) {
+				parsed.add(parse(sheet, format));
+			}
+		}else {
+			ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+			try {
+				// Futures are in same order as sheets
+				for(Future<List<PlateMatrix>> future: pool.invokeAll(tasks)) {
+					parsed.add(future.get());
+				}
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				throw (cause instanceof IOException) ? (IOException) cause : new IOException("Unable to parse sheet", cause);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted reading sheets", e);
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+		
+		for(int i = 0; i < names.size(); i++) {
+			layers.put(names.get(i), parsed.get(i));
+		}
+		return layers;
+	}
+	
+	/**
+	 * Parses every plate of one sheet's XML.
+	 */
+	private static List<PlateMatrix> parse(byte[] sheet, PlateFormat format) throws IOException{
+		List<PlateMatrix> plates = new ArrayList<>();
+		PlateSheetReader.parseSheet(new ByteArrayInputStream(sheet), new PlateBlockAssembler(format, Integer.MAX_VALUE, (index, plate) -> plates.add(plate)));
+		return plates;
+	}
+	
+	public PlateFormat getFormat() {
+		return format;
+	}
+	
+	/**
+	 * Returns layer names in sheet order.
+	 * 
+	 * @return names
+	 */
+	public List<String> getNames() {
+		return new ArrayList<>(layers.keySet());
+	}
+	
+	public int size() {
+		return layers.size();
+	}
+	
+	public boolean contains(String name) {
+		return layers.containsKey(name);
+	}
+	
+	/**
+	 * Returns first plate of a layer.
+	 * 
+	 * @param name layer name
+	 * @return plate
+	 */
+	public PlateMatrix get(String name) {
+		List<PlateMatrix> plates = getPlates(name);
+		if(plates.isEmpty()) {
+			throw new IllegalArgumentException("Layer " + name + " has no plates");
+		}
+		return plates.get(0);
+	}
+	
+	/**
+	 * Returns every plate of a layer in sheet order.
+	 * 
+	 * @param name layer name
+	 * @return plates, not copied
+	 */
+	public List<PlateMatrix> getPlates(String name) {
+		List<PlateMatrix> plates = layers.get(name);
+		if(plates == null) {
+			throw new IllegalArgumentException("No layer named " + name + ", layers are " + layers.keySet());
+		}
+		return Collections.unmodifiableList(plates);
+	}
+	
+	/**
+	 * Adds or replaces a layer.
+	 * 
+	 * @param name layer name
+	 * @param plates plates of the layer's format
+	 */
+	public void put(String name, List<PlateMatrix> plates) {
+		for(PlateMatrix plate: plates) {
+			if(plate.getRows() != format.getRows() || plate.getColumns() != format.getColumns()) {
+				throw new IllegalArgumentException("Plate is " + plate.getRows() + "x" + plate.getColumns() + ", layers are " + format);
+			}
+		}
+		layers.put(name, new ArrayList<>(plates));
+	}
+	
+	/**
+	 * Returns a layer less a reference layer, plate by plate, as new plates. Layers are left unchanged.
+	 * 
+	 * @param measure layer name, for example the 562 nm sheet
+	 * @param reference layer name, for example the 650 nm sheet
+	 * @return corrected plates
+	 */
+	public List<PlateMatrix> difference(String measure, String reference) {
+		List<PlateMatrix> plates = getPlates(measure);
+		List<PlateMatrix> references = getPlates(reference);
+		if(plates.size() != references.size()) {
+			throw new IllegalArgumentException("Layer " + measure + " has " + plates.size() + " plates, " + reference + " has " + references.size());
+		}
+		
+		List<PlateMatrix> corrected = new ArrayList<>(plates.size());
+		for(int i = 0; i < plates.size(); i++) {
+			PlateMatrix plate = plates.get(i).copy();
+			plate.subtract(references.get(i));
+			corrected.add(plate);
+		}
+		return corrected;
+	}
+	
+	/**
+	 * Analyses first plate of a layer as BCA, less the reference layer when one is given.
+	 * 
+	 * @param measure layer name
+	 * @param reference layer name, null for none
+	 * @param options analysis parameters
+	 * @return analysed plate
+	 * @throws Exception
+	 */
+	public BCAData bca(String measure, String reference, AnalysisOptions options) throws Exception{
+		PlateMatrix plate = (reference == null) ? get(measure) : difference(measure, reference).get(0);
+		return PlateBatch.configure(new BCAData(plate, options.getSpecifiedUg(), options.getReplicateNum(), options.getSampleNames()), options);
+	}
+	
+	/**
+	 * Analyses every plate of a layer as CTG, less the reference layer when one is given.
+	 * 
+	 * @param measure layer name
+	 * @param reference layer name, null for none
+	 * @param options analysis parameters
+	 * @return analysed plates
+	 * @throws Exception
+	 */
+	public CTGData ctg(String measure, String reference, AnalysisOptions options) throws Exception{
+		List<PlateMatrix> plates = (reference == null) ? getPlates(measure) : difference(measure, reference);
+		return new CTGData(plates, options.getSampleNames());
+	}
+}
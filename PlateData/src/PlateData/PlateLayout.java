@@ -0,0 +1,508 @@
+package PlateData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlateLayout declares what each well of a plate holds, blanks, standard levels, samples, controls or doses,
+ * grouped into replicate groups, and compiles the declaration once into flat well index and group offset
+ * arrays. Averaging a role is then a gather loop over those arrays with no geometry left in the assay code,
+ * so BCA, CTG and new assays share it for any plate size. Wells can be masked out, for example a bubble or
+ * a known bad tip, and are dropped from every group when the layout is compiled.
+ *
+ * Groups are identified by role and level, the standard level, sample number, dose step or control set,
+ * and are ordered by level within a role. Wells within a group are summed in the order they were declared.
+ *
+ * PlateLayout layout = PlateLayout.builder(PlateFormat.WELLS_96)
+ * 		.row(WellRole.STANDARD, 0, 0, 0, 2)
+ * 		.exclude(3, 7)
+ * 		.build();
+ * double[] means = layout.means(plate, WellRole.STANDARD);
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class PlateLayout {
+	private static final WellRole[] ROLES = WellRole.values();
+	private static final Map<String, PlateLayout> STANDARD_LAYOUTS = new ConcurrentHashMap<>();
+
+	private final int rows;
+	private final int columns;
+
+	// Per role, indexed by WellRole ordinal. Wells of group g are wells[offsets[g]] up to wells[offsets[g + 1]]
+	private final int[][] wells;		// Row-major well indexes
+	private final int[][] wellRows;		// Row of each entry in wells
+	private final int[][] wellColumns;	// Column of each entry in wells
+	private final int[][] offsets;
+	private final int[][] levels;
+
+	private PlateLayout(int rows, int columns, int[][] wells, int[][] offsets, int[][] levels) {
+		this.rows = rows;
+		this.columns = columns;
+		this.wells = wells;
+		this.offsets = offsets;
+		this.levels = levels;
+
+		wellRows = new int[ROLES.length][];
+		wellColumns = new int[ROLES.length][];
+		for(int r = 0; r < ROLES.length; r++) {
+			wellRows[r] = new int[wells[r].length];
+			wellColumns[r] = new int[wells[r].length];
+			for(int i = 0; i < wells[r].length; i++) {
+				wellRows[r][i] = wells[r][i] / columns;
+				wellColumns[r][i] = wells[r][i] % columns;
+			}
+		}
+	}
+
+	/**
+	 * Starts declaring a layout for a plate format.
+	 *
+	 * @param format
+	 * @return builder
+	 */
+	public static Builder builder(PlateFormat format) {
+		return new Builder(format.getRows(), format.getColumns());
+	}
+
+	/**
+	 * Starts declaring a layout for a block of any size, for example half a plate.
+	 *
+	 * @param rows
+	 * @param columns
+	 * @return builder
+	 */
+	public static Builder builder(int rows, int columns) {
+		return new Builder(rows, columns);
+	}
+
+	/**
+	 * Returns the BCA layout described in the readme for a plate of given size. Standard levels
+	 * 0 to 6 are rows A to G of the first replicate columns, level 0 doubling as the blank. Samples
+	 * follow in groups of replicate columns, down each column group before moving right.
+	 * Layouts are compiled once per size and shared.
+	 *
+	 * @param rows
+	 * @param columns
+	 * @param replicateNum
+	 * @return layout
+	 */
+	public static PlateLayout bca(int rows, int columns, ReplicateNum replicateNum) {
+		return STANDARD_LAYOUTS.computeIfAbsent("bca:" + replicateNum + ":" + rows + "x" + columns, key -> {
+			int replicates = (replicateNum == ReplicateNum.TRIPLICATE) ? 3 : 2;
+			int standards = StandardCurve.getLadder().length;
+			Builder builder = builder(rows, columns).row(WellRole.BLANK, 0, 0, 0, replicates);
+
+			for(int i = 0; i < standards && i < rows; i++) {
+				builder.row(WellRole.STANDARD, i, i, 0, replicates);
+			}
+
+			int sample = 0;
+			for(int i = replicates; i + replicates <= columns; i += replicates) {
+				for(int j = 0; j < rows; j++) {
+					builder.row(WellRole.SAMPLE, sample++, j, i, replicates);
+				}
+			}
+			return builder.build();
+		});
+	}
+
+	/**
+	 * Returns the CTG layout for one data set, half a plate. First two and last two columns are
+	 * one control group, declared column by column. Columns between are dose steps, level being
+	 * the column index. Layouts are compiled once per size and shared.
+	 *
+	 * @param rows rows in data set
+	 * @param columns
+	 * @return layout
+	 */
+	public static PlateLayout ctg(int rows, int columns) {
+		return STANDARD_LAYOUTS.computeIfAbsent("ctg:" + rows + "x" + columns, key -> {
+			Builder builder = builder(rows, columns);
+
+			for(int c: new int[] {0, 1, columns - 2, columns - 1}) {
+				builder.column(WellRole.CONTROL, 0, c, 0, rows);
+			}
+			for(int c = 2; c < columns - 2; c++) {
+				builder.column(WellRole.DOSE, c, c, 0, rows);
+			}
+			return builder.build();
+		});
+	}
+
+	/**
+	 * Returns rows layout was declared for.
+	 *
+	 * @return rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns columns layout was declared for.
+	 *
+	 * @return columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Returns number of replicate groups holding role.
+	 *
+	 * @param role
+	 * @return groups
+	 */
+	public int getGroupCount(WellRole role) {
+		return levels[role.ordinal()].length;
+	}
+
+	/**
+	 * Returns level of each group of role, in group order.
+	 *
+	 * @param role
+	 * @return levels
+	 */
+	public int[] getLevels(WellRole role) {
+		return levels[role.ordinal()].clone();
+	}
+
+	/**
+	 * Returns row-major indexes of every well holding role, group by group.
+	 *
+	 * @param role
+	 * @return well indexes
+	 */
+	public int[] getWells(WellRole role) {
+		return wells[role.ordinal()].clone();
+	}
+
+	/**
+	 * Returns mean of each replicate group of role.
+	 *
+	 * @param plate plate of layout's size
+	 * @param role
+	 * @return means in group order
+	 */
+	public double[] means(PlateMatrix plate, WellRole role) {
+		double[] means = new double[getGroupCount(role)];
+		means(plate, role, means);
+		return means;
+	}
+
+	/**
+	 * Writes mean of each replicate group of role into destination, so one array can be reused.
+	 * Groups left empty by masking give NaN.
+	 *
+	 * @param plate plate of layout's size
+	 * @param role
+	 * @param destination at least getGroupCount(role) long
+	 */
+	public void means(PlateMatrix plate, WellRole role, double[] destination) {
+		checkSize(plate.getRows(), plate.getColumns());
+		int[] w = wells[role.ordinal()];
+		int[] o = offsets[role.ordinal()];
+
+		for(int g = 0; g < o.length - 1; g++) {
+			destination[g] = plate.gatherSum(w, o[g], o[g + 1]) / (o[g + 1] - o[g]);
+		}
+	}
+
+	/**
+	 * Returns mean of every well holding role, pooled across groups.
+	 *
+	 * @param plate plate of layout's size
+	 * @param role
+	 * @return mean, NaN if no well holds role
+	 */
+	public double mean(PlateMatrix plate, WellRole role) {
+		checkSize(plate.getRows(), plate.getColumns());
+		int[] w = wells[role.ordinal()];
+
+		return plate.gatherSum(w, 0, w.length) / w.length;
+	}
+
+	/**
+	 * Returns mean of every well holding role, pooled across groups.
+	 *
+	 * @param data values of layout's size, rows by columns
+	 * @param role
+	 * @return mean, NaN if no well holds role
+	 */
+	public double mean(double[][] data, WellRole role) {
+		checkSize(data.length, data[0].length);
+		int[] r = wellRows[role.ordinal()];
+		int[] c = wellColumns[role.ordinal()];
+		double sum = 0;
+
+		for(int i = 0; i < r.length; i++) {
+			sum += data[r[i]][c[i]];
+		}
+		return sum / r.length;
+	}
+
+	/**
+	 * Gathers mean, standard deviation and outlier of each replicate group of role into stats, in one
+	 * pass over the wells. Wells are summed in declared order so with policy NONE means are exactly those
+	 * of means, as is the pooled mean of a role with one group, such as the readme blank, that of mean.
+	 * Deviations are taken from each group's first well so the
+	 * single pass variance keeps its precision. Only groups with at least three wells and a CV above
+	 * cvLimit are tested for an outlier, their few wells being looked at again to find the extremes.
+	 * Nothing is allocated once stats has grown to the layout.
+	 * 
+	 * @param plate plate of layout's size
+	 * @param role
+	 * @param policy NONE to skip outlier tests, FLAG to report outliers, REJECT to leave them out
+	 * @param test outlier test used by FLAG and REJECT
+	 * @param cvLimit groups with CV at or below this, as a fraction, are accepted untested
+	 * @param stats filled in group order
+	 */
+	public void replicateStats(PlateMatrix plate, WellRole role, OutlierPolicy policy, OutlierTest test, double cvLimit, ReplicateStats stats) {
+		checkSize(plate.getRows(), plate.getColumns());
+		int[] w = wells[role.ordinal()];
+		int[] o = offsets[role.ordinal()];
+		int[] l = levels[role.ordinal()];
+		boolean rejecting = (policy == OutlierPolicy.REJECT);
+		double pooled = 0;
+		int pooledCount = 0;
+
+		stats.reset(role, l.length, columns, rejecting);
+		double[] moments = stats.moments();
+
+		for(int g = 0; g < l.length; g++) {
+			int from = o[g];
+			int to = o[g + 1];
+			int n = to - from;
+			double shift = (n > 0) ? plate.get(w[from]) : 0;
+			plate.gatherMoments(w, from, to, shift, moments);
+			double sum = moments[0];
+			double shiftedSum = moments[1];
+			double shiftedSquares = moments[2];
+			pooled += sum;
+
+			double mean = sum / n;
+			double variance = variance(n, shiftedSum, shiftedSquares);
+			int outlier = -1;
+
+			// CV above limit compared as variances, no square root for groups that pass
+			if(policy != OutlierPolicy.NONE && n >= 3 && variance > cvLimit * cvLimit * mean * mean) {
+				outlier = findOutlier(plate, w, from, to, test, mean, Math.sqrt(variance));
+				if(outlier >= 0 && rejecting) {
+					double x = plate.get(outlier);
+					double d = x - shift;
+					sum -= x;
+					pooled -= x;
+					shiftedSum -= d;
+					shiftedSquares -= d * d;
+					n--;
+					mean = sum / n;
+					variance = variance(n, shiftedSum, shiftedSquares);
+				}
+			}
+
+			pooledCount += n;
+			stats.set(g, l[g], mean, variance, n, outlier);
+		}
+		stats.setPooledMean(pooled / pooledCount);
+	}
+
+	/**
+	 * Finds two smallest and two largest wells of a group and tests the extremes.
+	 * 
+	 * @return well index of outlier, -1 if none
+	 */
+	private static int findOutlier(PlateMatrix plate, int[] w, int from, int to, OutlierTest test, double mean, double sd) {
+		double low = Double.POSITIVE_INFINITY;
+		double low2 = Double.POSITIVE_INFINITY;
+		double high = Double.NEGATIVE_INFINITY;
+		double high2 = Double.NEGATIVE_INFINITY;
+		int lowWell = -1;
+		int highWell = -1;
+
+		for(int i = from; i < to; i++) {
+			double x = plate.get(w[i]);
+			if(x < low) {
+				low2 = low;
+				low = x;
+				lowWell = w[i];
+			}else if(x < low2) {
+				low2 = x;
+			}
+			if(x > high) {
+				high2 = high;
+				high = x;
+				highWell = w[i];
+			}else if(x > high2) {
+				high2 = x;
+			}
+		}
+
+		int side = ReplicateStats.outlierSide(test, to - from, mean, sd, low, low2, high2, high);
+		return (side > 0) ? highWell : (side < 0) ? lowWell : -1;
+	}
+
+	private static double variance(int n, double shiftedSum, double shiftedSquares) {
+		if(n < 2) {
+			return Double.NaN;
+		}
+		return Math.max(0, (n * shiftedSquares - shiftedSum * shiftedSum) / ((double) n * (n - 1)));
+	}
+
+	/**
+	 * Returns rows of wells holding role, group by group, shared and not to be modified.
+	 */
+	int[] wellRows(WellRole role) {
+		return wellRows[role.ordinal()];
+	}
+
+	/**
+	 * Returns columns of wells holding role, group by group, shared and not to be modified.
+	 */
+	int[] wellColumns(WellRole role) {
+		return wellColumns[role.ordinal()];
+	}
+
+	private void checkSize(int plateRows, int plateColumns) {
+		if(plateRows != rows || plateColumns != columns) {
+			throw new IllegalArgumentException("Layout is " + rows + "x" + columns + ", plate is " + plateRows + "x" + plateColumns);
+		}
+	}
+
+	/**
+	 * Declares groups of wells and compiles them into a PlateLayout. Declaring a well
+	 * twice in one group adds it twice.
+	 */
+	public static final class Builder {
+		private final int rows;
+		private final int columns;
+		private final Map<WellRole, LinkedHashMap<Integer, List<Integer>>> groups = new LinkedHashMap<>();
+		private final boolean[] excluded;
+
+		private Builder(int rows, int columns) {
+			if(rows < 1 || columns < 1) {
+				throw new IllegalArgumentException("Layout must have at least one well");
+			}
+			this.rows = rows;
+			this.columns = columns;
+			this.excluded = new boolean[rows * columns];
+		}
+
+		/**
+		 * Adds one well to the group of role and level.
+		 *
+		 * @param role
+		 * @param level standard level, sample number, dose step or control set
+		 * @param row
+		 * @param column
+		 * @return this builder
+		 */
+		public Builder well(WellRole role, int level, int row, int column) {
+			if(row < 0 || row >= rows || column < 0 || column >= columns) {
+				throw new IndexOutOfBoundsException("Well " + row + "," + column + " outside " + rows + "x" + columns + " layout");
+			}
+			groups.computeIfAbsent(role, r -> new LinkedHashMap<>())
+				.computeIfAbsent(level, l -> new ArrayList<>())
+				.add(row * columns + column);
+			return this;
+		}
+
+		/**
+		 * Adds count wells across a row, left to right, to the group of role and level.
+		 *
+		 * @param role
+		 * @param level
+		 * @param row
+		 * @param column first column
+		 * @param count
+		 * @return this builder
+		 */
+		public Builder row(WellRole role, int level, int row, int column, int count) {
+			for(int i = 0; i < count; i++) {
+				well(role, level, row, column + i);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds count wells down a column, top to bottom, to the group of role and level.
+		 *
+		 * @param role
+		 * @param level
+		 * @param column
+		 * @param row first row
+		 * @param count
+		 * @return this builder
+		 */
+		public Builder column(WellRole role, int level, int column, int row, int count) {
+			for(int i = 0; i < count; i++) {
+				well(role, level, row + i, column);
+			}
+			return this;
+		}
+
+		/**
+		 * Masks well out of every group it was or will be declared in.
+		 *
+		 * @param row
+		 * @param column
+		 * @return this builder
+		 */
+		public Builder exclude(int row, int column) {
+			if(row < 0 || row >= rows || column < 0 || column >= columns) {
+				throw new IndexOutOfBoundsException("Well " + row + "," + column + " outside " + rows + "x" + columns + " layout");
+			}
+			excluded[row * columns + column] = true;
+			return this;
+		}
+
+		/**
+		 * Compiles declared groups into index arrays.
+		 *
+		 * @return layout
+		 */
+		public PlateLayout build() {
+			int[][] wells = new int[ROLES.length][];
+			int[][] offsets = new int[ROLES.length][];
+			int[][] levels = new int[ROLES.length][];
+
+			for(WellRole role: ROLES) {
+				List<Map.Entry<Integer, List<Integer>>> declared = new ArrayList<>();
+				if(groups.containsKey(role)) {
+					declared.addAll(groups.get(role).entrySet());
+				}
+				declared.sort(Comparator.comparing(Map.Entry::getKey));
+
+				int[] w = new int[rows * columns * 3];
+				int[] o = new int[declared.size() + 1];
+				int[] l = new int[declared.size()];
+				int n = 0;
+
+				for(int g = 0; g < declared.size(); g++) {
+					l[g] = declared.get(g).getKey();
+					for(int index: declared.get(g).getValue()) {
+						if(!excluded[index]) {
+							if(n == w.length) {
+								w = Arrays.copyOf(w, n * 2);
+							}
+							w[n++] = index;
+						}
+					}
+					o[g + 1] = n;
+				}
+
+				wells[role.ordinal()] = Arrays.copyOf(w, n);
+				offsets[role.ordinal()] = o;
+				levels[role.ordinal()] = l;
+			}
+
+			return new PlateLayout(rows, columns, wells, offsets, levels);
+		}
+	}
+}
@@ -0,0 +1,494 @@
+package PlateData;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * PlateMatrix holds the values of one plate read in a single row-major block, index = row * columns + column.
+ * Storage is either a double[] on the heap or a DoubleBuffer, which may be off-heap (direct) or a view into 
+ * a larger buffer. The matrix carries its own geometry so analysis can be written once for 96, 384 and 1536 
+ * well plates. Bulk row, column and block methods work over the flat storage without 2D array indexing.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class PlateMatrix {
+	private final int rows;
+	private final int columns;
+	private final double[] array;		// Heap storage, null when backed by a buffer
+	private final DoubleBuffer buffer;	// Buffer storage, null when backed by array
+	
+	/**
+	 * Constructs empty heap backed matrix for standard plate format.
+	 * 
+	 * @param format
+	 */
+	public PlateMatrix(PlateFormat format) {
+		this(format.getRows(), format.getColumns());
+	}
+	
+	/**
+	 * Constructs empty heap backed matrix of given size.
+	 * 
+	 * @param rows
+	 * @param columns
+	 */
+	public PlateMatrix(int rows, int columns) {
+		this(rows, columns, new double[checkedSize(rows, columns)], null);
+	}
+	
+	private PlateMatrix(int rows, int columns, double[] array, DoubleBuffer buffer) {
+		this.rows = rows;
+		this.columns = columns;
+		this.array = array;
+		this.buffer = buffer;
+	}
+	
+	/**
+	 * Constructs empty matrix stored off-heap in a direct buffer.
+	 * 
+	 * @param rows
+	 * @param columns
+	 * @return direct matrix
+	 */
+	public static PlateMatrix allocateDirect(int rows, int columns) {
+		int size = checkedSize(rows, columns);
+		DoubleBuffer direct = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+		return new PlateMatrix(rows, columns, null, direct);
+	}
+	
+	/**
+	 * Wraps existing row-major array, values are not copied.
+	 * 
+	 * @param values row-major values, length rows * columns
+	 * @param rows
+	 * @param columns
+	 * @return matrix sharing values
+	 */
+	public static PlateMatrix wrap(double[] values, int rows, int columns) {
+		if(values.length != checkedSize(rows, columns)) {
+			throw new IllegalArgumentException("Expected " + (rows * columns) + " values, got " + values.length);
+		}
+		return new PlateMatrix(rows, columns, values, null);
+	}
+	
+	/**
+	 * Wraps existing buffer starting at its position, values are not copied. 
+	 * 
+	 * @param values buffer holding at least rows * columns values from its position
+	 * @param rows
+	 * @param columns
+	 * @return matrix sharing buffer
+	 */
+	public static PlateMatrix wrap(DoubleBuffer values, int rows, int columns) {
+		int size = checkedSize(rows, columns);
+		if(values.remaining() < size) {
+			throw new IllegalArgumentException("Expected " + size + " values, got " + values.remaining());
+		}
+		DoubleBuffer slice = values.slice();
+		slice.limit(size);
+		return new PlateMatrix(rows, columns, null, slice);
+	}
+	
+	/**
+	 * Copies 2D array into new heap backed matrix, every row must be same length.
+	 * 
+	 * @param values 2D array of plate values
+	 * @return matrix
+	 */
+	public static PlateMatrix fromArray(double[][] values) {
+		int columns = values.length == 0 ? 0 : values[0].length;
+		PlateMatrix matrix = new PlateMatrix(values.length, columns);
+		
+		for(int i = 0; i < values.length; i++) {
+			if(values[i].length != columns) {
+				throw new IllegalArgumentException("Row " + i + " has " + values[i].length + " values, expected " + columns);
+			}
+			System.arraycopy(values[i], 0, matrix.array, i * columns, columns);
+		}
+		return matrix;
+	}
+	
+	private static int checkedSize(int rows, int columns) {
+		if(rows < 1 || columns < 1) {
+			throw new IllegalArgumentException("Plate must have at least one row and column");
+		}
+		return Math.multiplyExact(rows, columns);
+	}
+	
+	public int getRows() {
+		return rows;
+	}
+	
+	public int getColumns() {
+		return columns;
+	}
+	
+	public int getWells() {
+		return rows * columns;
+	}
+	
+	/**
+	 * Returns standard format matching geometry, null for non standard sizes.
+	 * 
+	 * @return format
+	 */
+	public PlateFormat getFormat() {
+		return PlateFormat.fromDimensions(rows, columns);
+	}
+	
+	/**
+	 * Returns true if values are held in a buffer rather than heap array.
+	 * 
+	 * @return true for buffer backed matrix
+	 */
+	public boolean isBufferBacked() {
+		return array == null;
+	}
+	
+	/**
+	 * Row-major index of well.
+	 * 
+	 * @param row
+	 * @param column
+	 * @return index
+	 */
+	public int index(int row, int column) {
+		return row * columns + column;
+	}
+	
+	public double get(int row, int column) {
+		checkCell(row, column);
+		return get(row * columns + column);
+	}
+	
+	public void set(int row, int column, double value) {
+		checkCell(row, column);
+		set(row * columns + column, value);
+	}
+	
+	/**
+	 * Gets value by row-major index.
+	 * 
+	 * @param index
+	 * @return value
+	 */
+	public double get(int index) {
+		return array != null ? array[index] : buffer.get(index);
+	}
+	
+	/**
+	 * Sets value by row-major index.
+	 * 
+	 * @param index
+	 * @param value
+	 */
+	public void set(int index, double value) {
+		if(array != null) {
+			array[index] = value;
+		}else {
+			buffer.put(index, value);
+		}
+	}
+	
+	/**
+	 * Sum of count consecutive wells in a row starting at column.
+	 * 
+	 * @param row
+	 * @param column first column
+	 * @param count number of columns
+	 * @return sum
+	 */
+	public double rowSum(int row, int column, int count) {
+		checkRange(row, column, 1, count);
+		int start = row * columns + column;
+		double sum = 0;
+		
+		if(array != null) {
+			for(int i = start; i < start + count; i++) {
+				sum += array[i];
+			}
+		}else {
+			for(int i = start; i < start + count; i++) {
+				sum += buffer.get(i);
+			}
+		}
+		return sum;
+	}
+	
+	/**
+	 * Sum of wells at indexes[from] up to indexes[to], summed in the order given. Used with
+	 * index arrays compiled by PlateLayout.
+	 * 
+	 * @param indexes row-major well indexes
+	 * @param from first position in indexes
+	 * @param to position after last in indexes
+	 * @return sum
+	 */
+	public double gatherSum(int[] indexes, int from, int to) {
+		double sum = 0;
+		
+		if(array != null) {
+			for(int i = from; i < to; i++) {
+				sum += array[indexes[i]];
+			}
+		}else {
+			for(int i = from; i < to; i++) {
+				sum += buffer.get(indexes[i]);
+			}
+		}
+		return sum;
+	}
+	
+	/**
+	 * Sum of wells at indexes from up to to, into moments[0], with sum and sum of squares of their 
+	 * differences from shift into moments[1] and moments[2], in one pass. Summed in index order 
+	 * so moments[0] equals gatherSum.
+	 * 
+	 * @param indexes row-major well indexes
+	 * @param from first position in indexes
+	 * @param to position after last
+	 * @param shift value deviations are taken from, usually the first well
+	 * @param moments at least 3 long, overwritten
+	 */
+	public void gatherMoments(int[] indexes, int from, int to, double shift, double[] moments) {
+		double sum = 0;
+		double shiftedSum = 0;
+		double shiftedSquares = 0;
+		
+		if(array != null) {
+			for(int i = from; i < to; i++) {
+				double x = array[indexes[i]];
+				double d = x - shift;
+				sum += x;
+				shiftedSum += d;
+				shiftedSquares += d * d;
+			}
+		}else {
+			for(int i = from; i < to; i++) {
+				double x = buffer.get(indexes[i]);
+				double d = x - shift;
+				sum += x;
+				shiftedSum += d;
+				shiftedSquares += d * d;
+			}
+		}
+		moments[0] = sum;
+		moments[1] = shiftedSum;
+		moments[2] = shiftedSquares;
+	}
+	
+	/**
+	 * Sum of a rectangular block of wells, summed row by row.
+	 * 
+	 * @param row first row
+	 * @param column first column
+	 * @param height number of rows
+	 * @param width number of columns
+	 * @return sum
+	 */
+	public double blockSum(int row, int column, int height, int width) {
+		checkRange(row, column, height, width);
+		double sum = 0;
+		
+		for(int r = row; r < row + height; r++) {
+			sum += rowSum(r, column, width);
+		}
+		return sum;
+	}
+	
+	/**
+	 * Copies one row into destination.
+	 * 
+	 * @param row
+	 * @param destination
+	 * @param offset position in destination
+	 */
+	public void copyRow(int row, double[] destination, int offset) {
+		copyBlock(row, 0, 1, columns, destination, offset);
+	}
+	
+	/**
+	 * Copies one column into destination.
+	 * 
+	 * @param column
+	 * @param destination
+	 * @param offset position in destination
+	 */
+	public void copyColumn(int column, double[] destination, int offset) {
+		checkRange(0, column, rows, 1);
+		for(int r = 0; r < rows; r++) {
+			destination[offset + r] = get(r * columns + column);
+		}
+	}
+	
+	/**
+	 * Copies rectangular block into destination in row-major order.
+	 * 
+	 * @param row first row
+	 * @param column first column
+	 * @param height number of rows
+	 * @param width number of columns
+	 * @param destination
+	 * @param offset position in destination
+	 */
+	public void copyBlock(int row, int column, int height, int width, double[] destination, int offset) {
+		checkRange(row, column, height, width);
+		for(int r = row; r < row + height; r++) {
+			int start = r * columns + column;
+			if(array != null) {
+				System.arraycopy(array, start, destination, offset, width);
+			}else {
+				DoubleBuffer view = buffer.duplicate();
+				view.position(start);
+				view.get(destination, offset, width);
+			}
+			offset += width;
+		}
+	}
+	
+	/**
+	 * Writes value * scale + shift of every well into destination in row-major order. Loop
+	 * has no branches or calls so it is vectorized by the JIT for heap backed plates.
+	 * 
+	 * @param scale
+	 * @param shift
+	 * @param destination at least getWells() long from offset
+	 * @param offset position in destination
+	 */
+	public void transformInto(double scale, double shift, double[] destination, int offset) {
+		int wells = getWells();
+		if(offset < 0 || offset + wells > destination.length) {
+			throw new IndexOutOfBoundsException("Destination holds " + destination.length + " values, needs " + (offset + wells));
+		}
+		
+		if(array != null) {
+			for(int i = 0; i < wells; i++) {
+				destination[offset + i] = array[i] * scale + shift;
+			}
+		}else {
+			copyBlock(0, 0, rows, columns, destination, offset);
+			for(int i = offset; i < offset + wells; i++) {
+				destination[i] = destination[i] * scale + shift;
+			}
+		}
+	}
+	
+	/**
+	 * Adds scale times other to every well in place, well by well. Used for layer arithmetic such as
+	 * reference wavelength subtraction, scale -1, before analysis. Loop over heap backed plates has no
+	 * branches or calls so it is vectorized by the JIT.
+	 * 
+	 * @param other plate of the same size
+	 * @param scale
+	 */
+	public void addScaled(PlateMatrix other, double scale) {
+		if(other.rows != rows || other.columns != columns) {
+			throw new IllegalArgumentException("Plate is " + other.rows + "x" + other.columns + ", expected " + rows + "x" + columns);
+		}
+		int wells = getWells();
+		
+		if(array != null && other.array != null) {
+			double[] values = other.array;
+			for(int i = 0; i < wells; i++) {
+				array[i] += scale * values[i];
+			}
+		}else {
+			for(int i = 0; i < wells; i++) {
+				set(i, get(i) + scale * other.get(i));
+			}
+		}
+	}
+	
+	/**
+	 * Subtracts other from every well in place.
+	 * 
+	 * @param other plate of the same size
+	 */
+	public void subtract(PlateMatrix other) {
+		addScaled(other, -1);
+	}
+	
+	/**
+	 * Copies rows into new 2D array.
+	 * 
+	 * @param row first row
+	 * @param count number of rows
+	 * @return 2D array of count by columns
+	 */
+	public double[][] toArray(int row, int count) {
+		double[][] values = new double[count][columns];
+		for(int r = 0; r < count; r++) {
+			copyRow(row + r, values[r], 0);
+		}
+		return values;
+	}
+	
+	/**
+	 * Copies whole plate into new 2D array.
+	 * 
+	 * @return 2D array of rows by columns
+	 */
+	public double[][] toArray() {
+		return toArray(0, rows);
+	}
+	
+	/**
+	 * Copies whole plate into new row-major array.
+	 * 
+	 * @return flat values
+	 */
+	public double[] toFlatArray() {
+		double[] values = new double[getWells()];
+		copyBlock(0, 0, rows, columns, values, 0);
+		return values;
+	}
+	
+	/**
+	 * Returns read-only buffer over values, no copy.
+	 * 
+	 * @return read-only buffer
+	 */
+	public DoubleBuffer asReadOnlyBuffer() {
+		return array != null ? DoubleBuffer.wrap(array).asReadOnlyBuffer() : buffer.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Returns heap backed copy of this matrix.
+	 * 
+	 * @return copy
+	 */
+	public PlateMatrix copy() {
+		return wrap(toFlatArray(), rows, columns);
+	}
+	
+	/**
+	 * Sets every well to value.
+	 * 
+	 * @param value
+	 */
+	public void fill(double value) {
+		if(array != null) {
+			Arrays.fill(array, value);
+		}else {
+			for(int i = 0; i < getWells(); i++) {
+				buffer.put(i, value);
+			}
+		}
+	}
+	
+	private void checkCell(int row, int column) {
+		if(row < 0 || row >= rows || column < 0 || column >= columns) {
+			throw new IndexOutOfBoundsException("Well (" + row + ", " + column + ") outside " + rows + "x" + columns + " plate");
+		}
+	}
+	
+	private void checkRange(int row, int column, int height, int width) {
+		if(row < 0 || column < 0 || height < 0 || width < 0 || row + height > rows || column + width > columns) {
+			throw new IndexOutOfBoundsException("Block (" + row + ", " + column + ") " + height + "x" + width + " outside " + rows + "x" + columns + " plate");
+		}
+	}
+}
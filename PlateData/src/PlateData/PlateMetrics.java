@@ -0,0 +1,291 @@
+package PlateData;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * PlateMetrics times each pipeline stage, file open, workbook parse, cell extraction, averaging, fitting,
+ * normalization and output, into a latency histogram per stage, and counts plates, wells and bytes read.
+ * Each stage is also written as a StageEvent while a Java Flight Recorder recording is running.
+ * 
+ * Metrics are off by default, turned on with setEnabled(true) or -DPlateData.metrics=true. When metrics are
+ * off and no recording is running a stage costs two volatile reads and returns a shared timer that does
+ * nothing, so instrumentation can stay in the code.
+ * 
+ * try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.AVERAGING)){
+ * 		...
+ * }
+ * System.out.println(PlateMetrics.snapshot());
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class PlateMetrics {
+	private static final LatencyHistogram[] STAGES = new LatencyHistogram[PipelineStage.values().length];
+	private static final LongAdder PLATES = new LongAdder();
+	private static final LongAdder WELLS = new LongAdder();
+	private static final LongAdder BYTES = new LongAdder();
+	private static final Timer NOOP = new Timer(null, false, false);
+	
+	private static volatile boolean enabled = Boolean.getBoolean("PlateData.metrics");
+	private static volatile boolean recording = false;
+	private static volatile long startNanos = System.nanoTime();
+	
+	static {
+		for(int i = 0; i < STAGES.length; i++) {
+			STAGES[i] = new LatencyHistogram();
+		}
+		
+		// Track whether any recording is running so events are only built when they can be written
+		FlightRecorder.addListener(new FlightRecorderListener() {
+			@Override
+			public void recorderInitialized(FlightRecorder recorder) {
+				updateRecording();
+			}
+			
+			@Override
+			public void recordingStateChanged(Recording changed) {
+				updateRecording();
+			}
+		});
+	}
+	
+	private PlateMetrics() {
+	}
+	
+	private static void updateRecording() {
+		boolean running = false;
+		if(FlightRecorder.isInitialized()) {
+			for(Recording r: FlightRecorder.getFlightRecorder().getRecordings()) {
+				running |= (r.getState() == RecordingState.RUNNING);
+			}
+		}
+		recording = running;
+	}
+	
+	/**
+	 * Turns histograms and counters on or off. Turning them on restarts the clock for rates.
+	 * 
+	 * @param on
+	 */
+	public static void setEnabled(boolean on) {
+		if(on && !enabled) {
+			startNanos = System.nanoTime();
+		}
+		enabled = on;
+	}
+	
+	/**
+	 * Returns true if histograms and counters are being kept.
+	 * 
+	 * @return enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Starts timing a stage. Close the timer, usually with try-with-resources, when the stage ends.
+	 * 
+	 * @param stage
+	 * @return timer, a shared one doing nothing when metrics are off and JFR is not recording
+	 */
+	public static Timer start(PipelineStage stage) {
+		boolean metrics = enabled;
+		boolean events = recording;
+		if(!metrics && !events) {
+			return NOOP;
+		}
+		return new Timer(stage, metrics, events);
+	}
+	
+	/**
+	 * Counts a plate read and its wells.
+	 * 
+	 * @param wells
+	 */
+	public static void recordPlate(long wells) {
+		if(enabled) {
+			PLATES.increment();
+			WELLS.add(wells);
+		}
+	}
+	
+	/**
+	 * Counts bytes read from plate files.
+	 * 
+	 * @param bytes
+	 */
+	public static void recordBytes(long bytes) {
+		if(enabled) {
+			BYTES.add(bytes);
+		}
+	}
+	
+	/**
+	 * Returns latency histogram of a stage.
+	 * 
+	 * @param stage
+	 * @return histogram
+	 */
+	public static LatencyHistogram getHistogram(PipelineStage stage) {
+		return STAGES[stage.ordinal()];
+	}
+	
+	/**
+	 * Returns plates read since metrics were turned on or reset.
+	 * 
+	 * @return plates
+	 */
+	public static long getPlates() {
+		return PLATES.sum();
+	}
+	
+	/**
+	 * Returns wells read since metrics were turned on or reset.
+	 * 
+	 * @return wells
+	 */
+	public static long getWells() {
+		return WELLS.sum();
+	}
+	
+	/**
+	 * Returns bytes of plate files read since metrics were turned on or reset.
+	 * 
+	 * @return bytes
+	 */
+	public static long getBytesRead() {
+		return BYTES.sum();
+	}
+	
+	/**
+	 * Returns plates read per second since metrics were turned on or reset.
+	 * 
+	 * @return plates per second
+	 */
+	public static double getPlatesPerSecond() {
+		return PLATES.sum() / elapsedSeconds();
+	}
+	
+	/**
+	 * Returns wells read per second since metrics were turned on or reset.
+	 * 
+	 * @return wells per second
+	 */
+	public static double getWellsPerSecond() {
+		return WELLS.sum() / elapsedSeconds();
+	}
+	
+	/**
+	 * Clears histograms and counters and restarts the clock for rates.
+	 */
+	public static void reset() {
+		for(LatencyHistogram h: STAGES) {
+			h.reset();
+		}
+		PLATES.reset();
+		WELLS.reset();
+		BYTES.reset();
+		startNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Returns a text table of throughput and per stage latency, times in milliseconds.
+	 * 
+	 * @return snapshot
+	 */
+	public static String snapshot() {
+		StringBuilder sb = new StringBuilder();
+		double seconds = elapsedSeconds();
+		
+		sb.append(String.format("PlateData metrics over %.1f s%n", seconds));
+		sb.append(String.format("plates %d (%.1f/s), wells %d (%.1f/s), bytes read %d (%.1f MB/s)%n",
+				PLATES.sum(), PLATES.sum() / seconds, WELLS.sum(), WELLS.sum() / seconds, BYTES.sum(), BYTES.sum() / seconds / 1e6));
+		sb.append(String.format("%-16s %8s %10s %10s %10s %10s %10s %12s%n", "stage", "count", "mean", "p50", "p90", "p99", "max", "total"));
+		
+		for(PipelineStage stage: PipelineStage.values()) {
+			LatencyHistogram h = STAGES[stage.ordinal()];
+			sb.append(String.format("%-16s %8d %10.3f %10.3f %10.3f %10.3f %10.3f %12.3f%n", stage, h.getCount(),
+					h.getMeanNanos() / 1e6, h.getPercentileNanos(0.5) / 1e6, h.getPercentileNanos(0.9) / 1e6,
+					h.getPercentileNanos(0.99) / 1e6, h.getMaxNanos() / 1e6, h.getTotalNanos() / 1e6));
+		}
+		return sb.toString();
+	}
+	
+	private static double elapsedSeconds() {
+		return Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+	}
+	
+	/**
+	 * Times one run of a stage, recorded on close. Not thread safe, each stage run gets its own timer.
+	 */
+	public static final class Timer implements AutoCloseable {
+		private final PipelineStage stage;
+		private final boolean metrics;
+		private final StageEvent event;
+		private final long start;
+		private long wells;
+		private long bytes;
+		
+		private Timer(PipelineStage stage, boolean metrics, boolean events) {
+			this.stage = stage;
+			this.metrics = metrics;
+			this.event = events ? new StageEvent() : null;
+			if(event != null) {
+				event.begin();
+			}
+			this.start = metrics ? System.nanoTime() : 0;
+		}
+		
+		/**
+		 * Sets wells handled by stage, written to the JFR event.
+		 * 
+		 * @param count
+		 * @return this timer
+		 */
+		public Timer wells(long count) {
+			if(event != null) {
+				wells = count;
+			}
+			return this;
+		}
+		
+		/**
+		 * Sets bytes handled by stage, written to the JFR event.
+		 * 
+		 * @param count
+		 * @return this timer
+		 */
+		public Timer bytes(long count) {
+			if(event != null) {
+				bytes = count;
+			}
+			return this;
+		}
+		
+		/**
+		 * Ends stage, recording its duration.
+		 */
+		@Override
+		public void close() {
+			if(metrics) {
+				STAGES[stage.ordinal()].record(System.nanoTime() - start);
+			}
+			if(event != null) {
+				event.end();
+				if(event.shouldCommit()) {
+					event.stage = stage.name();
+					event.wells = wells;
+					event.bytes = bytes;
+					event.commit();
+				}
+			}
+		}
+	}
+}
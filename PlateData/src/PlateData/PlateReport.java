@@ -0,0 +1,260 @@
+package PlateData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * PlateReport writes analysed plates to an Excel report using a streaming workbook. Only the last rowWindow
+ * rows of each sheet are held in memory, older rows are flushed to compressed temporary files, so a report
+ * of one plate or of a whole batch uses the same memory. Rows can only be appended, each sheet is started
+ * with a header row the first time it is written to.
+ * 
+ * Sheets written are BCA (sample names, averages, concentrations and load volumes), BCA Fit (slope and
+ * intercept of the standard curve), CTG (normalized data sets) and Errors (files a batch could not analyse).
+ * The workbook is written to the output stream on close, the stream itself is left open.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateReport implements Closeable {
+	public static final int DEFAULT_ROW_WINDOW = 100;
+	
+	private static final String BCA_SHEET = "BCA";
+	private static final String FIT_SHEET = "BCA Fit";
+	private static final String CTG_SHEET = "CTG";
+	private static final String ERROR_SHEET = "Errors";
+	
+	private final OutputStream out;
+	private final SXSSFWorkbook workbook;
+	private final CellStyle headerStyle;
+	private boolean closed;
+	
+	/**
+	 * Creates report written to out on close, holding the default 100 rows per sheet in memory.
+	 * 
+	 * @param out destination of workbook, not closed by this report
+	 */
+	public PlateReport(OutputStream out) {
+		this(out, DEFAULT_ROW_WINDOW);
+	}
+	
+	/**
+	 * Creates report written to out on close.
+	 * 
+	 * @param out destination of workbook, not closed by this report
+	 * @param rowWindow rows per sheet kept in memory before flushing to temporary file
+	 */
+	public PlateReport(OutputStream out, int rowWindow) {
+		if(rowWindow < 1) {
+			throw new IllegalArgumentException("rowWindow must be at least 1");
+		}
+		this.out = out;
+		
+		workbook = new SXSSFWorkbook(rowWindow);
+		workbook.setCompressTempFiles(true);
+		
+		// One shared style, styles are workbook wide and must not be created per cell
+		Font bold = workbook.createFont();
+		bold.setBold(true);
+		headerStyle = workbook.createCellStyle();
+		headerStyle.setFont(bold);
+	}
+	
+	/**
+	 * Writes a whole batch, BCA or CTG results in file order followed by any errors.
+	 * 
+	 * @param batch result of PlateBatch
+	 */
+	public void addBatch(BatchResult batch) {
+		for(Map.Entry<Path, PlateData> e: batch.getResults().entrySet()) {
+			add(e.getKey().getFileName().toString(), e.getValue());
+		}
+		for(Map.Entry<Path, Exception> e: batch.getErrors().entrySet()) {
+			addError(e.getKey().getFileName().toString(), e.getValue());
+		}
+	}
+	
+	/**
+	 * Writes a BCAData or CTGData object, other PlateData objects have nothing to report.
+	 * 
+	 * @param source label for rows, usually file name
+	 * @param plate
+	 */
+	public void add(String source, PlateData plate) {
+		if(plate instanceof BCAData) {
+			addBCA(source, (BCAData) plate);
+		}else if(plate instanceof CTGData) {
+			addCTG(source, (CTGData) plate);
+		}
+	}
+	
+	/**
+	 * Writes one row per sample with name, average absorbance, concentration and load volume,
+	 * then the standard curve to BCA Fit.
+	 * 
+	 * @param source label for rows, usually file name
+	 * @param bca
+	 */
+	public void addBCA(String source, BCAData bca) {
+		SXSSFSheet sheet = sheet(BCA_SHEET, "Source", "Sample", "Average Absorbance", "Concentration (ug/uL)", "Load Volume (uL)");
+		
+		DoubleColumn.View averages = bca.getSampleAvgColumn();
+		DoubleColumn.View concentrations = bca.getConcentrationColumn();
+		DoubleColumn.View loadVolumes = bca.getLoadVolumeColumn();
+		ArrayList<String> names = bca.getSampleNames();
+		
+		for(int i = 0; i < loadVolumes.size(); i++) {
+			Row row = sheet.createRow(sheet.getLastRowNum() + 1);
+			row.createCell(0).setCellValue(source);
+			row.createCell(1).setCellValue(i < names.size() ? names.get(i) : "");
+			row.createCell(2).setCellValue(averages.get(i));
+			row.createCell(3).setCellValue(concentrations.get(i));
+			row.createCell(4).setCellValue(loadVolumes.get(i));
+		}
+		
+		SXSSFSheet fit = sheet(FIT_SHEET, "Source", "Slope", "Intercept", "Specified ug", "Replicates");
+		Row row = fit.createRow(fit.getLastRowNum() + 1);
+		row.createCell(0).setCellValue(source);
+		row.createCell(1).setCellValue(bca.getSlope());
+		row.createCell(2).setCellValue(bca.getIntercept());
+		row.createCell(3).setCellValue(bca.getSpecifiedUg());
+		row.createCell(4).setCellValue(bca.getReplicateNum().toString());
+	}
+	
+	/**
+	 * Writes normalized data sets, one row per plate row with the data set name and control average.
+	 * 
+	 * @param source label for rows, usually file name
+	 * @param ctg
+	 */
+	public void addCTG(String source, CTGData ctg) {
+		ArrayList<double[][]> dataSets = ctg.getDataSets();
+		ArrayList<Double> controlAverages = ctg.getDataSetControlAverages();
+		ArrayList<String> names = ctg.getDataSetNames();
+		String[] labels = ctg.getColumnLabels();
+		
+		int columns = dataSets.isEmpty() ? labels.length : dataSets.get(0)[0].length;	// Format is null for plates of a non-standard size
+		String[] header = new String[4 + columns];
+		header[0] = "Source";
+		header[1] = "Data Set";
+		header[2] = "Control Average";
+		header[3] = "Row";
+		for(int k = 0; k < columns; k++) {
+			header[4 + k] = (k < labels.length) ? labels[k] : Integer.toString(k + 1);
+		}
+		SXSSFSheet sheet = sheet(CTG_SHEET, header);
+		
+		for(int i = 0; i < dataSets.size(); i++) {
+			double[][] set = dataSets.get(i);
+			String name = (names != null && i < names.size()) ? names.get(i) : "Data Set " + (i + 1);
+			
+			for(int r = 0; r < set.length; r++) {
+				Row row = sheet.createRow(sheet.getLastRowNum() + 1);
+				row.createCell(0).setCellValue(source);
+				row.createCell(1).setCellValue(name);
+				row.createCell(2).setCellValue(controlAverages.get(i));
+				row.createCell(3).setCellValue(r + 1);
+				for(int k = 0; k < set[r].length; k++) {
+					row.createCell(4 + k).setCellValue(set[r][k]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Writes a file that could not be analysed with the exception message.
+	 * 
+	 * @param source label for row, usually file name
+	 * @param error
+	 */
+	public void addError(String source, Exception error) {
+		SXSSFSheet sheet = sheet(ERROR_SHEET, "Source", "Error");
+		
+		Row row = sheet.createRow(sheet.getLastRowNum() + 1);
+		row.createCell(0).setCellValue(source);
+		row.createCell(1).setCellValue(String.valueOf(error));
+	}
+	
+	/**
+	 * Writes numbers down one column of a sheet starting at the first row. Sheets before 
+	 * sheetIndex are created blank if needed. As rows are streamed each sheet can only 
+	 * be given one column this way.
+	 * 
+	 * @param sheetIndex zero based sheet
+	 * @param column zero based column
+	 * @param values
+	 */
+	public void addColumn(int sheetIndex, int column, List<? extends Number> values) {
+		while(workbook.getNumberOfSheets() <= sheetIndex) {
+			workbook.createSheet();
+		}
+		SXSSFSheet sheet = workbook.getSheetAt(sheetIndex);
+		
+		for(int i = 0; i < values.size(); i++) {
+			Row row = sheet.createRow(i);
+			Number n = values.get(i);
+			if(n != null) {
+				row.createCell(column).setCellValue(n.doubleValue());
+			}
+		}
+	}
+	
+	/**
+	 * Returns named sheet, creating it with a header row on first use.
+	 */
+	private SXSSFSheet sheet(String name, String... header) {
+		SXSSFSheet sheet = workbook.getSheet(name);
+		if(sheet != null) {
+			return sheet;
+		}
+		
+		sheet = workbook.createSheet(name);
+		Row row = sheet.createRow(0);
+		for(int i = 0; i < header.length; i++) {
+			Cell cell = row.createCell(i);
+			cell.setCellValue(header[i]);
+			cell.setCellStyle(headerStyle);
+		}
+		return sheet;
+	}
+	
+	/**
+	 * Writes workbook to output stream and deletes temporary files. An empty report
+	 * is written with a single blank sheet as Excel will not open a workbook without one.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException{
+		if(closed) {
+			return;
+		}
+		closed = true;
+		
+		PlateMetrics.Timer output = PlateMetrics.start(PipelineStage.OUTPUT);
+		try {
+			if(workbook.getNumberOfSheets() == 0) {
+				workbook.createSheet();
+			}
+			workbook.write(out);
+			out.flush();
+		}finally {
+			output.close();
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+}
@@ -0,0 +1,543 @@
+package PlateData;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * PlateServer analyses plate files sent over HTTP from one warm JVM, using the JDK's built in server.
+ * Each request runs on its own thread from PlateExecutors, virtual when the JVM has them, and the upload is
+ * read straight into PlateSheetReader, or PlateTextReader for .csv, .tsv and .txt exports, detected from the
+ * first bytes of the body. At most maxConcurrent uploads are analysed at once, others wait up to the queue
+ * timeout and then get 503 with Retry-After. Uploads that cannot be parsed, and bad headers or parameters,
+ * get 400; any other failure is a fault in the server and gets 500.
+ * 
+ * POST /bca     plate workbook or text export, returns samples with averages, concentrations and load volumes
+ * POST /ctg     returns normalized data sets with control averages
+ *               query parameters: specifiedUg, replicates (DUPLICATE, TRIPLICATE), format (WELLS_96, WELLS_384,
+ *               WELLS_1536), names (comma separated sample or data set names), outliers (NONE, FLAG, REJECT),
+ *               outlierTest (GRUBBS, DIXON)
+ * GET  /health  JSON status, load and per stage latency
+ * GET  /metrics PlateMetrics.snapshot() as text
+ * 
+ * curl --data-binary @plate.xlsx "http://localhost:8080/bca?specifiedUg=30"
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateServer implements Closeable {
+	public static final long DEFAULT_MAX_UPLOAD = 64L * 1024 * 1024;
+	public static final long DEFAULT_QUEUE_TIMEOUT = 5000;
+	
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final AnalysisOptions defaults;
+	private final Semaphore permits;
+	private final int maxConcurrent;
+	private final long queueTimeoutMillis;
+	private final long maxUploadBytes;
+	private final long startNanos = System.nanoTime();
+	
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	
+	/**
+	 * Creates server allowing 64 MB uploads and waiting up to 5 seconds for a free slot. Call start to begin.
+	 * 
+	 * @param address port and interface to listen on, port 0 picks a free one
+	 * @param defaults analysis parameters used where a request does not give its own
+	 * @param maxConcurrent uploads analysed at once
+	 * @throws IOException if address cannot be bound
+	 */
+	public PlateServer(InetSocketAddress address, AnalysisOptions defaults, int maxConcurrent) throws IOException{
+		this(address, defaults, maxConcurrent, DEFAULT_QUEUE_TIMEOUT, DEFAULT_MAX_UPLOAD);
+	}
+	
+	/**
+	 * Creates server. Call start to begin.
+	 * 
+	 * @param address port and interface to listen on, port 0 picks a free one
+	 * @param defaults analysis parameters used where a request does not give its own
+	 * @param maxConcurrent uploads analysed at once
+	 * @param queueTimeoutMillis time an upload waits for a free slot before 503
+	 * @param maxUploadBytes larger uploads get 413
+	 * @throws IOException if address cannot be bound
+	 */
+	public PlateServer(InetSocketAddress address, AnalysisOptions defaults, int maxConcurrent, long queueTimeoutMillis, long maxUploadBytes) throws IOException{
+		if(maxConcurrent < 1) {
+			throw new IllegalArgumentException("maxConcurrent must be at least 1");
+		}
+		this.defaults = defaults;
+		this.maxConcurrent = maxConcurrent;
+		this.permits = new Semaphore(maxConcurrent);
+		this.queueTimeoutMillis = queueTimeoutMillis;
+		this.maxUploadBytes = maxUploadBytes;
+		
+		server = HttpServer.create(address, 0);
+		executor = PlateExecutors.newPerTaskExecutor("PlateServer");
+		server.setExecutor(executor);
+		
+		server.createContext("/bca", exchange -> analyse(exchange, AssayType.BCA));
+		server.createContext("/ctg", exchange -> analyse(exchange, AssayType.CTG));
+		server.createContext("/health", this::health);
+		server.createContext("/metrics", this::metrics);
+	}
+	
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start() {
+		server.start();
+	}
+	
+	/**
+	 * Stops accepting requests, giving ones in progress up to a second to finish.
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Returns port server is listening on.
+	 * 
+	 * @return port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+	
+	/**
+	 * Returns number of uploads being analysed now.
+	 * 
+	 * @return in flight
+	 */
+	public int getInFlight() {
+		return maxConcurrent - permits.availablePermits();
+	}
+	
+	/**
+	 * Handles POST /bca and /ctg, holding a slot while the upload is read and analysed.
+	 */
+	private void analyse(HttpExchange ex, AssayType assayType) throws IOException{
+		try {
+			if(!"POST".equals(ex.getRequestMethod())) {
+				ex.getResponseHeaders().set("Allow", "POST");
+				sendError(ex, 405, "Use POST with the plate file as the request body");
+				return;
+			}
+			requests.increment();
+			
+			String length = ex.getRequestHeaders().getFirst("Content-Length");
+			if(length != null) {
+				long bytes;
+				try {
+					bytes = Long.parseLong(length.trim());
+				} catch (NumberFormatException e) {
+					sendError(ex, 400, "Content-Length is not a number: " + length);
+					return;
+				}
+				if(bytes > maxUploadBytes) {
+					sendError(ex, 413, "Upload larger than " + maxUploadBytes + " bytes");
+					return;
+				}
+			}
+			
+			AnalysisOptions options;
+			try {
+				options = options(ex.getRequestURI().getRawQuery());
+			} catch (IllegalArgumentException e) {
+				sendError(ex, 400, e.getMessage());
+				return;
+			}
+			
+			if(!permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				rejected.increment();
+				ex.getResponseHeaders().set("Retry-After", "1");
+				sendError(ex, 503, "Server busy, " + maxConcurrent + " uploads in progress");
+				return;
+			}
+			
+			String json;
+			try(InputStream body = new LimitedInputStream(ex.getRequestBody(), maxUploadBytes)){
+				PlateData data = read(body, assayType, options);
+				json = (assayType == AssayType.CTG) ? toJson((CTGData) data) : toJson((BCAData) data);
+			} catch (UploadTooLargeException e) {
+				failed.increment();
+				sendError(ex, 413, e.getMessage());
+				return;
+			} catch (IOException | IllegalArgumentException e) {
+				failed.increment();
+				sendError(ex, 400, "Unable to analyse plate: " + e.getMessage());
+				return;
+			} catch (Exception e) {
+				failed.increment();
+				System.err.println("Error analysing " + ex.getRequestURI() + ": " + e);
+				sendError(ex, 500, "Internal error analysing plate");
+				return;
+			} finally {
+				permits.release();
+			}
+			send(ex, 200, "application/json", json);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			ex.close();
+		}
+	}
+	
+	/**
+	 * Reads upload as a workbook if it starts with a zip signature, otherwise as a text export.
+	 */
+	private static PlateData read(InputStream body, AssayType assayType, AnalysisOptions options) throws Exception{
+		PushbackInputStream in = new PushbackInputStream(body, 2);
+		byte[] magic = new byte[2];
+		int n = in.readNBytes(magic, 0, 2);
+		in.unread(magic, 0, n);
+		
+		boolean workbook = (n == 2 && magic[0] == 'P' && magic[1] == 'K');
+		if(assayType == AssayType.CTG) {
+			List<PlateMatrix> plates = workbook ? PlateSheetReader.readPlates(in, options.getPlateFormat())
+					: PlateTextReader.readPlates(ByteBuffer.wrap(in.readAllBytes()), options.getPlateFormat());
+			if(plates.isEmpty()) {
+				throw new IOException("No plate values found");
+			}
+			return new CTGData(plates, options.getSampleNames());
+		}
+		
+		PlateMatrix plate;
+		if(workbook) {
+			plate = PlateSheetReader.readFirstPlate(in, options.getPlateFormat());
+		}else {
+			List<PlateMatrix> plates = new ArrayList<>(1);
+			PlateTextReader.read(ByteBuffer.wrap(in.readAllBytes()), options.getPlateFormat(), 1, (index, values) -> plates.add(values));
+			if(plates.isEmpty()) {
+				throw new IOException("No plate values found");
+			}
+			plate = plates.get(0);
+		}
+		return PlateBatch.configure(new BCAData(plate, options.getSpecifiedUg(), options.getReplicateNum(), options.getSampleNames()), options);
+	}
+	
+	/**
+	 * Returns defaults overridden by query parameters.
+	 */
+	private AnalysisOptions options(String rawQuery) {
+		AnalysisOptions options = new AnalysisOptions()
+				.setSpecifiedUg(defaults.getSpecifiedUg())
+				.setReplicateNum(defaults.getReplicateNum())
+				.setSampleNames(defaults.getSampleNames())
+				.setPlateFormat(defaults.getPlateFormat())
+				.setOutliers(defaults.getOutlierPolicy(), defaults.getOutlierTest(), defaults.getOutlierCVLimit());
+		if(rawQuery == null) {
+			return options;
+		}
+		
+		for(Map.Entry<String, String> e: parseQuery(rawQuery).entrySet()) {
+			String value = e.getValue();
+			switch(e.getKey()) {
+			case "specifiedUg":
+				try {
+					options.setSpecifiedUg(Integer.parseInt(value));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("specifiedUg must be a whole number of ug");
+				}
+				break;
+			case "replicates":
+				options.setReplicateNum(ReplicateNum.valueOf(value.toUpperCase()));
+				break;
+			case "format":
+				options.setPlateFormat(PlateFormat.valueOf(value.toUpperCase()));
+				break;
+			case "outliers":
+				options.setOutliers(OutlierPolicy.valueOf(value.toUpperCase()), options.getOutlierTest(), options.getOutlierCVLimit());
+				break;
+			case "outlierTest":
+				options.setOutliers(options.getOutlierPolicy(), OutlierTest.valueOf(value.toUpperCase()), options.getOutlierCVLimit());
+				break;
+			case "names":
+				options.setSampleNames(new ArrayList<>(Arrays.asList(value.split(","))));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown parameter " + e.getKey());
+			}
+		}
+		return options;
+	}
+	
+	private static Map<String, String> parseQuery(String rawQuery) {
+		Map<String, String> params = new HashMap<>();
+		for(String pair: rawQuery.split("&")) {
+			if(pair.isEmpty()) {
+				continue;
+			}
+			int eq = pair.indexOf('=');
+			String key = URLDecoder.decode((eq < 0) ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+			String value = (eq < 0) ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+			params.put(key, value);
+		}
+		return params;
+	}
+	
+	/**
+	 * Handles GET /health.
+	 */
+	private void health(HttpExchange ex) throws IOException{
+		try {
+			StringBuilder sb = new StringBuilder(1024);
+			sb.append("{\"status\":\"UP\"");
+			sb.append(",\"virtualThreads\":").append(PlateExecutors.hasVirtualThreads());
+			sb.append(",\"uptimeSeconds\":").append((System.nanoTime() - startNanos) / 1_000_000_000L);
+			sb.append(",\"inFlight\":").append(getInFlight());
+			sb.append(",\"maxConcurrent\":").append(maxConcurrent);
+			sb.append(",\"requests\":").append(requests.sum());
+			sb.append(",\"rejected\":").append(rejected.sum());
+			sb.append(",\"failed\":").append(failed.sum());
+			sb.append(",\"metrics\":{\"enabled\":").append(PlateMetrics.isEnabled());
+			sb.append(",\"plates\":").append(PlateMetrics.getPlates());
+			sb.append(",\"wells\":").append(PlateMetrics.getWells());
+			sb.append(",\"bytesRead\":").append(PlateMetrics.getBytesRead());
+			sb.append(",\"stages\":{");
+			for(PipelineStage stage: PipelineStage.values()) {
+				LatencyHistogram h = PlateMetrics.getHistogram(stage);
+				if(stage.ordinal() > 0) {
+					sb.append(',');
+				}
+				sb.append('"').append(stage).append("\":{\"count\":").append(h.getCount());
+				sb.append(",\"p50Millis\":");
+				appendNumber(sb, h.getPercentileNanos(0.5) / 1e6);
+				sb.append(",\"p99Millis\":");
+				appendNumber(sb, h.getPercentileNanos(0.99) / 1e6);
+				sb.append('}');
+			}
+			sb.append("}}}");
+			send(ex, 200, "application/json", sb.toString());
+		} finally {
+			ex.close();
+		}
+	}
+	
+	/**
+	 * Handles GET /metrics.
+	 */
+	private void metrics(HttpExchange ex) throws IOException{
+		try {
+			send(ex, 200, "text/plain; charset=utf-8", PlateMetrics.snapshot());
+		} finally {
+			ex.close();
+		}
+	}
+	
+	/**
+	 * Returns BCA results as JSON.
+	 */
+	static String toJson(BCAData bca) {
+		DoubleColumn.View averages = bca.getSampleAvgColumn();
+		DoubleColumn.View concentrations = bca.getConcentrationColumn();
+		DoubleColumn.View loadVolumes = bca.getLoadVolumeColumn();
+		ArrayList<String> names = bca.getSampleNames();
+		StringBuilder sb = new StringBuilder(128 + loadVolumes.size() * 96);
+		
+		sb.append("{\"assay\":\"BCA\",\"specifiedUg\":").append(bca.getSpecifiedUg());
+		sb.append(",\"replicates\":\"").append(bca.getReplicateNum()).append('"');
+		sb.append(",\"slope\":");
+		appendNumber(sb, bca.getSlope());
+		sb.append(",\"intercept\":");
+		appendNumber(sb, bca.getIntercept());
+		sb.append(",\"rSquared\":");
+		appendNumber(sb, bca.getStandardCurve().getRSquared());
+		sb.append(",\"samples\":[");
+		for(int i = 0; i < loadVolumes.size(); i++) {
+			if(i > 0) {
+				sb.append(',');
+			}
+			sb.append("{\"name\":");
+			appendString(sb, i < names.size() ? names.get(i) : "");
+			sb.append(",\"averageAbsorbance\":");
+			appendNumber(sb, averages.get(i));
+			sb.append(",\"concentration\":");
+			appendNumber(sb, concentrations.get(i));
+			sb.append(",\"loadVolume\":");
+			appendNumber(sb, loadVolumes.get(i));
+			sb.append('}');
+		}
+		return sb.append("]}").toString();
+	}
+	
+	/**
+	 * Returns normalized CTG data sets as JSON.
+	 */
+	static String toJson(CTGData ctg) {
+		ArrayList<double[][]> dataSets = ctg.getDataSets();
+		ArrayList<Double> controlAverages = ctg.getDataSetControlAverages();
+		ArrayList<String> names = ctg.getDataSetNames();
+		String[] labels = ctg.getColumnLabels();
+		StringBuilder sb = new StringBuilder(256 + dataSets.size() * 1024);
+		
+		sb.append("{\"assay\":\"CTG\",\"columnLabels\":[");
+		for(int k = 0; k < labels.length; k++) {
+			if(k > 0) {
+				sb.append(',');
+			}
+			appendString(sb, labels[k]);
+		}
+		sb.append("],\"dataSets\":[");
+		for(int i = 0; i < dataSets.size(); i++) {
+			double[][] set = dataSets.get(i);
+			if(i > 0) {
+				sb.append(',');
+			}
+			sb.append("{\"name\":");
+			appendString(sb, (names != null && i < names.size()) ? names.get(i) : "Data Set " + (i + 1));
+			sb.append(",\"controlAverage\":");
+			appendNumber(sb, controlAverages.get(i));
+			sb.append(",\"values\":[");
+			for(int r = 0; r < set.length; r++) {
+				sb.append((r > 0) ? ",[" : "[");
+				for(int c = 0; c < set[r].length; c++) {
+					if(c > 0) {
+						sb.append(',');
+					}
+					appendNumber(sb, set[r][c]);
+				}
+				sb.append(']');
+			}
+			sb.append("]}");
+		}
+		return sb.append("]}").toString();
+	}
+	
+	/**
+	 * Appends a JSON number, null for NaN and infinities which JSON cannot hold.
+	 */
+	private static void appendNumber(StringBuilder sb, double value) {
+		if(Double.isNaN(value) || Double.isInfinite(value)) {
+			sb.append("null");
+		}else {
+			sb.append(value);
+		}
+	}
+	
+	private static void appendString(StringBuilder sb, String value) {
+		sb.append('"');
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			}else if(c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			}else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+	
+	private static void sendError(HttpExchange ex, int status, String message) throws IOException{
+		StringBuilder sb = new StringBuilder("{\"error\":");
+		appendString(sb, message);
+		send(ex, status, "application/json", sb.append('}').toString());
+	}
+	
+	private static void send(HttpExchange ex, int status, String contentType, String body) throws IOException{
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		ex.getResponseHeaders().set("Content-Type", contentType);
+		ex.sendResponseHeaders(status, bytes.length);
+		try(OutputStream out = ex.getResponseBody()){
+			out.write(bytes);
+		}
+	}
+	
+	/**
+	 * Upload stream failing once more than limit bytes have been read, for uploads without a Content-Length.
+	 * Bytes read are counted in PlateMetrics on close.
+	 */
+	private static final class LimitedInputStream extends FilterInputStream {
+		private final long limit;
+		private long read;
+		
+		LimitedInputStream(InputStream in, long limit) {
+			super(in);
+			this.limit = limit;
+		}
+		
+		@Override
+		public int read() throws IOException{
+			int b = super.read();
+			if(b >= 0) {
+				count(1);
+			}
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException{
+			int n = super.read(b, off, len);
+			if(n > 0) {
+				count(n);
+			}
+			return n;
+		}
+		
+		@Override
+		public void close() throws IOException{
+			PlateMetrics.recordBytes(read);
+			super.close();
+		}
+		
+		private void count(long n) throws IOException{
+			read += n;
+			if(read > limit) {
+				throw new UploadTooLargeException("Upload larger than " + limit + " bytes");
+			}
+		}
+	}
+	
+	private static final class UploadTooLargeException extends IOException {
+		private static final long serialVersionUID = 1L;
+		
+		UploadTooLargeException(String message) {
+			super(message);
+		}
+	}
+	
+	/**
+	 * Serves until the process is stopped, with metrics turned on.
+	 * 
+	 * @param args optional port, default 8080, and max concurrent uploads, default two per processor
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception{
+		int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8080;
+		int maxConcurrent = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+		
+		PlateMetrics.setEnabled(true);
+		PlateServer server = new PlateServer(new InetSocketAddress(port), new AnalysisOptions(), maxConcurrent);
+		Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+		server.start();
+		System.out.println("PlateServer listening on port " + server.getPort() + ", " + maxConcurrent + " concurrent uploads"
+				+ (PlateExecutors.hasVirtualThreads() ? " on virtual threads" : ""));
+	}
+}
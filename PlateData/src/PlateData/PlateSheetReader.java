@@ -0,0 +1,247 @@
+package PlateData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * PlateSheetReader reads plate values straight from the sheet XML of an .xlsx file using the POI event API
+ * instead of building a full XSSFWorkbook. Only the first sheet is parsed, only numeric cells inside the
+ * plate ranges (B2:M9 for a 96 well plate and every stacked plate below it) are kept, and parsing stops as soon as the last 
+ * requested plate has been read. Shared strings, styles and any other sheets are never loaded.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateSheetReader {
+	
+	/**
+	 * Reads the first 96 well plate of the first sheet.
+	 * 
+	 * @param file input stream of .xlsx file
+	 * @return plate values without labels
+	 * @throws IOException
+	 */
+	public static PlateMatrix readFirstPlate(InputStream file) throws IOException{
+		return readFirstPlate(file, PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Reads the first plate of the first sheet.
+	 * 
+	 * @param file input stream of .xlsx file
+	 * @param format plate geometry
+	 * @return plate values without labels
+	 * @throws IOException
+	 */
+	public static PlateMatrix readFirstPlate(InputStream file, PlateFormat format) throws IOException{
+		final PlateMatrix[] plate = new PlateMatrix[1];
+		
+		read(file, format, 1, (index, values) -> plate[0] = values);
+		
+		if(plate[0] == null) {
+			throw new IOException("No plate values found in first sheet");
+		}
+		return plate[0];
+	}
+	
+	/**
+	 * Reads every stacked plate in the first sheet.
+	 * 
+	 * @param file input stream of .xlsx file
+	 * @param format plate geometry
+	 * @return list of plates in sheet order
+	 * @throws IOException
+	 */
+	public static ArrayList<PlateMatrix> readPlates(InputStream file, PlateFormat format) throws IOException{
+		ArrayList<PlateMatrix> plates = new ArrayList<>();
+		
+		read(file, format, Integer.MAX_VALUE, (index, values) -> plates.add(values));
+		return plates;
+	}
+	
+	/**
+	 * Streams plates from the first sheet to handler, stopping after maxPlates plates 
+	 * or when no further plate starts.
+	 * 
+	 * @param file input stream of .xlsx file
+	 * @param format plate geometry
+	 * @param maxPlates number of plates to read
+	 * @param handler receives each plate as it is completed
+	 * @return number of plates read
+	 * @throws IOException
+	 */
+	public static int read(InputStream file, PlateFormat format, int maxPlates, PlateBlockHandler handler) throws IOException{
+		PlateBlockAssembler assembler = new PlateBlockAssembler(format, maxPlates, handler);
+		
+		OPCPackage pkg;
+		PlateMetrics.Timer parse = PlateMetrics.start(PipelineStage.WORKBOOK_PARSE);
+		try {
+			pkg = OPCPackage.open(file);
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to open workbook", e);
+		} finally {
+			parse.close();
+		}
+		
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			Iterator<InputStream> sheets = reader.getSheetsData();
+			if(!sheets.hasNext()) {
+				throw new IOException("Workbook has no sheets");
+			}
+			
+			try(InputStream sheet = sheets.next()){
+				parseSheet(sheet, assembler);
+			}
+		} catch (OpenXML4JException e) {
+			throw new IOException("Unable to read first sheet", e);
+		} finally {
+			pkg.revert();	// Read only, nothing to save
+		}
+		return assembler.getPlatesEmitted();
+	}
+	
+	/**
+	 * Runs SAX parser over one sheet XML stream feeding cells to assembler.
+	 * 
+	 * @param sheet sheet XML stream
+	 * @param assembler collects plate blocks
+	 * @throws IOException
+	 */
+	static void parseSheet(InputStream sheet, PlateBlockAssembler assembler) throws IOException{
+		PlateMetrics.Timer extraction = PlateMetrics.start(PipelineStage.CELL_EXTRACTION);
+		try {
+			XMLReader parser = SAXHelper.newXMLReader();
+			parser.setContentHandler(new SheetHandler(assembler));
+			parser.parse(new InputSource(sheet));
+		} catch (StopParsingException e) {
+			// All plates needed have been read
+		} catch (SAXException | ParserConfigurationException e) {
+			throw new IOException("Unable to parse sheet", e);
+		} finally {
+			extraction.close();
+		}
+		assembler.finish();
+	}
+	
+	/**
+	 * Converts cell reference such as "B2" into 0 based column index.
+	 */
+	static int columnFromReference(String ref) {
+		int column = 0;
+		for(int i = 0; i < ref.length(); i++) {
+			char c = ref.charAt(i);
+			if(c < 'A' || c > 'Z') {
+				break;
+			}
+			column = column * 26 + (c - 'A' + 1);
+		}
+		return column - 1;
+	}
+	
+	/**
+	 * Thrown from inside the SAX handler to stop reading the rest of the sheet.
+	 */
+	private static class StopParsingException extends SAXException {
+		private static final long serialVersionUID = 1L;
+	}
+	
+	/**
+	 * SAX handler pulling numeric values out of <row>/<c>/<v> elements of sheet XML. 
+	 * Cells with a type other than numeric (shared strings, inline strings, booleans, errors) are skipped.
+	 */
+	private static class SheetHandler extends DefaultHandler {
+		private final PlateBlockAssembler assembler;
+		private final StringBuilder value = new StringBuilder();
+		
+		private int rowIndex = -1;
+		private int columnIndex = -1;
+		private boolean numericCell;
+		private boolean inValue;
+		private boolean rowDeferred;	// Row would open a plate, started on its first numeric cell
+		
+		SheetHandler(PlateBlockAssembler assembler){
+			this.assembler = assembler;
+		}
+		
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+			switch(localName) {
+				case "row":
+					String r = attributes.getValue("r");
+					rowIndex = (r != null) ? Integer.parseInt(r) - 1 : rowIndex + 1;
+					columnIndex = -1;
+					
+					// An empty or formatted only row must not open an all zero plate
+					rowDeferred = assembler.opensBlock(rowIndex);
+					if(!rowDeferred && !assembler.startRow(rowIndex)) {
+						throw new StopParsingException();
+					}
+					break;
+				case "c":
+					String ref = attributes.getValue("r");
+					columnIndex = (ref != null) ? columnFromReference(ref) : columnIndex + 1;
+					String type = attributes.getValue("t");
+					numericCell = (type == null || "n".equals(type));
+					break;
+				case "v":
+					inValue = numericCell;
+					value.setLength(0);
+					break;
+				default:
+					break;
+			}
+		}
+		
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if(inValue) {
+				value.append(ch, start, length);
+			}
+		}
+		
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			switch(localName) {
+				case "v":
+					if(inValue && value.length() > 0) {
+						if(rowDeferred) {
+							rowDeferred = false;
+							if(!assembler.startRow(rowIndex)) {
+								throw new StopParsingException();
+							}
+						}
+						assembler.cell(rowIndex, columnIndex, Double.parseDouble(value.toString()));
+					}
+					inValue = false;
+					break;
+				case "row":
+					// No value in a row that would start a plate ends the plates, as an empty row does
+					if(rowDeferred || !assembler.endRow(rowIndex)) {
+						throw new StopParsingException();
+					}
+					break;
+				case "sheetData":
+					// Nothing after sheet data holds plate values
+					throw new StopParsingException();
+				default:
+					break;
+			}
+		}
+	}
+}
@@ -0,0 +1,351 @@
+package PlateData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * PlateTextReader reads plate reader CSV or TSV exports laid out like template.xlsx, a label row, then one 
+ * line per plate row starting with the row letter, stacked plates following after one blank line and one 
+ * label line. Bytes are parsed directly from a ByteBuffer, files are memory mapped, and numbers are 
+ * converted without creating a String per cell. Delimiter is taken from the first line, tab if it holds 
+ * a tab, semicolon if it holds more semicolons than commas, otherwise comma. Semicolon files use the
+ * European convention of a decimal comma, 0,045, and a decimal point is accepted as well. Fields that are
+ * not numbers, such as labels or quoted text, are skipped. A line with no number where a plate would
+ * start, such as a blank or all delimiter line after the last plate, ends the file.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateTextReader {
+	// Exact powers of ten, any double up to 2^53 multiplied or divided by one of these is correctly rounded
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	
+	/**
+	 * Returns true if file name ends in .csv, .tsv or .txt.
+	 * 
+	 * @param file
+	 * @return true for text plate exports
+	 */
+	public static boolean isTextFile(Path file) {
+		String name = file.getFileName().toString().toLowerCase();
+		return name.endsWith(".csv") || name.endsWith(".tsv") || name.endsWith(".txt");
+	}
+	
+	/**
+	 * Reads first 96 well plate of text file.
+	 * 
+	 * @param file .csv, .tsv or .txt plate file
+	 * @return plate values without labels
+	 * @throws IOException
+	 */
+	public static PlateMatrix readFirstPlate(Path file) throws IOException{
+		return readFirstPlate(file, PlateFormat.WELLS_96);
+	}
+	
+	/**
+	 * Reads first plate of text file.
+	 * 
+	 * @param file .csv, .tsv or .txt plate file
+	 * @param format plate geometry
+	 * @return plate values without labels
+	 * @throws IOException
+	 */
+	public static PlateMatrix readFirstPlate(Path file, PlateFormat format) throws IOException{
+		final PlateMatrix[] plate = new PlateMatrix[1];
+		
+		read(map(file), format, 1, (index, values) -> plate[0] = values);
+		
+		if(plate[0] == null) {
+			throw new IOException("No plate values found in " + file);
+		}
+		return plate[0];
+	}
+	
+	/**
+	 * Reads every stacked plate of text file.
+	 * 
+	 * @param file .csv, .tsv or .txt plate file
+	 * @param format plate geometry
+	 * @return plates in file order
+	 * @throws IOException
+	 */
+	public static ArrayList<PlateMatrix> readPlates(Path file, PlateFormat format) throws IOException{
+		return readPlates(map(file), format);
+	}
+	
+	/**
+	 * Reads every stacked plate from bytes of a text export.
+	 * 
+	 * @param data text bytes from position to limit, position is not changed
+	 * @param format plate geometry
+	 * @return plates in file order
+	 */
+	public static ArrayList<PlateMatrix> readPlates(ByteBuffer data, PlateFormat format) {
+		ArrayList<PlateMatrix> plates = new ArrayList<>();
+		
+		read(data, format, Integer.MAX_VALUE, (index, values) -> plates.add(values));
+		return plates;
+	}
+	
+	/**
+	 * Maps file read only, mapping stays valid after channel is closed.
+	 */
+	private static ByteBuffer map(Path file) throws IOException{
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.FILE_OPEN);
+				FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+			timer.bytes(channel.size());
+			PlateMetrics.recordBytes(channel.size());
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+	
+	/**
+	 * Streams plates from text bytes to handler, stopping after maxPlates plates or 
+	 * when no further plate starts.
+	 * 
+	 * @param data text bytes from position to limit, position is not changed
+	 * @param format plate geometry
+	 * @param maxPlates number of plates to read
+	 * @param handler receives each plate as it is completed
+	 * @return number of plates read
+	 */
+	public static int read(ByteBuffer data, PlateFormat format, int maxPlates, PlateBlockHandler handler) {
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.CELL_EXTRACTION)){
+			timer.bytes(data.remaining());
+			return readLines(data, new PlateBlockAssembler(format, maxPlates, handler));
+		}
+	}
+	
+	private static int readLines(ByteBuffer data, PlateBlockAssembler assembler) {
+		int position = data.position();
+		int limit = data.limit();
+		
+		// Skip UTF-8 byte order mark written by Excel
+		if(limit - position >= 3 && data.get(position) == (byte) 0xEF && data.get(position + 1) == (byte) 0xBB && data.get(position + 2) == (byte) 0xBF) {
+			position += 3;
+		}
+		
+		byte delimiter = detectDelimiter(data, position, limit);
+		byte decimalSeparator = (delimiter == ';') ? (byte) ',' : (byte) '.';
+		int row = 0;
+		
+		while(position < limit) {
+			int lineEnd = position;
+			while(lineEnd < limit && data.get(lineEnd) != '\n') {
+				lineEnd++;
+			}
+			int contentEnd = (lineEnd > position && data.get(lineEnd - 1) == '\r') ? lineEnd - 1 : lineEnd;
+			
+			// Trailing blank or delimiter only lines must not open an all zero plate
+			if(assembler.opensBlock(row) && !hasNumber(data, position, contentEnd, delimiter, decimalSeparator)) {
+				break;
+			}
+			if(!assembler.startRow(row)) {
+				return assembler.getPlatesEmitted();
+			}
+			
+			// Walk fields of line
+			int column = 0;
+			int fieldStart = position;
+			for(int i = position; i <= contentEnd; i++) {
+				if(i == contentEnd || data.get(i) == delimiter) {
+					parseField(data, fieldStart, i, row, column, decimalSeparator, assembler);
+					column++;
+					fieldStart = i + 1;
+				}
+			}
+			
+			if(!assembler.endRow(row)) {
+				return assembler.getPlatesEmitted();
+			}
+			
+			row++;
+			position = lineEnd + 1;
+		}
+		
+		assembler.finish();
+		return assembler.getPlatesEmitted();
+	}
+	
+	private static byte detectDelimiter(ByteBuffer data, int position, int limit) {
+		int semicolons = 0;
+		int commas = 0;
+		
+		for(int i = position; i < limit && data.get(i) != '\n'; i++) {
+			byte b = data.get(i);
+			if(b == '\t') {
+				return '\t';
+			}
+			if(b == ';') {
+				semicolons++;
+			}else if(b == ',') {
+				commas++;
+			}
+		}
+		return (semicolons > commas) ? (byte) ';' : (byte) ',';
+	}
+	
+	/**
+	 * Returns true if any field of the line from start to end is a number.
+	 */
+	private static boolean hasNumber(ByteBuffer data, int start, int end, byte delimiter, byte decimalSeparator) {
+		int fieldStart = start;
+		for(int i = start; i <= end; i++) {
+			if(i == end || data.get(i) == delimiter) {
+				if(!Double.isNaN(parseTrimmed(data, fieldStart, i, decimalSeparator))) {
+					return true;
+				}
+				fieldStart = i + 1;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Parses field as a number and passes it to assembler, fields that are not numbers are ignored.
+	 */
+	private static void parseField(ByteBuffer data, int start, int end, int row, int column, byte decimalSeparator, PlateBlockAssembler assembler) {
+		double value = parseTrimmed(data, start, end, decimalSeparator);
+		if(!Double.isNaN(value)) {
+			assembler.cell(row, column, value);
+		}
+	}
+	
+	/**
+	 * Parses field with surrounding spaces trimmed.
+	 * 
+	 * @return value or NaN if field is empty or not a number
+	 */
+	private static double parseTrimmed(ByteBuffer data, int start, int end, byte decimalSeparator) {
+		while(start < end && data.get(start) == ' ') {
+			start++;
+		}
+		while(end > start && data.get(end - 1) == ' ') {
+			end--;
+		}
+		if(start == end) {
+			return Double.NaN;
+		}
+		return parseDouble(data, start, end, decimalSeparator);
+	}
+	
+	/**
+	 * Parses decimal number such as -0.045, 12 or 3.0E-3 from bytes, see parseDouble with a separator.
+	 * 
+	 * @return value or NaN if field is not a number
+	 */
+	static double parseDouble(ByteBuffer data, int start, int end) {
+		return parseDouble(data, start, end, (byte) '.');
+	}
+	
+	/**
+	 * Parses decimal number such as -0.045, 12 or 3.0E-3 from bytes. Numbers with up to 15-16 significant
+	 * digits and a small exponent, which covers plate reader output, are converted exactly with one multiply
+	 * or divide. Anything longer falls back to Double.parseDouble.
+	 * 
+	 * @param decimalSeparator ',' for decimal comma exports, a '.' is accepted either way
+	 * @return value or NaN if field is not a number
+	 */
+	static double parseDouble(ByteBuffer data, int start, int end, byte decimalSeparator) {
+		int i = start;
+		boolean negative = false;
+		
+		byte b = data.get(i);
+		if(b == '-' || b == '+') {
+			negative = (b == '-');
+			i++;
+		}
+		
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean anyDigit = false;
+		boolean exact = true;
+		
+		// Integer part
+		while(i < end && (b = data.get(i)) >= '0' && b <= '9') {
+			anyDigit = true;
+			if(mantissa < MAX_EXACT_MANTISSA / 10 || digits == 0) {
+				mantissa = mantissa * 10 + (b - '0');
+				if(mantissa != 0) {
+					digits++;
+				}
+			}else {
+				exact = false;
+				exponent++;
+			}
+			i++;
+		}
+		
+		// Fraction part
+		if(i < end && ((b = data.get(i)) == '.' || b == decimalSeparator)) {
+			i++;
+			while(i < end && (b = data.get(i)) >= '0' && b <= '9') {
+				anyDigit = true;
+				if(mantissa < MAX_EXACT_MANTISSA / 10) {
+					mantissa = mantissa * 10 + (b - '0');
+					exponent--;
+				}else {
+					exact = false;
+				}
+				i++;
+			}
+		}
+		
+		if(!anyDigit) {
+			return Double.NaN;
+		}
+		
+		// Exponent part
+		if(i < end && ((b = data.get(i)) == 'e' || b == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if(i < end && ((b = data.get(i)) == '-' || b == '+')) {
+				negativeExponent = (b == '-');
+				i++;
+			}
+			int e = 0;
+			boolean exponentDigit = false;
+			while(i < end && (b = data.get(i)) >= '0' && b <= '9') {
+				exponentDigit = true;
+				if(e < 10000) {
+					e = e * 10 + (b - '0');
+				}
+				i++;
+			}
+			if(!exponentDigit) {
+				return Double.NaN;
+			}
+			exponent += negativeExponent ? -e : e;
+		}
+		
+		if(i != end) {
+			return Double.NaN;	// Trailing text, for example a row label or unit
+		}
+		
+		if(exact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+			double value = (exponent >= 0) ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+			return negative ? -value : value;
+		}
+		
+		// Rare long or extreme number, parse exactly from text
+		byte[] text = new byte[end - start];
+		for(int k = 0; k < text.length; k++) {
+			text[k] = data.get(start + k);
+			if(text[k] == decimalSeparator) {
+				text[k] = '.';
+			}
+		}
+		return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+	}
+}
@@ -0,0 +1,6 @@
+package PlateData;
+
+// enum class for how plate workbooks are read, full workbook model or streaming event reader
+public enum ReaderMode {
+	WORKBOOK, STREAMING
+}
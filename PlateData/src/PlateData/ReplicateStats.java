@@ -0,0 +1,294 @@
+package PlateData;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+/**
+ * ReplicateStats holds quality control statistics for each replicate group of one well role, mean, standard
+ * deviation, coefficient of variation, wells used and the well found to be an outlier, if any. It is filled
+ * by PlateLayout.replicateStats in the same pass over the plate that sums the replicates and is meant to be
+ * refilled rather than recreated, arrays only grow when a layout has more groups than before.
+ * 
+ * A group is tested for a single outlier when the policy is FLAG or REJECT and it has at least three wells.
+ * Grubbs compares the furthest replicate from the mean against the two sided 95% critical value. Dixon's Q
+ * compares the gap between the most extreme replicate and its neighbour against the range, using the 95%
+ * table for 3 to 10 replicates and Grubbs for larger groups. With REJECT the outlier is left out of mean,
+ * standard deviation and CV, with FLAG it is only reported.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class ReplicateStats {
+	private static final double ALPHA = 0.05;
+	private static final double[] DIXON_Q95 = {Double.NaN, Double.NaN, Double.NaN, 0.970, 0.829, 0.710, 0.625, 0.568, 0.526, 0.493, 0.466};
+	private static final double[] GRUBBS = new double[129];	// Critical values by group size, computed on first use
+	
+	static {
+		Arrays.fill(GRUBBS, Double.NaN);
+	}
+	
+	private WellRole role;
+	private int columns;
+	private int groups;
+	private int[] levels = new int[0];
+	private double[] means = new double[0];
+	private double[] variances = new double[0];	// Standard deviation taken on access
+	private int[] counts = new int[0];
+	private int[] outliers = new int[0];
+	private boolean rejecting;
+	private double pooledMean = Double.NaN;
+	private final double[] moments = new double[3];	// Scratch for PlateMatrix.gatherMoments
+	
+	/**
+	 * Sizes arrays for a layout, reusing them when large enough. Called by PlateLayout before filling.
+	 */
+	void reset(WellRole role, int groups, int columns, boolean rejecting) {
+		this.role = role;
+		this.groups = groups;
+		this.columns = columns;
+		this.rejecting = rejecting;
+		
+		if(levels.length < groups) {
+			levels = new int[groups];
+			means = new double[groups];
+			variances = new double[groups];
+			counts = new int[groups];
+			outliers = new int[groups];
+		}
+	}
+	
+	void set(int group, int level, double mean, double variance, int count, int outlier) {
+		levels[group] = level;
+		means[group] = mean;
+		variances[group] = variance;
+		counts[group] = count;
+		outliers[group] = outlier;
+	}
+	
+	double[] moments() {
+		return moments;
+	}
+	
+	void setPooledMean(double pooledMean) {
+		this.pooledMean = pooledMean;
+	}
+	
+	/**
+	 * Returns role statistics were gathered for.
+	 * 
+	 * @return role
+	 */
+	public WellRole getRole() {
+		return role;
+	}
+	
+	/**
+	 * Returns number of replicate groups.
+	 * 
+	 * @return groups
+	 */
+	public int getGroupCount() {
+		return groups;
+	}
+	
+	/**
+	 * Returns level of group, standard level or sample number.
+	 * 
+	 * @param group
+	 * @return level
+	 */
+	public int getLevel(int group) {
+		checkGroup(group);
+		return levels[group];
+	}
+	
+	/**
+	 * Returns mean of replicates used.
+	 * 
+	 * @param group
+	 * @return mean, NaN if no wells were used
+	 */
+	public double getMean(int group) {
+		checkGroup(group);
+		return means[group];
+	}
+	
+	/**
+	 * Returns sample standard deviation of replicates used.
+	 * 
+	 * @param group
+	 * @return standard deviation, NaN with fewer than two wells
+	 */
+	public double getSD(int group) {
+		checkGroup(group);
+		return Math.sqrt(variances[group]);
+	}
+	
+	/**
+	 * Returns coefficient of variation of replicates used, standard deviation over mean.
+	 * 
+	 * @param group
+	 * @return CV as a fraction, 0.05 for 5%
+	 */
+	public double getCV(int group) {
+		checkGroup(group);
+		return Math.sqrt(variances[group]) / means[group];
+	}
+	
+	/**
+	 * Returns number of wells used for mean, declared wells less any rejected.
+	 * 
+	 * @param group
+	 * @return wells used
+	 */
+	public int getCount(int group) {
+		checkGroup(group);
+		return counts[group];
+	}
+	
+	/**
+	 * Returns row-major index of well found to be an outlier.
+	 * 
+	 * @param group
+	 * @return well index, -1 if none was found or groups were not tested
+	 */
+	public int getOutlier(int group) {
+		checkGroup(group);
+		return outliers[group];
+	}
+	
+	/**
+	 * Returns true if outliers were left out of means.
+	 * 
+	 * @return rejecting
+	 */
+	public boolean isRejecting() {
+		return rejecting;
+	}
+	
+	/**
+	 * Returns mean of every well used across all groups.
+	 * 
+	 * @return pooled mean
+	 */
+	public double getPooledMean() {
+		return pooledMean;
+	}
+	
+	/**
+	 * Returns row-major indexes of wells left out of means, in group order.
+	 * 
+	 * @return excluded wells, empty unless policy is REJECT
+	 */
+	public int[] getExcludedWells() {
+		if(!rejecting) {
+			return new int[0];
+		}
+		
+		int n = 0;
+		int[] wells = new int[groups];
+		for(int g = 0; g < groups; g++) {
+			if(outliers[g] >= 0) {
+				wells[n++] = outliers[g];
+			}
+		}
+		return Arrays.copyOf(wells, n);
+	}
+	
+	/**
+	 * Returns well name of a row-major index, A1 for index 0.
+	 * 
+	 * @param index
+	 * @return well name
+	 */
+	public String wellName(int index) {
+		int row = index / columns;
+		String letters = (row < 26) ? String.valueOf((char) ('A' + row)) : "" + (char) ('A' + row / 26 - 1) + (char) ('A' + row % 26);
+		return letters + (index % columns + 1);
+	}
+	
+	/**
+	 * Returns a text table of each group, outliers marked excluded or flagged.
+	 * 
+	 * @param label name for groups, for example Standard or Sample
+	 * @return table
+	 */
+	public String report(String label) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-12s %6s %10s %10s %8s %6s  %s%n", label, "level", "mean", "SD", "CV %", "wells", "outlier"));
+		
+		for(int g = 0; g < groups; g++) {
+			String outlier = (outliers[g] < 0) ? "" : wellName(outliers[g]) + (rejecting ? " excluded" : " flagged");
+			sb.append(String.format("%-12s %6d %10.4f %10.4f %8.2f %6d  %s%n", label, levels[g], means[g], getSD(g),
+					100 * getCV(g), counts[g], outlier));
+		}
+		return sb.toString();
+	}
+	
+	private void checkGroup(int group) {
+		if(group < 0 || group >= groups) {
+			throw new IndexOutOfBoundsException("Group " + group + " of " + groups);
+		}
+	}
+	
+	/**
+	 * Returns which extreme replicate of a group is an outlier, testing the side test considers
+	 * most extreme, Dixon the larger gap and Grubbs the further from the mean.
+	 * 
+	 * @param test
+	 * @param n replicates, at least 3
+	 * @param mean
+	 * @param sd
+	 * @param low smallest replicate
+	 * @param low2 second smallest
+	 * @param high2 second largest
+	 * @param high largest replicate
+	 * @return 1 if largest is an outlier, -1 if smallest is, 0 if neither
+	 */
+	static int outlierSide(OutlierTest test, int n, double mean, double sd, double low, double low2, double high2, double high) {
+		if(test == OutlierTest.DIXON && n < DIXON_Q95.length) {
+			double range = high - low;
+			if(!(range > 0)) {
+				return 0;
+			}
+			double highGap = high - high2;
+			double lowGap = low2 - low;
+			if(Math.max(highGap, lowGap) / range <= DIXON_Q95[n]) {
+				return 0;
+			}
+			return (highGap >= lowGap) ? 1 : -1;
+		}
+		
+		if(!(sd > 0)) {
+			return 0;
+		}
+		boolean highSide = (high - mean >= mean - low);
+		double g = (highSide ? high - mean : mean - low) / sd;
+		if(g <= grubbsCritical(n)) {
+			return 0;
+		}
+		return highSide ? 1 : -1;
+	}
+	
+	/**
+	 * Two sided Grubbs critical value at 95% for n replicates.
+	 */
+	static double grubbsCritical(int n) {
+		if(n >= GRUBBS.length) {
+			return computeGrubbs(n);
+		}
+		double g = GRUBBS[n];
+		if(Double.isNaN(g)) {
+			g = computeGrubbs(n);
+			GRUBBS[n] = g;	// Same value from any thread
+		}
+		return g;
+	}
+	
+	private static double computeGrubbs(int n) {
+		double t = new TDistribution(n - 2).inverseCumulativeProbability(1 - ALPHA / (2 * n));
+		return (n - 1) / Math.sqrt(n) * Math.sqrt(t * t / (n - 2 + t * t));
+	}
+}
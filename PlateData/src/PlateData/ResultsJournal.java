@@ -0,0 +1,714 @@
+package PlateData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultsJournal keeps analysed results in a folder so a sample's history can be looked up later without
+ * opening old workbooks, see ResultsJournalFormat for the layout. Results are appended to segment files that
+ * are never rewritten, a new segment is started once the current one reaches the segment size. Sample names
+ * are stored once in a dictionary and referred to by id, and each sample of a result gets a posting holding
+ * its record's offset and time, chained to the previous posting of the same name. When the journal is opened
+ * postings.idx is read once, front to back, into a per name index of posting times kept sorted by time, so
+ * looking up a name and time range is a binary search and only the postings and records that match are read.
+ * The index holds 12 bytes per posting in memory.
+ * 
+ * Samples without names are indexed under their generic name qualified with the source, Sample 1 (plate.xlsx),
+ * so unnamed plates from unrelated runs are not pooled under one name.
+ * 
+ * Records are written before the postings that refer to them and postings before the heads, so a journal
+ * left by a crash is opened with any partial tail ignored and heads rebuilt when they are behind.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class ResultsJournal implements Closeable {
+	public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+	
+	private static final String NAMES_FILE = "names.dict";
+	private static final String POSTINGS_FILE = "postings.idx";
+	private static final String HEADS_FILE = "heads.idx";
+	
+	private final Path dir;
+	private final long segmentBytes;
+	private final FileChannel names;
+	private final FileChannel postings;
+	private final FileChannel heads;
+	
+	private final SampleRegistry registry = new SampleRegistry();	// Ids are dictionary positions
+	private long namesEnd;
+	private int namesStored;	// Names written to names.dict, ids below this have a dictionary entry
+	private int[] headPostings = new int[64];
+	private long[][] postingTimes = new long[64][];	// Per name id, times of its postings in ascending order
+	private int[][] postingsByTime = new int[64][];	// Postings in the order of postingTimes
+	private int[] timeCounts = new int[64];
+	private int headsStored;	// Names with a head in heads.idx
+	private int postingCount;
+	
+	private final Map<Integer, FileChannel> segments = new HashMap<>();
+	private int segment;
+	private long segmentEnd;
+	private final ByteBuffer posting = ByteBuffer.allocate(ResultsJournalFormat.POSTING_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+	
+	/**
+	 * Opens journal in dir with 64 MB segments, creating it if needed.
+	 * 
+	 * @param dir journal folder
+	 * @throws IOException if folder holds files that are not part of a results journal
+	 */
+	public ResultsJournal(Path dir) throws IOException{
+		this(dir, DEFAULT_SEGMENT_BYTES);
+	}
+	
+	/**
+	 * Opens journal in dir, creating it if needed.
+	 * 
+	 * @param dir journal folder
+	 * @param segmentBytes size after which a new segment is started, a larger record still gets a segment of its own
+	 * @throws IOException if folder holds files that are not part of a results journal
+	 */
+	public ResultsJournal(Path dir, long segmentBytes) throws IOException{
+		if(segmentBytes <= ResultsJournalFormat.FILE_HEADER_BYTES) {
+			throw new IllegalArgumentException("segmentBytes must be larger than the segment header");
+		}
+		this.dir = dir;
+		this.segmentBytes = segmentBytes;
+		Files.createDirectories(dir);
+		
+		names = open(dir.resolve(NAMES_FILE), ResultsJournalFormat.NAMES_MAGIC);
+		FileChannel p = null;
+		FileChannel h = null;
+		try {
+			p = open(dir.resolve(POSTINGS_FILE), ResultsJournalFormat.POSTINGS_MAGIC);
+			h = open(dir.resolve(HEADS_FILE), ResultsJournalFormat.HEADS_MAGIC);
+		} catch (IOException e) {
+			closeQuietly(names, p, h);
+			throw e;
+		}
+		postings = p;
+		heads = h;
+		
+		try {
+			loadNames();
+			loadPostings();
+			loadHeads();
+			openLatestSegment();
+		} catch (IOException e) {
+			closeQuietly(names, postings, heads);
+			for(FileChannel channel: segments.values()) {
+				closeQuietly(channel);
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Opens a journal file, writing its header if new and checking it otherwise.
+	 */
+	private static FileChannel open(Path file, int magic) throws IOException{
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(ResultsJournalFormat.FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			if(channel.size() < ResultsJournalFormat.FILE_HEADER_BYTES) {
+				header.putInt(magic).putShort(ResultsJournalFormat.VERSION);
+				if(magic == ResultsJournalFormat.HEADS_MAGIC) {
+					header.putLong(ResultsJournalFormat.HEADS_COVERED_OFFSET, -1);	// Rebuilt on load
+				}
+				header.clear();
+				channel.truncate(0);
+				writeFully(channel, header, 0);
+			}else {
+				readFully(channel, header, 0);
+				if(header.getInt(0) != magic) {
+					throw new IOException(file + " is not part of a results journal");
+				}
+				if(header.getShort(4) > ResultsJournalFormat.VERSION) {
+					throw new IOException(file + " was written by a newer version, format " + header.getShort(4));
+				}
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return channel;
+	}
+	
+	/**
+	 * Reads dictionary, dropping a name cut short by a crash.
+	 */
+	private void loadNames() throws IOException{
+		long size = names.size();
+		ByteBuffer buffer = ByteBuffer.allocate((int) (size - ResultsJournalFormat.FILE_HEADER_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(names, buffer, ResultsJournalFormat.FILE_HEADER_BYTES);
+		buffer.flip();
+		
+		while(buffer.remaining() >= 2) {
+			int length = buffer.getShort(buffer.position()) & 0xFFFF;
+			if(buffer.remaining() < 2 + length) {
+				break;
+			}
+			buffer.position(buffer.position() + 2);
+			byte[] utf8 = new byte[length];
+			buffer.get(utf8);
+			registry.intern(new String(utf8, StandardCharsets.UTF_8));
+		}
+		namesEnd = ResultsJournalFormat.FILE_HEADER_BYTES + buffer.position();
+		namesStored = registry.size();
+		if(namesEnd < size) {
+			names.truncate(namesEnd);
+		}
+	}
+	
+	/**
+	 * Reads whole postings in order into heads and the time index, dropping a posting cut short by a crash.
+	 */
+	private void loadPostings() throws IOException{
+		long bytes = postings.size() - ResultsJournalFormat.FILE_HEADER_BYTES;
+		postingCount = (int) (bytes / ResultsJournalFormat.POSTING_BYTES);
+		long end = postingOffset(postingCount);
+		if(end < postings.size()) {
+			postings.truncate(end);
+		}
+		
+		ensureIds(registry.size());
+		ByteBuffer buffer = ByteBuffer.allocate(2048 * ResultsJournalFormat.POSTING_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for(int i = 0; i < postingCount; ) {
+			int n = Math.min(2048, postingCount - i);
+			buffer.clear().limit(n * ResultsJournalFormat.POSTING_BYTES);
+			readFully(postings, buffer, postingOffset(i));
+			for(int k = 0; k < n; k++, i++) {
+				int id = buffer.getInt(k * ResultsJournalFormat.POSTING_BYTES);
+				ensureIds(id + 1);
+				headPostings[id] = i;
+				indexPosting(id, buffer.getLong(k * ResultsJournalFormat.POSTING_BYTES + 16), i);
+			}
+		}
+	}
+	
+	/**
+	 * Checks heads cover every posting, rewriting them from the heads read with the postings when they do not.
+	 */
+	private void loadHeads() throws IOException{
+		ByteBuffer header = ByteBuffer.allocate(ResultsJournalFormat.FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(heads, header, 0);
+		if(header.getLong(ResultsJournalFormat.HEADS_COVERED_OFFSET) == postingCount) {
+			headsStored = (int) Math.min(registry.size(), (heads.size() - ResultsJournalFormat.FILE_HEADER_BYTES) / Integer.BYTES);
+			return;
+		}
+		
+		ByteBuffer rebuilt = ByteBuffer.allocate(registry.size() * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for(int id = 0; id < registry.size(); id++) {
+			rebuilt.putInt(headPostings[id]);
+		}
+		rebuilt.flip();
+		heads.truncate(ResultsJournalFormat.FILE_HEADER_BYTES);
+		writeFully(heads, rebuilt, ResultsJournalFormat.FILE_HEADER_BYTES);
+		headsStored = registry.size();
+		writeCovered();
+	}
+	
+	/**
+	 * Finds highest numbered segment to append to, creating the first if there is none.
+	 */
+	private void openLatestSegment() throws IOException{
+		int latest = 0;
+		try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "segment-*.rjs")){
+			for(Path file: stream) {
+				String name = file.getFileName().toString();
+				try {
+					latest = Math.max(latest, Integer.parseInt(name.substring(8, name.length() - 4)));
+				} catch (NumberFormatException e) {
+					// Not one of ours
+				}
+			}
+		}
+		segment = latest;
+		FileChannel channel = segmentChannel(segment);
+		segmentEnd = (channel.size() + 7) & ~7L;	// A partial record left by a crash is skipped
+	}
+	
+	/**
+	 * Returns channel of a segment, opening it on first use.
+	 */
+	private FileChannel segmentChannel(int index) throws IOException{
+		FileChannel channel = segments.get(index);
+		if(channel == null) {
+			channel = open(dir.resolve(ResultsJournalFormat.segmentName(index)), ResultsJournalFormat.SEGMENT_MAGIC);
+			segments.put(index, channel);
+		}
+		return channel;
+	}
+	
+	/**
+	 * Appends result of any assay, see the BCA and CTG overloads.
+	 * 
+	 * @param source label stored with result, usually the file name
+	 * @param data BCAData or CTGData
+	 * @throws IOException
+	 */
+	public void append(String source, PlateData data) throws IOException{
+		if(data instanceof BCAData) {
+			append(source, (BCAData) data);
+		}else if(data instanceof CTGData) {
+			append(source, (CTGData) data);
+		}else {
+			throw new IllegalArgumentException("Only BCA and CTG results can be journaled");
+		}
+	}
+	
+	/**
+	 * Appends one record for the plate holding its standard curve and each sample's average absorbance,
+	 * concentration and load volume, indexed by sample name, or Sample n (source) when names were not given,
+	 * and the plate's creation time.
+	 * 
+	 * @param source label stored with result, usually the file name
+	 * @param bca
+	 * @throws IOException
+	 */
+	public synchronized void append(String source, BCAData bca) throws IOException{
+		DoubleColumn.View averages = bca.getSampleAvgColumn();
+		DoubleColumn.View concentrations = bca.getConcentrationColumn();
+		DoubleColumn.View loadVolumes = bca.getLoadVolumeColumn();
+		ArrayList<String> sampleNames = bca.getSampleNames();
+		boolean provided = bca.hasProvidedSampleNames();
+		int samples = loadVolumes.size();
+		
+		int[] ids = new int[samples];
+		for(int i = 0; i < samples; i++) {
+			String name = sampleNames.get(i);
+			ids[i] = nameId(provided ? name : SampleRegistry.qualified(name, source));
+		}
+		
+		byte[] utf8 = source.getBytes(StandardCharsets.UTF_8);
+		int body = ResultsJournalFormat.bodyOffset(utf8.length);
+		ByteBuffer record = recordHeader(body + ResultsJournalFormat.BCA_FIT_BYTES + samples * ResultsJournalFormat.BCA_SAMPLE_BYTES,
+				ResultsJournalFormat.KIND_BCA, samples, bca.getCreationTime(), utf8);
+		record.putDouble(bca.getSlope());
+		record.putDouble(bca.getIntercept());
+		record.putDouble(bca.getStandardCurve().getRSquared());
+		record.putDouble(bca.getSpecifiedUg());
+		for(int i = 0; i < samples; i++) {
+			record.putInt(ids[i]).putInt(0);
+			record.putDouble(averages.get(i));
+			record.putDouble(concentrations.get(i));
+			record.putDouble(loadVolumes.get(i));
+		}
+		
+		long offset = writeRecord(record);
+		writePostings(ids, offset, bca.getCreationTime(), true);
+	}
+	
+	/**
+	 * Appends one record per data set holding its control average, control standard deviation and normalized
+	 * values, indexed by data set name, or Data Set n (source) when names were not given, and the file's creation time.
+	 * 
+	 * @param source label stored with result, usually the file name
+	 * @param ctg
+	 * @throws IOException
+	 */
+	public synchronized void append(String source, CTGData ctg) throws IOException{
+		ArrayList<double[][]> dataSets = ctg.getDataSets();
+		ArrayList<String> dataSetNames = ctg.getDataSetNames();
+		byte[] utf8 = source.getBytes(StandardCharsets.UTF_8);
+		int body = ResultsJournalFormat.bodyOffset(utf8.length);
+		
+		for(int i = 0; i < dataSets.size(); i++) {
+			double[][] set = dataSets.get(i);
+			int rows = set.length;
+			int columns = (rows == 0) ? 0 : set[0].length;
+			String name = (dataSetNames != null && i < dataSetNames.size()) ? dataSetNames.get(i) : SampleRegistry.qualified("Data Set " + (i + 1), source);
+			int id = nameId(name);
+			
+			ByteBuffer record = recordHeader(body + ResultsJournalFormat.CTG_HEADER_BYTES + rows * columns * Double.BYTES,
+					ResultsJournalFormat.KIND_CTG, 1, ctg.getCreationTime(), utf8);
+			record.putInt(id).putInt(rows).putInt(columns).putInt(0);
+			record.putDouble(ctg.getControlAverage(i));
+			record.putDouble(ctg.getControlSD(i));
+			for(double[] row: set) {
+				for(double e: row) {
+					record.putDouble(e);
+				}
+			}
+			
+			long offset = writeRecord(record);
+			writePostings(new int[] {id}, offset, ctg.getCreationTime(), false);
+		}
+	}
+	
+	/**
+	 * Returns buffer for a record with its header and source written, positioned at the body.
+	 */
+	private static ByteBuffer recordHeader(int length, byte kind, int entries, long timestamp, byte[] source) throws IOException{
+		if(length < 0) {
+			throw new IOException("Result too large for journal record");
+		}
+		ByteBuffer record = ByteBuffer.allocate(ResultsJournalFormat.align(length)).order(ByteOrder.LITTLE_ENDIAN);
+		record.putInt(ResultsJournalFormat.RECORD_MAGIC);
+		record.putInt(record.capacity());
+		record.put(kind);
+		record.put(new byte[3]);
+		record.putInt(entries);
+		record.putLong(timestamp);
+		record.putInt(source.length);
+		record.putInt(0);
+		record.put(source);
+		record.position(ResultsJournalFormat.bodyOffset(source.length));
+		return record;
+	}
+	
+	/**
+	 * Returns id of a name, adding it to the dictionary if new. Every id up to it without a dictionary
+	 * entry on disk is written, so ids in postings always have a name when the journal is opened again.
+	 */
+	private int nameId(String name) throws IOException{
+		int id = registry.find(name);
+		if(id < 0) {
+			if(name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+				throw new IOException("Sample name longer than 65535 bytes");
+			}
+			id = registry.intern(name);
+		}
+		
+		for(; namesStored <= id; namesStored++) {
+			byte[] utf8 = registry.getName(namesStored).getBytes(StandardCharsets.UTF_8);
+			ByteBuffer entry = ByteBuffer.allocate(2 + utf8.length).order(ByteOrder.LITTLE_ENDIAN);
+			entry.putShort((short) utf8.length).put(utf8).flip();
+			writeFully(names, entry, namesEnd);
+			namesEnd += entry.capacity();
+		}
+		ensureIds(id + 1);
+		return id;
+	}
+	
+	/**
+	 * Grows per name arrays to hold ids below count, new heads being -1.
+	 */
+	private void ensureIds(int count) {
+		if(count <= headPostings.length) {
+			return;
+		}
+		int old = headPostings.length;
+		int length = Math.max(count, old * 2);
+		headPostings = Arrays.copyOf(headPostings, length);
+		Arrays.fill(headPostings, old, length, -1);
+		postingTimes = Arrays.copyOf(postingTimes, length);
+		postingsByTime = Arrays.copyOf(postingsByTime, length);
+		timeCounts = Arrays.copyOf(timeCounts, length);
+	}
+	
+	/**
+	 * Adds a posting to the time index of its name. Plates are usually journaled in time order so this is
+	 * an append, an older plate is inserted after postings with the same time.
+	 */
+	private void indexPosting(int id, long timestamp, int p) {
+		int n = timeCounts[id];
+		if(postingTimes[id] == null) {
+			postingTimes[id] = new long[8];
+			postingsByTime[id] = new int[8];
+		}else if(n == postingTimes[id].length) {
+			postingTimes[id] = Arrays.copyOf(postingTimes[id], n * 2);
+			postingsByTime[id] = Arrays.copyOf(postingsByTime[id], n * 2);
+		}
+		
+		long[] t = postingTimes[id];
+		int[] ps = postingsByTime[id];
+		int at = n;
+		if(n > 0 && t[n - 1] > timestamp) {
+			at = firstAfter(t, n, timestamp);
+			System.arraycopy(t, at, t, at + 1, n - at);
+			System.arraycopy(ps, at, ps, at + 1, n - at);
+		}
+		t[at] = timestamp;
+		ps[at] = p;
+		timeCounts[id] = n + 1;
+	}
+	
+	/**
+	 * Returns index of first of n sorted times at or after time.
+	 */
+	private static int firstAtOrAfter(long[] times, int n, long time) {
+		int lo = 0;
+		int hi = n;
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(times[mid] < time) {
+				lo = mid + 1;
+			}else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+	
+	/**
+	 * Returns index of first of n sorted times after time.
+	 */
+	private static int firstAfter(long[] times, int n, long time) {
+		int lo = 0;
+		int hi = n;
+		while(lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if(times[mid] <= time) {
+				lo = mid + 1;
+			}else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+	
+	/**
+	 * Writes record to the current segment, starting a new one if it would pass the segment size.
+	 * 
+	 * @return offset of record in segment
+	 */
+	private long writeRecord(ByteBuffer record) throws IOException{
+		record.clear();
+		if(segmentEnd > ResultsJournalFormat.FILE_HEADER_BYTES && segmentEnd + record.capacity() > segmentBytes) {
+			segment++;
+			segmentChannel(segment);
+			segmentEnd = ResultsJournalFormat.FILE_HEADER_BYTES;
+		}
+		
+		long offset = segmentEnd;
+		try(PlateMetrics.Timer timer = PlateMetrics.start(PipelineStage.OUTPUT)){
+			timer.bytes(record.capacity());
+			writeFully(segmentChannel(segment), record, offset);
+		}
+		segmentEnd += record.capacity();
+		return offset;
+	}
+	
+	/**
+	 * Writes a posting per entry of a record, then moves heads of the names to them.
+	 * 
+	 * @param bySlot true if entry k is slot k of the record, false if every entry is slot 0
+	 */
+	private void writePostings(int[] ids, long offset, long timestamp, boolean bySlot) throws IOException{
+		if(ids.length == 0) {
+			return;
+		}
+		
+		ByteBuffer buffer = ByteBuffer.allocate(ids.length * ResultsJournalFormat.POSTING_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		int[] prev = new int[ids.length];
+		for(int k = 0; k < ids.length; k++) {
+			prev[k] = headPostings[ids[k]];
+			buffer.putInt(ids[k]);
+			buffer.putInt(segment);
+			buffer.putLong(offset);
+			buffer.putLong(timestamp);
+			buffer.putInt(bySlot ? k : 0);
+			buffer.putInt(prev[k]);
+			headPostings[ids[k]] = postingCount + k;	// Repeated names chain within the record too
+			indexPosting(ids[k], timestamp, postingCount + k);
+		}
+		buffer.flip();
+		writeFully(postings, buffer, postingOffset(postingCount));
+		postingCount += ids.length;
+		
+		if(registry.size() > headsStored) {
+			// New names, and any added before a crash without postings, so heads.idx has no gaps
+			ByteBuffer added = ByteBuffer.allocate((registry.size() - headsStored) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			for(int id = headsStored; id < registry.size(); id++) {
+				added.putInt(headPostings[id]);
+			}
+			added.flip();
+			writeFully(heads, added, ResultsJournalFormat.FILE_HEADER_BYTES + (long) headsStored * Integer.BYTES);
+		}
+		
+		ByteBuffer head = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for(int id: ids) {
+			if(id >= headsStored) {
+				continue;
+			}
+			head.clear();
+			head.putInt(0, headPostings[id]);
+			writeFully(heads, head, ResultsJournalFormat.FILE_HEADER_BYTES + (long) id * Integer.BYTES);
+		}
+		headsStored = registry.size();
+		writeCovered();
+	}
+	
+	private void writeCovered() throws IOException{
+		ByteBuffer covered = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		covered.putLong(0, postingCount);
+		writeFully(heads, covered, ResultsJournalFormat.HEADS_COVERED_OFFSET);
+	}
+	
+	private static long postingOffset(int posting) {
+		return ResultsJournalFormat.FILE_HEADER_BYTES + (long) posting * ResultsJournalFormat.POSTING_BYTES;
+	}
+	
+	/**
+	 * Returns every result journaled for a name, newest plate time first.
+	 * 
+	 * @param name sample or data set name
+	 * @return entries, empty if name was never journaled
+	 * @throws IOException
+	 */
+	public List<JournalEntry> history(String name) throws IOException{
+		return history(name, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Returns results journaled for a name with plate times in a range, newest plate time first.
+	 * 
+	 * @param name sample or data set name
+	 * @param fromMillis earliest time, inclusive
+	 * @param toMillis latest time, exclusive
+	 * @return entries
+	 * @throws IOException
+	 */
+	public List<JournalEntry> history(String name, long fromMillis, long toMillis) throws IOException{
+		return history(name, fromMillis, toMillis, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Returns up to limit results journaled for a name with plate times in a range, newest plate time first,
+	 * results with the same time in reverse journal order. The range is found in the name's time index, so
+	 * only the postings and records returned are read.
+	 * 
+	 * @param name sample or data set name
+	 * @param fromMillis earliest time, inclusive
+	 * @param toMillis latest time, exclusive
+	 * @param limit most entries returned
+	 * @return entries
+	 * @throws IOException
+	 */
+	public synchronized List<JournalEntry> history(String name, long fromMillis, long toMillis, int limit) throws IOException{
+		int id = registry.find(name);
+		if(id < 0) {
+			return new ArrayList<>();
+		}
+		return history(id, fromMillis, toMillis, limit);
+	}
+	
+	/**
+	 * Returns up to limit results journaled for a name id, its position in getSampleNames, newest plate time first.
+	 */
+	synchronized List<JournalEntry> history(int id, long fromMillis, long toMillis, int limit) throws IOException{
+		String name = registry.getName(id);
+		List<JournalEntry> entries = new ArrayList<>();
+		if(id >= timeCounts.length || timeCounts[id] == 0) {
+			return entries;
+		}
+		
+		long[] times = postingTimes[id];
+		int[] ps = postingsByTime[id];
+		int first = firstAtOrAfter(times, timeCounts[id], fromMillis);
+		int end = firstAtOrAfter(times, timeCounts[id], toMillis);
+		ByteBuffer header = ByteBuffer.allocate(ResultsJournalFormat.RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for(int i = end - 1; i >= first && entries.size() < limit; i--) {
+			posting.clear();
+			readFully(postings, posting, postingOffset(ps[i]));
+			FileChannel channel = segmentChannel(posting.getInt(4));
+			long offset = posting.getLong(8);
+			header.clear();
+			readFully(channel, header, offset);
+			if(header.getInt(0) != ResultsJournalFormat.RECORD_MAGIC) {
+				throw new IOException("Journal record missing at " + ResultsJournalFormat.segmentName(posting.getInt(4)) + " offset " + offset);
+			}
+			
+			ByteBuffer record = ByteBuffer.allocate(header.getInt(ResultsJournalFormat.LENGTH_OFFSET)).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(channel, record, offset);
+			entries.add(new JournalEntry(name, record, posting.getInt(24)));
+		}
+		return entries;
+	}
+	
+	/**
+	 * Returns copy of every name journaled, in order of first use, a name's position being its dictionary id.
+	 * The dictionary itself is kept private so names can only be added by appending results.
+	 * 
+	 * @return names
+	 */
+	public List<String> getSampleNames() {
+		return registry.getNames();
+	}
+	
+	/**
+	 * Returns number of sample results journaled, one per BCA sample or CTG data set.
+	 * 
+	 * @return entries
+	 */
+	public synchronized int getEntryCount() {
+		return postingCount;
+	}
+	
+	/**
+	 * Returns number of the segment being appended to, segments are numbered from 0.
+	 * 
+	 * @return segment
+	 */
+	public synchronized int getSegment() {
+		return segment;
+	}
+	
+	/**
+	 * Forces everything appended to disk.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void flush() throws IOException{
+		segmentChannel(segment).force(false);
+		names.force(false);
+		postings.force(false);
+		heads.force(false);
+	}
+	
+	@Override
+	public synchronized void close() throws IOException{
+		try {
+			flush();
+		} finally {
+			closeQuietly(names, postings, heads);
+			for(FileChannel channel: segments.values()) {
+				closeQuietly(channel);
+			}
+			segments.clear();
+		}
+	}
+	
+	private static void closeQuietly(FileChannel... channels) {
+		for(FileChannel channel: channels) {
+			if(channel == null) {
+				continue;
+			}
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// Closing anyway
+			}
+		}
+	}
+	
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		while(buffer.hasRemaining()) {
+			int n = channel.read(buffer, position);
+			if(n < 0) {
+				throw new IOException("Results journal file ends early");
+			}
+			position += n;
+		}
+	}
+	
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+		while(buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+}
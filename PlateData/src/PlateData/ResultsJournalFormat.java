@@ -0,0 +1,77 @@
+package PlateData;
+
+/**
+ * Layout constants shared by ResultsJournal and JournalEntry. All values are little endian and every
+ * file starts with a 16 byte header: int magic, short version, short reserved, long reserved, except where
+ * noted.
+ * 
+ * names.dict: sample names in order of first use, id being position. Each is an unsigned short length
+ * followed by UTF-8 bytes.
+ * 
+ * segment-NNNNNN.rjs: result records, each starting on an 8 byte boundary. int magic "RJRC", int record
+ * length including header and padding, byte kind (BCA or CTG), 3 reserved bytes, int entries, long timestamp
+ * in milliseconds since epoch, int source bytes, int reserved, then source as UTF-8 padded to 8 bytes.
+ * A BCA record follows with double slope, intercept, r squared and specified ug, then per sample int name
+ * id, int reserved, double average absorbance, concentration and load volume. A CTG record holds one data set,
+ * int name id, int rows, int columns, int reserved, double control average and control standard deviation,
+ * then rows * columns normalized values in row-major order.
+ * 
+ * postings.idx: fixed 32 byte postings, one per sample per record, int name id, int segment, long record
+ * offset in segment, long timestamp, int entry within record, int previous posting of the same name or -1.
+ * 
+ * heads.idx: header of int magic, short version, short reserved, long postings covered, then per name id
+ * the int index of its latest posting or -1. Rebuilt from postings.idx when postings covered disagrees.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+final class ResultsJournalFormat {
+	static final short VERSION = 1;
+	static final int FILE_HEADER_BYTES = 16;
+	
+	static final int NAMES_MAGIC = 0x444E4A52;		// "RJND" little endian
+	static final int SEGMENT_MAGIC = 0x47534A52;	// "RJSG"
+	static final int POSTINGS_MAGIC = 0x49504A52;	// "RJPI"
+	static final int HEADS_MAGIC = 0x44484A52;		// "RJHD"
+	static final int HEADS_COVERED_OFFSET = 8;
+	
+	static final int RECORD_MAGIC = 0x43524A52;		// "RJRC"
+	static final int RECORD_HEADER_BYTES = 32;
+	static final byte KIND_BCA = 0;
+	static final byte KIND_CTG = 1;
+	
+	// Offsets within record header
+	static final int LENGTH_OFFSET = 4;
+	static final int KIND_OFFSET = 8;
+	static final int ENTRIES_OFFSET = 12;
+	static final int TIMESTAMP_OFFSET = 16;
+	static final int SOURCE_BYTES_OFFSET = 24;
+	
+	static final int BCA_FIT_BYTES = 32;
+	static final int BCA_SAMPLE_BYTES = 32;
+	static final int CTG_HEADER_BYTES = 32;
+	
+	static final int POSTING_BYTES = 32;
+	
+	private ResultsJournalFormat() {
+	}
+	
+	/**
+	 * Rounds up to next multiple of 8.
+	 */
+	static int align(int bytes) {
+		return (bytes + 7) & ~7;
+	}
+	
+	/**
+	 * Offset of record body from record start.
+	 */
+	static int bodyOffset(int sourceBytes) {
+		return align(RECORD_HEADER_BYTES + sourceBytes);
+	}
+	
+	static String segmentName(int segment) {
+		return String.format("segment-%06d.rjs", segment);
+	}
+}
@@ -0,0 +1,468 @@
+package PlateData;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SampleHistory aggregates one metric per sample across many results, loaded BCAData and CTGData, batches,
+ * plate archives or a ResultsJournal, for trends such as a cell line's protein yield or a drug's viability
+ * over months of runs. A plate's names are resolved to ids through a SampleRegistry once, in one call, and
+ * values are grouped by id into arrays indexed by id, ids being dense, so adding a value is an array store.
+ * Summaries give count, mean, standard deviation, min, max and percentiles.
+ * 
+ * Samples without names are grouped under their generic name qualified with the source, Sample 1 (plate.xlsx),
+ * as in ResultsJournal, so unnamed plates from unrelated runs are not pooled under one name.
+ * 
+ * Results of the other assay are skipped, a CONCENTRATION history only takes BCA samples. Not thread safe.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class SampleHistory {
+	private final SampleMetric metric;
+	private final SampleRegistry registry;
+	private long fromMillis = Long.MIN_VALUE;
+	private long toMillis = Long.MAX_VALUE;
+	
+	// Indexed by registry id
+	private double[][] values = new double[64][];
+	private long[][] times = new long[64][];
+	private int[] counts = new int[64];
+	
+	/**
+	 * Creates history with its own registry.
+	 * 
+	 * @param metric value aggregated
+	 */
+	public SampleHistory(SampleMetric metric) {
+		this(metric, new SampleRegistry());
+	}
+	
+	/**
+	 * Creates history grouping by ids of registry, a registry shared by several histories gives the same ids in each.
+	 * 
+	 * @param metric value aggregated
+	 * @param registry
+	 */
+	public SampleHistory(SampleMetric metric, SampleRegistry registry) {
+		this.metric = metric;
+		this.registry = registry;
+	}
+	
+	/**
+	 * Only keeps results with plate times in a range, applies to results added afterwards.
+	 * 
+	 * @param fromMillis earliest time, inclusive
+	 * @param toMillis latest time, exclusive
+	 * @return this
+	 */
+	public SampleHistory setTimeRange(long fromMillis, long toMillis) {
+		this.fromMillis = fromMillis;
+		this.toMillis = toMillis;
+		return this;
+	}
+	
+	public SampleMetric getMetric() {
+		return metric;
+	}
+	
+	public SampleRegistry getRegistry() {
+		return registry;
+	}
+	
+	/**
+	 * Adds a loaded result at its creation time, generic names being qualified with that time.
+	 * 
+	 * @param data BCAData or CTGData
+	 */
+	public void add(PlateData data) {
+		add(source(data.getCreationTime()), data);
+	}
+	
+	/**
+	 * Adds a loaded result at its creation time.
+	 * 
+	 * @param source label generic names are qualified with, usually the file name
+	 * @param data BCAData or CTGData
+	 */
+	public void add(String source, PlateData data) {
+		if(data instanceof BCAData) {
+			addBCA(source, (BCAData) data, data.getCreationTime());
+		}else if(data instanceof CTGData) {
+			addCTG(source, (CTGData) data, data.getCreationTime());
+		}
+	}
+	
+	/**
+	 * Adds every result of a batch, generic names being qualified with the file name.
+	 * 
+	 * @param batch
+	 */
+	public void add(BatchResult batch) {
+		for(Map.Entry<Path, PlateData> e: batch.getResults().entrySet()) {
+			add(e.getKey().getFileName().toString(), e.getValue());
+		}
+	}
+	
+	/**
+	 * Adds every journaled result in the time range, reading postings name by name. Names are copied into
+	 * this history's registry, the journal's dictionary is never changed.
+	 * 
+	 * @param journal
+	 * @throws IOException
+	 */
+	public void add(ResultsJournal journal) throws IOException{
+		List<String> names = journal.getSampleNames();
+		for(int id = 0; id < names.size(); id++) {
+			int target = registry.intern(names.get(id));
+			for(JournalEntry entry: journal.history(id, fromMillis, toMillis, Integer.MAX_VALUE)) {
+				if(entry.getAssayType() == metric.getAssayType()) {
+					add(target, entry.getTimestamp(), value(entry));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Analyses archived plates of the metric's assay and adds them at their archived times, generic
+	 * names being qualified with that time.
+	 * 
+	 * @param archive
+	 * @param options analysis parameters for BCA plates
+	 * @throws Exception if a plate cannot be analysed
+	 */
+	public void add(PlateArchive archive, AnalysisOptions options) throws Exception{
+		for(int i = 0; i < archive.size(); i++) {
+			ArchivedPlate plate = archive.get(i);
+			if(plate.getAssayType() != metric.getAssayType() || !inRange(plate.getTimestamp())) {
+				continue;
+			}
+			
+			ArrayList<String> names = plate.getSampleNames();
+			if(names.isEmpty()) {
+				names = null;
+			}
+			if(metric.getAssayType() == AssayType.BCA) {
+				BCAData bca = new BCAData(plate.getMatrix(), options.getSpecifiedUg(), options.getReplicateNum(), names);
+				addBCA(source(plate.getTimestamp()), PlateBatch.configure(bca, options), plate.getTimestamp());
+			}else {
+				addCTG(source(plate.getTimestamp()), new CTGData(Collections.singletonList(plate.getMatrix()), names), plate.getTimestamp());
+			}
+		}
+	}
+	
+	/**
+	 * Adds one value.
+	 * 
+	 * @param name sample or data set name
+	 * @param timestamp milliseconds since epoch
+	 * @param value
+	 */
+	public void add(String name, long timestamp, double value) {
+		if(inRange(timestamp)) {
+			add(registry.intern(name), timestamp, value);
+		}
+	}
+	
+	private void addBCA(String source, BCAData bca, long timestamp) {
+		if(metric.getAssayType() != AssayType.BCA || !inRange(timestamp)) {
+			return;
+		}
+		
+		DoubleColumn.View column;
+		switch(metric) {
+		case AVERAGE_ABSORBANCE:
+			column = bca.getSampleAvgColumn();
+			break;
+		case CONCENTRATION:
+			column = bca.getConcentrationColumn();
+			break;
+		default:
+			column = bca.getLoadVolumeColumn();
+			break;
+		}
+		
+		ArrayList<String> names = bca.getSampleNames();
+		boolean provided = bca.hasProvidedSampleNames();
+		ArrayList<String> keys = new ArrayList<>(column.size());
+		for(int i = 0; i < column.size(); i++) {
+			String name = names.get(i);
+			keys.add(provided ? name : SampleRegistry.qualified(name, source));
+		}
+		
+		int[] ids = registry.intern(keys);
+		for(int i = 0; i < ids.length; i++) {
+			add(ids[i], timestamp, column.get(i));
+		}
+	}
+	
+	private void addCTG(String source, CTGData ctg, long timestamp) {
+		if(metric.getAssayType() != AssayType.CTG || !inRange(timestamp)) {
+			return;
+		}
+		
+		ArrayList<double[][]> dataSets = ctg.getDataSets();
+		ArrayList<String> names = ctg.getDataSetNames();
+		ArrayList<String> keys = new ArrayList<>(dataSets.size());
+		for(int i = 0; i < dataSets.size(); i++) {
+			keys.add((names != null && i < names.size()) ? names.get(i) : SampleRegistry.qualified("Data Set " + (i + 1), source));
+		}
+		
+		int[] ids = registry.intern(keys);
+		for(int i = 0; i < ids.length; i++) {
+			double value = (metric == SampleMetric.VIABILITY) ? mean(dataSets.get(i)) : ctg.getControlAverage(i);
+			add(ids[i], timestamp, value);
+		}
+	}
+	
+	/**
+	 * Returns source of a result known only by its time, the time in ISO 8601.
+	 */
+	private static String source(long timestamp) {
+		return Instant.ofEpochMilli(timestamp).toString();
+	}
+	
+	private double value(JournalEntry entry) {
+		switch(metric) {
+		case AVERAGE_ABSORBANCE:
+			return entry.getAverage();
+		case CONCENTRATION:
+			return entry.getConcentration();
+		case LOAD_VOLUME:
+			return entry.getLoadVolume();
+		case VIABILITY:
+			return entry.getMeanNormalized();
+		default:
+			return entry.getControlAverage();
+		}
+	}
+	
+	private static double mean(double[][] dataSet) {
+		double sum = 0;
+		int n = 0;
+		for(double[] row: dataSet) {
+			for(double e: row) {
+				sum += e;
+				n++;
+			}
+		}
+		return sum / n;
+	}
+	
+	private boolean inRange(long timestamp) {
+		return timestamp >= fromMillis && timestamp < toMillis;
+	}
+	
+	/**
+	 * Adds value to the group of an id, growing arrays by doubling.
+	 */
+	void add(int id, long timestamp, double value) {
+		if(id >= counts.length) {
+			int length = Math.max(id + 1, counts.length * 2);
+			values = Arrays.copyOf(values, length);
+			times = Arrays.copyOf(times, length);
+			counts = Arrays.copyOf(counts, length);
+		}
+		
+		int n = counts[id];
+		if(values[id] == null) {
+			values[id] = new double[8];
+			times[id] = new long[8];
+		}else if(n == values[id].length) {
+			values[id] = Arrays.copyOf(values[id], n * 2);
+			times[id] = Arrays.copyOf(times[id], n * 2);
+		}
+		values[id][n] = value;
+		times[id][n] = timestamp;
+		counts[id] = n + 1;
+	}
+	
+	/**
+	 * Returns number of values added for a name.
+	 * 
+	 * @param name
+	 * @return count, 0 if name has none
+	 */
+	public int getCount(String name) {
+		int id = registry.find(name);
+		return (id < 0 || id >= counts.length) ? 0 : counts[id];
+	}
+	
+	/**
+	 * Returns summary of a name's values.
+	 * 
+	 * @param name
+	 * @return summary, null if name has no values
+	 */
+	public Summary getSummary(String name) {
+		int id = registry.find(name);
+		return (id < 0 || id >= counts.length || counts[id] == 0) ? null : new Summary(id);
+	}
+	
+	/**
+	 * Returns summary of every name with values, in id order.
+	 * 
+	 * @return summaries
+	 */
+	public List<Summary> getSummaries() {
+		List<Summary> summaries = new ArrayList<>();
+		for(int id = 0; id < counts.length; id++) {
+			if(counts[id] > 0) {
+				summaries.add(new Summary(id));
+			}
+		}
+		return summaries;
+	}
+	
+	/**
+	 * Returns a text table of every name's summary.
+	 * 
+	 * @return table
+	 */
+	public String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-20s %6s %12s %12s %12s %12s %12s %12s%n", metric, "n", "mean", "SD", "min", "median", "p95", "max"));
+		for(Summary s: getSummaries()) {
+			sb.append(String.format("%-20s %6d %12.4f %12.4f %12.4f %12.4f %12.4f %12.4f%n", s.getName(), s.getCount(), s.getMean(),
+					s.getSD(), s.getMin(), s.getPercentile(0.5), s.getPercentile(0.95), s.getMax()));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Statistics of one name's values at the time the summary was taken. NaN values are left out of
+	 * everything but getCount.
+	 */
+	public final class Summary {
+		private final int id;
+		private final int count;
+		private final double[] sorted;
+		private final double mean;
+		private final double sd;
+		private final long first;
+		private final long last;
+		
+		private Summary(int id) {
+			this.id = id;
+			this.count = counts[id];
+			
+			double[] v = values[id];
+			long[] t = times[id];
+			double[] kept = new double[count];
+			int n = 0;
+			long min = Long.MAX_VALUE;
+			long max = Long.MIN_VALUE;
+			for(int i = 0; i < count; i++) {
+				min = Math.min(min, t[i]);
+				max = Math.max(max, t[i]);
+				if(!Double.isNaN(v[i])) {
+					kept[n++] = v[i];
+				}
+			}
+			sorted = Arrays.copyOf(kept, n);
+			Arrays.sort(sorted);
+			first = min;
+			last = max;
+			
+			// Two pass for accuracy, values are few next to the cost of reading them
+			double sum = 0;
+			for(double e: sorted) {
+				sum += e;
+			}
+			mean = (n == 0) ? Double.NaN : sum / n;
+			double ss = 0;
+			for(double e: sorted) {
+				ss += (e - mean) * (e - mean);
+			}
+			sd = (n < 2) ? Double.NaN : Math.sqrt(ss / (n - 1));
+		}
+		
+		public int getId() {
+			return id;
+		}
+		
+		public String getName() {
+			return registry.getName(id);
+		}
+		
+		/**
+		 * Returns number of values added.
+		 * 
+		 * @return count
+		 */
+		public int getCount() {
+			return count;
+		}
+		
+		public double getMean() {
+			return mean;
+		}
+		
+		/**
+		 * Returns sample standard deviation.
+		 * 
+		 * @return standard deviation, NaN with fewer than two values
+		 */
+		public double getSD() {
+			return sd;
+		}
+		
+		public double getMin() {
+			return (sorted.length == 0) ? Double.NaN : sorted[0];
+		}
+		
+		public double getMax() {
+			return (sorted.length == 0) ? Double.NaN : sorted[sorted.length - 1];
+		}
+		
+		/**
+		 * Returns percentile by linear interpolation between closest ranks, 0.5 for the median.
+		 * 
+		 * @param p fraction from 0 to 1
+		 * @return percentile
+		 */
+		public double getPercentile(double p) {
+			if(p < 0 || p > 1) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 1");
+			}
+			if(sorted.length == 0) {
+				return Double.NaN;
+			}
+			double h = (sorted.length - 1) * p;
+			int lo = (int) h;
+			int hi = Math.min(lo + 1, sorted.length - 1);
+			return sorted[lo] + (h - lo) * (sorted[hi] - sorted[lo]);
+		}
+		
+		/**
+		 * Returns earliest plate time of values.
+		 * 
+		 * @return milliseconds since epoch
+		 */
+		public long getFirstTimestamp() {
+			return first;
+		}
+		
+		/**
+		 * Returns latest plate time of values.
+		 * 
+		 * @return milliseconds since epoch
+		 */
+		public long getLastTimestamp() {
+			return last;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("%s n=%d mean=%.4f sd=%.4f min=%.4f median=%.4f max=%.4f", getName(), count, mean, sd, getMin(),
+					getPercentile(0.5), getMax());
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package PlateData;
+
+// enum class for result value SampleHistory aggregates, BCA sample values or CTG data set values
+public enum SampleMetric {
+	AVERAGE_ABSORBANCE, CONCENTRATION, LOAD_VOLUME, VIABILITY, CONTROL_AVERAGE;
+	
+	/**
+	 * Returns assay metric is taken from.
+	 * 
+	 * @return assay type
+	 */
+	public AssayType getAssayType() {
+		return (this == VIABILITY || this == CONTROL_AVERAGE) ? AssayType.CTG : AssayType.BCA;
+	}
+}
@@ -0,0 +1,143 @@
+package PlateData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SampleRegistry interns sample and data set names into stable int ids, numbered from 0 in order of first
+ * use, so results from many runs can be grouped by id instead of by string. Names are hashed once when
+ * interned and ids are dense, so per sample data can be held in arrays indexed by id. ResultsJournal keeps
+ * one for its dictionary, ids there are the same across runs of the program.
+ * 
+ * Generic names Sample 1, Sample 2, ... are cached and shared by every plate without sample names.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class SampleRegistry {
+	private static volatile String[] genericNames = new String[0];
+	
+	private final Map<String, Integer> ids = new HashMap<>();
+	private String[] names = new String[64];
+	private int size;
+	
+	/**
+	 * Returns id of a name, giving it the next id if it has not been seen.
+	 * 
+	 * @param name
+	 * @return id
+	 */
+	public synchronized int intern(String name) {
+		Integer id = ids.get(name);
+		if(id != null) {
+			return id;
+		}
+		
+		if(size == names.length) {
+			names = Arrays.copyOf(names, size * 2);
+		}
+		names[size] = name;
+		ids.put(name, size);
+		return size++;
+	}
+	
+	/**
+	 * Returns ids of a plate's names, interning new ones, resolved together under one lock.
+	 * 
+	 * @param names
+	 * @return id of each name, in list order
+	 */
+	public synchronized int[] intern(List<String> names) {
+		int[] result = new int[names.size()];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = intern(names.get(i));
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns id of a name without interning it.
+	 * 
+	 * @param name
+	 * @return id, -1 if name has not been interned
+	 */
+	public synchronized int find(String name) {
+		Integer id = ids.get(name);
+		return (id == null) ? -1 : id;
+	}
+	
+	/**
+	 * Returns name of an id.
+	 * 
+	 * @param id
+	 * @return name
+	 */
+	public synchronized String getName(int id) {
+		if(id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("Sample id " + id + " of " + size);
+		}
+		return names[id];
+	}
+	
+	/**
+	 * Returns number of names interned, ids run from 0 to size - 1.
+	 * 
+	 * @return size
+	 */
+	public synchronized int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns every name in id order.
+	 * 
+	 * @return names
+	 */
+	public synchronized List<String> getNames() {
+		return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(names).subList(0, size)));
+	}
+	
+	/**
+	 * Returns generic name qualified with the source it came from, Sample 1 (plate.xlsx), so unnamed 
+	 * samples of unrelated plates are not grouped under one name.
+	 * 
+	 * @param name generic sample or data set name
+	 * @param source usually the file name
+	 * @return qualified name
+	 */
+	public static String qualified(String name, String source) {
+		return name + " (" + source + ")";
+	}
+	
+	/**
+	 * Returns generic name of sample n, Sample n, the same String instance on every call.
+	 * 
+	 * @param n sample number, from 1
+	 * @return name
+	 */
+	public static String genericName(int n) {
+		if(n < 1) {
+			throw new IllegalArgumentException("Samples are numbered from 1");
+		}
+		String[] cached = genericNames;
+		if(n >= cached.length) {
+			synchronized(SampleRegistry.class) {
+				cached = genericNames;
+				if(n >= cached.length) {
+					String[] grown = Arrays.copyOf(cached, Math.max(n + 1, cached.length * 2));
+					for(int i = Math.max(1, cached.length); i < grown.length; i++) {
+						grown[i] = "Sample " + i;
+					}
+					genericNames = grown;
+					cached = grown;
+				}
+			}
+		}
+		return cached[n];
+	}
+}
@@ -0,0 +1,34 @@
+package PlateData;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * StageEvent is the Java Flight Recorder event written for each timed pipeline stage, so stages line up 
+ * with GC, allocation and I/O events in JDK Mission Control. Events are only created while a recording 
+ * is running, see PlateMetrics.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+@Name("PlateData.Stage")
+@Label("Plate Analysis Stage")
+@Description("One stage of reading or analysing a plate file")
+@Category({"PlateData"})
+@StackTrace(false)
+final class StageEvent extends jdk.jfr.Event {
+	@Label("Stage")
+	String stage;
+	
+	@Label("Wells")
+	long wells;
+	
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+}
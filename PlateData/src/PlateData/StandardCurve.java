@@ -0,0 +1,196 @@
+package PlateData;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.stat.regression.SimpleRegression;
+
+/**
+ * StandardCurve is the fitted relationship between background corrected absorbance and micrograms of protein
+ * for the Pierce BSA standard ladder, 0, 1, 2, 5, 10, 20 and 40 ug. A curve fitted once from a calibration 
+ * plate can be applied to any number of sample-only plates read with the same reagent, where every well holds
+ * an unknown. The blank absorbance of the calibration plate is kept with the curve so raw absorbances can be 
+ * converted directly. Curves are immutable, StandardCurveCache keeps them on disk as plain fields.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public final class StandardCurve {
+	private static final double[] LADDER_UG = {0, 1, 2, 5, 10, 20, 40}; //Micrograms of protein in standards A through G
+	public static final double SAMPLE_VOLUME_UL = 2.5; //Microliters of sample loaded per well
+	
+	private final double slope; //ug per absorbance unit
+	private final double intercept; //ug
+	private final double background; //Raw absorbance of blank standard
+	private final double rSquared;
+	private final double[] standardAbsorbances; //Background corrected, one per ladder step
+	private final long creationTime;
+	
+	private StandardCurve(double slope, double intercept, double background, double rSquared, double[] standardAbsorbances, long creationTime) {
+		this.slope = slope;
+		this.intercept = intercept;
+		this.background = background;
+		this.rSquared = rSquared;
+		this.standardAbsorbances = standardAbsorbances;
+		this.creationTime = creationTime;
+	}
+	
+	/**
+	 * Rebuilds a curve read back by StandardCurveCache with the values it was stored with.
+	 * 
+	 * @throws IllegalArgumentException if there is not one absorbance per ladder step
+	 */
+	static StandardCurve restore(double slope, double intercept, double background, double rSquared, double[] standardAbsorbances, long creationTime) {
+		if(standardAbsorbances.length != LADDER_UG.length) {
+			throw new IllegalArgumentException("Expected " + LADDER_UG.length + " standards, found " + standardAbsorbances.length);
+		}
+		return new StandardCurve(slope, intercept, background, rSquared, standardAbsorbances, creationTime);
+	}
+	
+	/**
+	 * Fits curve to background corrected standard averages by least squares, protein on absorbance.
+	 * 
+	 * @param standardAbsorbances one average per ladder step, blank first
+	 * @param background raw absorbance of blank standard
+	 * @return fitted curve
+	 * @throws IllegalArgumentException if there is not one absorbance per ladder step
+	 */
+	public static StandardCurve fit(double[] standardAbsorbances, double background) {
+		if(standardAbsorbances.length != LADDER_UG.length) {
+			throw new IllegalArgumentException("Expected " + LADDER_UG.length + " standards, found " + standardAbsorbances.length);
+		}
+		
+		SimpleRegression simpleRegression = new SimpleRegression(true);
+		for(int i = 0; i < LADDER_UG.length; i++) {
+			simpleRegression.addData(standardAbsorbances[i], LADDER_UG[i]);
+		}
+		
+		return new StandardCurve(simpleRegression.getSlope(), simpleRegression.getIntercept(), background, 
+				simpleRegression.getRSquare(), standardAbsorbances.clone(), System.currentTimeMillis());
+	}
+	
+	/**
+	 * Returns curve fitted from standards of a BCA plate.
+	 * 
+	 * @param calibration plate laid out with the standard ladder
+	 * @return fitted curve
+	 */
+	public static StandardCurve from(BCAData calibration) {
+		return calibration.getStandardCurve();
+	}
+	
+	/**
+	 * Returns micrograms of protein in each standard, blank first.
+	 * 
+	 * @return ladder in ug
+	 */
+	public static double[] getLadder() {
+		return LADDER_UG.clone();
+	}
+	
+	/**
+	 * Converts background corrected absorbance to sample concentration in ug/uL.
+	 * 
+	 * @param correctedAbsorbance absorbance minus blank
+	 * @return concentration ug/uL
+	 */
+	public double concentration(double correctedAbsorbance) {
+		return ((correctedAbsorbance*slope)+intercept)/SAMPLE_VOLUME_UL;
+	}
+	
+	/**
+	 * Converts raw absorbance to sample concentration in ug/uL, subtracting the calibration blank.
+	 * 
+	 * @param absorbance raw well reading
+	 * @return concentration ug/uL
+	 */
+	public double concentrationOfRaw(double absorbance) {
+		return concentration(absorbance - background);
+	}
+	
+	/**
+	 * Converts every well of a sample-only plate from raw absorbance to concentration in ug/uL.
+	 * 
+	 * @param plate raw absorbances
+	 * @return concentrations in row-major well order
+	 */
+	public double[] concentrations(PlateMatrix plate) {
+		double[] result = new double[plate.getWells()];
+		concentrations(plate, result, 0);
+		return result;
+	}
+	
+	/**
+	 * Converts every well of a sample-only plate from raw absorbance to concentration in ug/uL
+	 * into destination, so one array can be reused across plates. Blank subtraction, fit and 
+	 * dilution fold into a single multiply and add per well. Empty wells are not gated, they give
+	 * concentrations near or below zero.
+	 * 
+	 * @param plate raw absorbances
+	 * @param destination receives concentrations in row-major well order
+	 * @param offset position in destination
+	 */
+	public void concentrations(PlateMatrix plate, double[] destination, int offset) {
+		plate.transformInto(slope/SAMPLE_VOLUME_UL, (intercept - background*slope)/SAMPLE_VOLUME_UL, destination, offset);
+	}
+	
+	/**
+	 * Getter method for slope, ug per absorbance unit.
+	 * 
+	 * @return slope
+	 */
+	public double getSlope() {
+		return slope;
+	}
+	
+	/**
+	 * Getter method for intercept, ug.
+	 * 
+	 * @return intercept
+	 */
+	public double getIntercept() {
+		return intercept;
+	}
+	
+	/**
+	 * Returns raw absorbance of the calibration blank.
+	 * 
+	 * @return background
+	 */
+	public double getBackground() {
+		return background;
+	}
+	
+	/**
+	 * Returns coefficient of determination of fit.
+	 * 
+	 * @return rSquared
+	 */
+	public double getRSquared() {
+		return rSquared;
+	}
+	
+	/**
+	 * Returns background corrected standard averages the curve was fitted to.
+	 * 
+	 * @return copy of standard absorbances
+	 */
+	public double[] getStandardAbsorbances() {
+		return standardAbsorbances.clone();
+	}
+	
+	/**
+	 * Returns time curve was fitted in milliseconds since epoch.
+	 * 
+	 * @return creationTime
+	 */
+	public long getCreationTime() {
+		return creationTime;
+	}
+	
+	@Override
+	public String toString() {
+		return "StandardCurve[slope=" + slope + ", intercept=" + intercept + ", background=" + background 
+				+ ", rSquared=" + rSquared + ", standards=" + Arrays.toString(standardAbsorbances) + "]";
+	}
+}
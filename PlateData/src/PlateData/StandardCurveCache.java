@@ -0,0 +1,220 @@
+package PlateData;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StandardCurveCache keeps standard curves on disk under a key, usually the reagent lot or calibration plate 
+ * name, so many sample-only plates can be converted with one curve without refitting. Each put under a key 
+ * adds a new numbered version rather than replacing the old one, get returns the newest and older versions 
+ * stay available for re-running past analyses. Files carry a format version followed by the curve's fields
+ * written as plain values, slope, intercept, background, r squared, creation time and the ladder absorbances,
+ * so nothing is deserialized from a shared folder. Files written by an incompatible version, or that cannot
+ * be read back, are ignored so the curve is fitted again.
+ * 
+ * StandardCurveCache curves = new StandardCurveCache(Paths.get("curves"));
+ * StandardCurve curve = curves.getOrFit("lot-2291", calibrationFile, new AnalysisOptions());
+ * double[] concentrations = curve.concentrations(PlateTextReader.readFirstPlate(samplePlate));
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class StandardCurveCache {
+	static final int MAGIC = 0x53544443; //"STDC"
+	static final int FORMAT_VERSION = 2;	// 1 held a serialized StandardCurve and is no longer read
+	
+	private static final String SUFFIX = ".curve";
+	
+	private final Path dir;
+	private final Map<String, StandardCurve> latest = new HashMap<>();
+	private final Map<String, Integer> latestVersion = new HashMap<>();
+	
+	/**
+	 * Opens cache in directory, creating it if needed.
+	 * 
+	 * @param dir
+	 * @throws IOException
+	 */
+	public StandardCurveCache(Path dir) throws IOException{
+		this.dir = Files.createDirectories(dir);
+	}
+	
+	/**
+	 * Stores curve as the next version under key.
+	 * 
+	 * @param key letters, digits, '.', '_' or '-'
+	 * @param curve
+	 * @return version number given to curve, starting at 1
+	 * @throws IOException
+	 */
+	public synchronized int put(String key, StandardCurve curve) throws IOException{
+		int version = getLatestVersion(key) + 1;
+		Path file = file(key, version);
+		Path temp = Files.createTempFile(dir, key, ".tmp");
+		
+		try {
+			try(DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))){
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeDouble(curve.getSlope());
+				out.writeDouble(curve.getIntercept());
+				out.writeDouble(curve.getBackground());
+				out.writeDouble(curve.getRSquared());
+				out.writeLong(curve.getCreationTime());
+				double[] absorbances = curve.getStandardAbsorbances();
+				out.writeInt(absorbances.length);
+				for(double a: absorbances) {
+					out.writeDouble(a);
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		
+		latest.put(key, curve);
+		latestVersion.put(key, version);
+		return version;
+	}
+	
+	/**
+	 * Returns newest readable curve stored under key.
+	 * 
+	 * @param key
+	 * @return curve or null if none is stored
+	 * @throws IOException
+	 */
+	public synchronized StandardCurve get(String key) throws IOException{
+		StandardCurve curve = latest.get(key);
+		if(curve != null) {
+			return curve;
+		}
+		
+		for(int version = getLatestVersion(key); version > 0; version--) {
+			curve = get(key, version);
+			if(curve != null) {
+				latest.put(key, curve);
+				return curve;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns a given version of the curve stored under key.
+	 * 
+	 * @param key
+	 * @param version
+	 * @return curve or null if version does not exist, was written in an incompatible format or cannot be read
+	 * @throws IOException
+	 */
+	public synchronized StandardCurve get(String key, int version) throws IOException{
+		Path file = file(key, version);
+		if(!Files.isRegularFile(file)) {
+			return null;
+		}
+		
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))){
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			double slope = in.readDouble();
+			double intercept = in.readDouble();
+			double background = in.readDouble();
+			double rSquared = in.readDouble();
+			long creationTime = in.readLong();
+			int standards = in.readInt();
+			if(standards != StandardCurve.getLadder().length) {
+				return null;
+			}
+			double[] absorbances = new double[standards];
+			for(int i = 0; i < standards; i++) {
+				absorbances[i] = in.readDouble();
+			}
+			return StandardCurve.restore(slope, intercept, background, rSquared, absorbances, creationTime);
+		} catch (IOException e) {
+			return null;	// Truncated or corrupt, treated as missing so the curve is fitted again
+		}
+	}
+	
+	/**
+	 * Returns curve under key, fitting it from the standards of calibration plate and storing it if none is stored.
+	 * 
+	 * @param key
+	 * @param calibrationPlate BCA plate file holding the standard ladder
+	 * @param options replicates and plate format of calibration plate
+	 * @return curve
+	 * @throws Exception if calibration plate cannot be read
+	 */
+	public StandardCurve getOrFit(String key, Path calibrationPlate, AnalysisOptions options) throws Exception{
+		synchronized(this) {
+			StandardCurve curve = get(key);
+			if(curve != null) {
+				return curve;
+			}
+		}
+		
+		StandardCurve curve = ((BCAData) PlateBatch.analyse(calibrationPlate, AssayType.BCA, options)).getStandardCurve();
+		
+		synchronized(this) {
+			StandardCurve stored = get(key);
+			if(stored != null) {
+				return stored;	// Fitted by another thread meanwhile
+			}
+			put(key, curve);
+			return curve;
+		}
+	}
+	
+	/**
+	 * Returns newest version number stored under key, 0 if there is none.
+	 * 
+	 * @param key
+	 * @return version
+	 * @throws IOException
+	 */
+	public synchronized int getLatestVersion(String key) throws IOException{
+		Integer cached = latestVersion.get(key);
+		if(cached != null) {
+			return cached;
+		}
+		
+		checkKey(key);
+		int version = 0;
+		String prefix = key + ".v";
+		
+		try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*" + SUFFIX)){
+			for(Path p: stream) {
+				String name = p.getFileName().toString();
+				try {
+					version = Math.max(version, Integer.parseInt(name.substring(prefix.length(), name.length() - SUFFIX.length())));
+				} catch (NumberFormatException e) {
+					// Not a curve version file
+				}
+			}
+		}
+		
+		latestVersion.put(key, version);
+		return version;
+	}
+	
+	private Path file(String key, int version) {
+		checkKey(key);
+		return dir.resolve(key + ".v" + version + SUFFIX);
+	}
+	
+	private static void checkKey(String key) {
+		if(key.isEmpty() || !key.matches("[A-Za-z0-9._-]+")) {
+			throw new IllegalArgumentException("Curve key may only hold letters, digits, '.', '_' or '-': " + key);
+		}
+	}
+}
@@ -0,0 +1,6 @@
+package PlateData;
+
+// enum class for what a well holds in a PlateLayout
+public enum WellRole {
+	BLANK, STANDARD, SAMPLE, CONTROL, DOSE
+}
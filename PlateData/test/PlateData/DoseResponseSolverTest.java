@@ -0,0 +1,97 @@
+package PlateData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the Levenberg-Marquardt four parameter logistic fit on curves with known parameters.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class DoseResponseSolverTest {
+	private static final double[] CURVE = {5, 100, Math.log10(0.2), 1.2};	// Bottom, top, log10 IC50 in uM, hill
+
+	/**
+	 * Returns log10 doses of the 96 well dose columns.
+	 */
+	private static double[] logDoses() {
+		String[] labels = CTGData.columnLabels(12);
+		double[] x = new double[8];
+		for(int k = 0; k < x.length; k++) {
+			x[k] = Math.log10(DoseResponseEngine.parseDose(labels[k + 2]));
+		}
+		return x;
+	}
+
+	private static double[] responses(double[] x, double[] p) {
+		double[] y = new double[x.length];
+		for(int i = 0; i < x.length; i++) {
+			y[i] = DoseResponseSolver.evaluate(p, x[i]);
+		}
+		return y;
+	}
+
+	private static void assertCurve(double[] expected, double[] actual, double delta) {
+		for(int i = 0; i < DoseResponseSolver.PARAMETERS; i++) {
+			assertEquals(expected[i], actual[i], delta);
+		}
+	}
+
+	@Test
+	public void recoversKnownCurveFromGuess() {
+		double[] x = logDoses();
+		DoseResponseSolver solver = new DoseResponseSolver(x.length);
+
+		double[] p = solver.fit(x, responses(x, CURVE), x.length, null);
+
+		assertTrue(solver.isConverged());
+		assertTrue(solver.getIterations() <= DoseResponseSolver.MAX_ITERATIONS);
+		assertEquals(0, solver.getSse(), 1e-12);
+		assertCurve(CURVE, p, 1e-5);
+	}
+
+	@Test
+	public void recoversKnownCurveFromWarmStart() {
+		double[] x = logDoses();
+		DoseResponseSolver solver = new DoseResponseSolver(x.length);
+
+		double[] p = solver.fit(x, responses(x, CURVE), x.length, new double[] {0, 90, Math.log10(1), 0.8});
+
+		assertTrue(solver.isConverged());
+		assertCurve(CURVE, p, 1e-5);
+	}
+
+	@Test
+	public void engineFitsEveryRowOfDataSet() {
+		double[] x = logDoses();
+		double[] y = responses(x, CURVE);
+		double[][] dataSet = new double[4][12];
+		for(double[] row: dataSet) {
+			row[0] = row[1] = row[10] = row[11] = 100;
+			System.arraycopy(y, 0, row, 2, y.length);
+		}
+
+		DoseResponseFit[] fits = new DoseResponseEngine(CTGData.columnLabels(12)).fit(dataSet, 0);
+
+		assertEquals(4, fits.length);
+		for(DoseResponseFit fit: fits) {
+			assertTrue(fit.isConverged());
+			assertEquals(0.2, fit.getIC50(), 1e-5);
+			assertEquals(1.2, fit.getHill(), 1e-5);
+			assertEquals(1.0, fit.getRSquared(), 1e-9);
+		}
+	}
+
+	@Test
+	public void parseDoseReadsUnits() {
+		assertEquals(0.003, DoseResponseEngine.parseDose("0.003uM"), 1e-15);
+		assertEquals(0.1, DoseResponseEngine.parseDose("100 nM"), 1e-15);
+		assertEquals(1000, DoseResponseEngine.parseDose("1mM"), 1e-12);
+		assertTrue(Double.isNaN(DoseResponseEngine.parseDose("control")));
+		assertTrue(Double.isNaN(DoseResponseEngine.parseDose("column 3")));
+	}
+}
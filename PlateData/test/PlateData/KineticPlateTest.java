@@ -0,0 +1,167 @@
+package PlateData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for KineticPlate running sums against a brute force fit of every read of the run.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class KineticPlateTest {
+	private static final int WINDOW = 5;
+
+	/**
+	 * Returns reads of a noisy rising curve for every well, read k of well w at [k][w], with a different
+	 * rate and lag per well.
+	 */
+	private static double[][] series(double[] times, int wells, long seed) {
+		Random random = new Random(seed);
+		double end = times[times.length - 1];
+		double[][] values = new double[times.length][wells];
+		for(int w = 0; w < wells; w++) {
+			double mid = end * (0.2 + 0.6 * w / wells);
+			double rate = 4 + w % 7;
+			for(int k = 0; k < times.length; k++) {
+				values[k][w] = 0.1 + 2 / (1 + Math.exp(-rate * (times[k] - mid) / end)) + 0.01 * random.nextGaussian();
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns read times with uneven gaps.
+	 */
+	private static double[] times(int reads, long seed) {
+		Random random = new Random(seed);
+		double[] times = new double[reads];
+		for(int k = 1; k < reads; k++) {
+			times[k] = times[k - 1] + 20 + 20 * random.nextDouble();
+		}
+		return times;
+	}
+
+	private static KineticPlate run(double[] times, double[][] values) throws Exception {
+		KineticPlate kinetic = new KineticPlate(PlateFormat.WELLS_96, 30, WINDOW);
+		for(int k = 0; k < times.length; k++) {
+			PlateMatrix read = new PlateMatrix(PlateFormat.WELLS_96);
+			for(int w = 0; w < read.getWells(); w++) {
+				read.set(w, values[k][w]);
+			}
+			kinetic.addRead(times[k], read);
+		}
+		return kinetic;
+	}
+
+	/**
+	 * Returns least squares slope of well w over reads from to to, exclusive.
+	 */
+	private static double slope(double[] times, double[][] values, int w, int from, int to) {
+		int n = to - from;
+		double meanT = 0;
+		double meanY = 0;
+		for(int k = from; k < to; k++) {
+			meanT += times[k] / n;
+			meanY += values[k][w] / n;
+		}
+		double ty = 0;
+		double tt = 0;
+		for(int k = from; k < to; k++) {
+			ty += (times[k] - meanT) * (values[k][w] - meanY);
+			tt += (times[k] - meanT) * (times[k] - meanT);
+		}
+		return ty / tt;
+	}
+
+	private static void assertMatchesBruteForce(KineticPlate kinetic, double[] times, double[][] values, double delta) {
+		PlateMatrix slopes = kinetic.getSlopes();
+		PlateMatrix vmaxes = kinetic.getVmax();
+		PlateMatrix areas = kinetic.getAUC();
+		for(int w = 0; w < slopes.getWells(); w++) {
+			double vmax = Double.NEGATIVE_INFINITY;
+			double auc = 0;
+			for(int k = 0; k + WINDOW <= times.length; k++) {
+				vmax = Math.max(vmax, slope(times, values, w, k, k + WINDOW));
+			}
+			for(int k = 1; k < times.length; k++) {
+				auc += 0.5 * (times[k] - times[k - 1]) * (values[k][w] + values[k - 1][w]);
+			}
+
+			assertEquals(slope(times, values, w, 0, times.length), slopes.get(w), delta);
+			assertEquals(vmax, vmaxes.get(w), delta);
+			assertEquals(auc, areas.get(w), delta * auc);
+		}
+	}
+
+	@Test
+	public void runningSumsMatchBruteForceFit() throws Exception {
+		double[] times = times(60, 1);
+		double[][] values = series(times, 96, 2);
+
+		KineticPlate kinetic = run(times, values);
+
+		assertEquals(60, kinetic.getReadCount());
+		assertEquals(times[59], kinetic.getElapsedSeconds(), 1e-9);
+		assertMatchesBruteForce(kinetic, times, values, 1e-9);
+	}
+
+	@Test
+	public void vmaxTimeAndLagComeFromSteepestWindow() throws Exception {
+		double[] times = times(40, 3);
+		double[][] values = series(times, 96, 4);
+
+		KineticPlate kinetic = run(times, values);
+
+		PlateMatrix vmaxTimes = kinetic.getVmaxTimes();
+		PlateMatrix lags = kinetic.getLagTimes();
+		for(int w = 0; w < 96; w++) {
+			int steepest = 0;
+			for(int k = 1; k + WINDOW <= times.length; k++) {
+				if(slope(times, values, w, k, k + WINDOW) > slope(times, values, w, steepest, steepest + WINDOW)) {
+					steepest = k;
+				}
+			}
+			double meanT = 0;
+			double meanY = 0;
+			for(int k = steepest; k < steepest + WINDOW; k++) {
+				meanT += times[k] / WINDOW;
+				meanY += values[k][w] / WINDOW;
+			}
+			double lag = Math.max(0, meanT - (meanY - values[0][w]) / slope(times, values, w, steepest, steepest + WINDOW));
+
+			assertEquals(meanT, vmaxTimes.get(w), 1e-9);
+			assertEquals(lag, lags.get(w), 1e-6);
+		}
+	}
+
+	@Test
+	public void longRunStaysOnBruteForceFit() throws Exception {
+		// Past the point the window sums are recomputed from the ring
+		double[] times = times(5000, 5);
+		double[][] values = series(times, 96, 6);
+
+		KineticPlate kinetic = run(times, values);
+
+		assertMatchesBruteForce(kinetic, times, values, 1e-7);
+		for(int age = 0; age < WINDOW; age++) {
+			assertEquals(values[4999 - age][17], kinetic.getRecentRead(age).get(17), 0);
+		}
+	}
+
+	@Test
+	public void ratesAreNaNBeforeWindowReads() throws Exception {
+		double[] times = times(WINDOW - 1, 7);
+
+		KineticPlate kinetic = run(times, series(times, 96, 8));
+
+		assertTrue(Double.isNaN(kinetic.getVmax().get(0)));
+		assertTrue(Double.isNaN(kinetic.getLagTimes().get(0)));
+		assertTrue(!Double.isNaN(kinetic.getSlopes().get(0)));
+	}
+}
@@ -0,0 +1,103 @@
+package PlateData;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests for PlateArchive and PlateArchiveWriter recovering from records cut short by a crash.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateArchiveTest {
+
+	/**
+	 * Returns 96 well plate with every well set to value.
+	 */
+	private static PlateMatrix plate(double value) {
+		PlateMatrix plate = new PlateMatrix(PlateFormat.WELLS_96);
+		for(int i = 0; i < plate.getWells(); i++) {
+			plate.set(i, value + i / 1000.0);
+		}
+		return plate;
+	}
+
+	private static Path archive() throws IOException {
+		Path file = Files.createTempFile("archive", ".plta");
+		Files.delete(file);
+		file.toFile().deleteOnExit();
+		return file;
+	}
+
+	private static void write(Path file, double... values) throws IOException {
+		try(PlateArchiveWriter writer = new PlateArchiveWriter(file)){
+			for(double value: values) {
+				writer.write(plate(value), 1000, AssayType.CTG, Arrays.asList("Top", "Bottom"));
+			}
+		}
+	}
+
+	private static void truncate(Path file, long bytes) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+			channel.truncate(channel.size() - bytes);
+		}
+	}
+
+	@Test
+	public void readerIgnoresTornLastRecord() throws IOException {
+		Path file = archive();
+		write(file, 1, 2);
+		truncate(file, 400);
+
+		try(PlateArchive archive = new PlateArchive(file)){
+			assertEquals(1, archive.size());
+			assertEquals(1.0, archive.get(0).getMatrix().get(0), 0);
+		}
+	}
+
+	@Test
+	public void writerAppendsAfterLastWholeRecord() throws IOException {
+		Path file = archive();
+		write(file, 1, 2);
+		truncate(file, 400);
+		write(file, 3);
+
+		try(PlateArchive archive = new PlateArchive(file)){
+			assertEquals(2, archive.size());
+			assertEquals(1.0, archive.get(0).getMatrix().get(0), 0);
+			assertEquals(3.0, archive.get(1).getMatrix().get(0), 0);
+			assertEquals(3.095, archive.get(1).getMatrix().get(95), 1e-12);
+		}
+	}
+
+	@Test
+	public void writerDropsZeroLengthRecord() throws IOException {
+		Path file = archive();
+		write(file, 1);
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+			ByteBuffer torn = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+			torn.putInt(PlateArchiveFormat.RECORD_MAGIC).putInt(0).clear();
+			channel.write(torn, channel.size());
+		}
+
+		try(PlateArchive archive = new PlateArchive(file)){
+			assertEquals(1, archive.size());
+		}
+		write(file, 2);
+		try(PlateArchive archive = new PlateArchive(file)){
+			assertEquals(2, archive.size());
+			assertEquals(2.0, archive.get(1).getMatrix().get(0), 0);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package PlateData;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for PlateLayout compiling declared groups into well index and group offset arrays, for the readme
+ * BCA and CTG layouts and for masked wells.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateLayoutTest {
+
+	/**
+	 * Returns plate of given size with each well holding its row-major index.
+	 */
+	private static PlateMatrix indexPlate(int rows, int columns) {
+		PlateMatrix plate = new PlateMatrix(rows, columns);
+		for(int i = 0; i < plate.getWells(); i++) {
+			plate.set(i, i);
+		}
+		return plate;
+	}
+
+	@Test
+	public void bcaDuplicateLayoutMatchesReadme() {
+		PlateLayout layout = PlateLayout.bca(8, 12, ReplicateNum.DUPLICATE);
+
+		assertArrayEquals(new int[] {0, 1}, layout.getWells(WellRole.BLANK));
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6}, layout.getLevels(WellRole.STANDARD));
+		assertArrayEquals(new int[] {0, 1, 12, 13, 24, 25, 36, 37, 48, 49, 60, 61, 72, 73}, layout.getWells(WellRole.STANDARD));
+		assertEquals(40, layout.getGroupCount(WellRole.SAMPLE));
+
+		// Samples run down each pair of columns before moving right
+		double[] means = layout.means(indexPlate(8, 12), WellRole.SAMPLE);
+		assertEquals(2.5, means[0], 0);
+		assertEquals(14.5, means[1], 0);
+		assertEquals(4.5, means[8], 0);
+		assertEquals(94.5, means[39], 0);
+	}
+
+	@Test
+	public void bcaTriplicateLayoutFillsWholeColumnGroups() {
+		PlateLayout layout = PlateLayout.bca(8, 12, ReplicateNum.TRIPLICATE);
+
+		assertArrayEquals(new int[] {0, 1, 2}, layout.getWells(WellRole.BLANK));
+		assertEquals(24, layout.getGroupCount(WellRole.SAMPLE));
+		assertEquals(72, layout.getWells(WellRole.SAMPLE).length);
+		assertEquals(94, layout.means(indexPlate(8, 12), WellRole.SAMPLE)[23], 0);
+	}
+
+	@Test
+	public void ctgLayoutPoolsControlColumns() {
+		PlateLayout layout = PlateLayout.ctg(4, 12);
+
+		assertEquals(1, layout.getGroupCount(WellRole.CONTROL));
+		assertArrayEquals(new int[] {0, 12, 24, 36, 1, 13, 25, 37, 10, 22, 34, 46, 11, 23, 35, 47}, layout.getWells(WellRole.CONTROL));
+		assertArrayEquals(new int[] {2, 3, 4, 5, 6, 7, 8, 9}, layout.getLevels(WellRole.DOSE));
+
+		double[] means = layout.means(indexPlate(4, 12), WellRole.DOSE);
+		assertEquals(20, means[0], 0);
+		assertEquals(27, means[7], 0);
+		assertEquals(23.5, layout.mean(indexPlate(4, 12), WellRole.CONTROL), 0);
+		assertEquals(23.5, layout.mean(indexPlate(4, 12).toArray(), WellRole.CONTROL), 0);
+	}
+
+	@Test
+	public void standardLayoutsAreCompiledOnce() {
+		assertSame(PlateLayout.bca(8, 12, ReplicateNum.DUPLICATE), PlateLayout.bca(8, 12, ReplicateNum.DUPLICATE));
+		assertSame(PlateLayout.ctg(8, 12), PlateLayout.ctg(8, 12));
+		assertTrue(PlateLayout.ctg(8, 12) != PlateLayout.ctg(4, 12));
+	}
+
+	@Test
+	public void groupsAreOrderedByLevelWithWellsInDeclaredOrder() {
+		PlateLayout layout = PlateLayout.builder(2, 4)
+				.row(WellRole.SAMPLE, 5, 1, 0, 2)
+				.column(WellRole.SAMPLE, 2, 3, 0, 2)
+				.well(WellRole.SAMPLE, 5, 0, 0)
+				.build();
+
+		assertArrayEquals(new int[] {2, 5}, layout.getLevels(WellRole.SAMPLE));
+		assertArrayEquals(new int[] {3, 7, 4, 5, 0}, layout.getWells(WellRole.SAMPLE));
+		assertEquals(0, layout.getGroupCount(WellRole.BLANK));
+		assertEquals(0, layout.getWells(WellRole.BLANK).length);
+	}
+
+	@Test
+	public void excludedWellsAreDroppedFromEveryGroup() {
+		PlateLayout layout = PlateLayout.builder(2, 4)
+				.row(WellRole.SAMPLE, 0, 0, 0, 4)
+				.well(WellRole.SAMPLE, 1, 1, 2)
+				.well(WellRole.CONTROL, 0, 0, 1)
+				.exclude(0, 1)
+				.exclude(1, 2)
+				.build();
+
+		assertArrayEquals(new int[] {0, 2, 3}, layout.getWells(WellRole.SAMPLE));
+		assertEquals(2, layout.getGroupCount(WellRole.SAMPLE));
+		assertEquals(0, layout.getWells(WellRole.CONTROL).length);
+
+		double[] means = layout.means(indexPlate(2, 4), WellRole.SAMPLE);
+		assertEquals(5.0 / 3, means[0], 1e-15);
+		assertTrue(Double.isNaN(means[1]));
+		assertTrue(Double.isNaN(layout.mean(indexPlate(2, 4), WellRole.CONTROL)));
+	}
+
+	@Test
+	public void wellDeclaredTwiceCountsTwice() {
+		PlateLayout layout = PlateLayout.builder(1, 3)
+				.row(WellRole.STANDARD, 0, 0, 0, 3)
+				.well(WellRole.STANDARD, 0, 0, 2)
+				.build();
+
+		assertEquals(1.25, layout.means(indexPlate(1, 3), WellRole.STANDARD)[0], 0);
+	}
+}
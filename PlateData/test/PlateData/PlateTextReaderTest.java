@@ -0,0 +1,79 @@
+package PlateData;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+/**
+ * Tests for PlateTextReader on exports with trailing empty lines and decimal comma exports.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class PlateTextReaderTest {
+	private static final String ROW_LETTERS = "ABCDEFGH";
+
+	/**
+	 * Builds a 96 well export with a label row, each well value being row + column / 100.
+	 */
+	private static String plate(char delimiter, char decimalSeparator) {
+		StringBuilder sb = new StringBuilder();
+		for(int j = 1; j <= 12; j++) {
+			sb.append(delimiter).append(j);
+		}
+		sb.append("\r\n");
+		for(int i = 0; i < 8; i++) {
+			sb.append(ROW_LETTERS.charAt(i));
+			for(int j = 0; j < 12; j++) {
+				sb.append(delimiter).append(i).append(decimalSeparator).append(String.format("%02d", j));
+			}
+			sb.append("\r\n");
+		}
+		return sb.toString();
+	}
+
+	private static ArrayList<PlateMatrix> read(String text) {
+		return PlateTextReader.readPlates(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), PlateFormat.WELLS_96);
+	}
+
+	@Test
+	public void trailingDelimiterLinesDoNotOpenPlate() {
+		String text = plate(',', '.') + ",,,,,,,,,,,,\r\n\r\n\r\n,,,,,,,,,,,,\r\n\r\n";
+
+		ArrayList<PlateMatrix> plates = read(text);
+
+		assertEquals(1, plates.size());
+		assertEquals(7.11, plates.get(0).get(7, 11), 1e-12);
+	}
+
+	@Test
+	public void stackedPlatesStillRead() {
+		String text = plate(',', '.') + "\r\n" + plate(',', '.') + "\r\n\r\n";
+
+		ArrayList<PlateMatrix> plates = read(text);
+
+		assertEquals(2, plates.size());
+		assertEquals(0.05, plates.get(1).get(0, 5), 1e-12);
+	}
+
+	@Test
+	public void semicolonExportReadsDecimalComma() {
+		ArrayList<PlateMatrix> plates = read(plate(';', ','));
+
+		assertEquals(1, plates.size());
+		assertEquals(0.01, plates.get(0).get(0, 1), 1e-12);
+		assertEquals(3.07, plates.get(0).get(3, 7), 1e-12);
+	}
+
+	@Test
+	public void semicolonExportAcceptsDecimalPoint() {
+		ArrayList<PlateMatrix> plates = read(plate(';', '.'));
+
+		assertEquals(5.04, plates.get(0).get(5, 4), 1e-12);
+	}
+}
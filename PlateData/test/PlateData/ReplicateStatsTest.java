@@ -0,0 +1,86 @@
+package PlateData;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for the Dixon and Grubbs replicate outlier tests and for outliers being flagged or left out by
+ * PlateLayout.replicateStats.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class ReplicateStatsTest {
+
+	/**
+	 * Returns one row plate holding values, with a layout putting every well in sample group 1.
+	 */
+	private static ReplicateStats stats(OutlierPolicy policy, OutlierTest test, double... values) {
+		PlateMatrix plate = new PlateMatrix(1, values.length);
+		for(int i = 0; i < values.length; i++) {
+			plate.set(i, values[i]);
+		}
+		PlateLayout layout = PlateLayout.builder(1, values.length).row(WellRole.SAMPLE, 1, 0, 0, values.length).build();
+
+		ReplicateStats stats = new ReplicateStats();
+		layout.replicateStats(plate, WellRole.SAMPLE, policy, test, BCAData.DEFAULT_CV_LIMIT, stats);
+		return stats;
+	}
+
+	@Test
+	public void grubbsCriticalValuesMatchTable() {
+		// Two sided 95% critical values
+		assertEquals(1.155, ReplicateStats.grubbsCritical(3), 1e-3);
+		assertEquals(1.481, ReplicateStats.grubbsCritical(4), 1e-3);
+		assertEquals(1.715, ReplicateStats.grubbsCritical(5), 1e-3);
+		assertEquals(2.290, ReplicateStats.grubbsCritical(10), 1e-3);
+		assertEquals(2.709, ReplicateStats.grubbsCritical(20), 1e-3);
+	}
+
+	@Test
+	public void dixonComparesLargerGapWithQ95() {
+		// Gap 0.99 of range 1, Q95 for 3 is 0.970
+		assertEquals(1, ReplicateStats.outlierSide(OutlierTest.DIXON, 3, 0, 0, 1.0, 1.01, 1.01, 2.0));
+		assertEquals(-1, ReplicateStats.outlierSide(OutlierTest.DIXON, 3, 0, 0, 0.0, 0.99, 0.99, 1.0));
+		// Gap 0.95 of range 1 is inside
+		assertEquals(0, ReplicateStats.outlierSide(OutlierTest.DIXON, 3, 0, 0, 1.0, 1.05, 1.05, 2.0));
+		assertEquals(0, ReplicateStats.outlierSide(OutlierTest.DIXON, 3, 0, 0, 1.0, 1.0, 1.0, 1.0));
+	}
+
+	@Test
+	public void grubbsComparesFurthestReplicate() {
+		// Mean 1.5, SD 1.0, largest replicate 1.5 SD out, critical value for 4 is 1.481
+		assertEquals(1, ReplicateStats.outlierSide(OutlierTest.GRUBBS, 4, 1.5, 1.0, 0.98, 1.0, 1.02, 3.0));
+		assertEquals(0, ReplicateStats.outlierSide(OutlierTest.GRUBBS, 4, 1.5, 1.1, 0.98, 1.0, 1.02, 3.0));
+		assertEquals(0, ReplicateStats.outlierSide(OutlierTest.GRUBBS, 4, 1.5, 0, 0.98, 1.0, 1.02, 3.0));
+	}
+
+	@Test
+	public void rejectLeavesOutlierOutOfMean() {
+		ReplicateStats stats = stats(OutlierPolicy.REJECT, OutlierTest.GRUBBS, 1.0, 1.02, 0.98, 3.0);
+
+		assertEquals(3, stats.getOutlier(0));
+		assertEquals(3, stats.getCount(0));
+		assertEquals(1.0, stats.getMean(0), 1e-12);
+		assertEquals(0.02, stats.getSD(0), 1e-12);
+	}
+
+	@Test
+	public void flagKeepsOutlierInMean() {
+		ReplicateStats stats = stats(OutlierPolicy.FLAG, OutlierTest.DIXON, 3.0, 1.0, 1.02);
+
+		assertEquals(0, stats.getOutlier(0));
+		assertEquals(3, stats.getCount(0));
+		assertEquals(5.02 / 3, stats.getMean(0), 1e-12);
+	}
+
+	@Test
+	public void groupsBelowCVLimitAreNotTested() {
+		ReplicateStats stats = stats(OutlierPolicy.REJECT, OutlierTest.GRUBBS, 1.0, 1.01, 0.99, 1.1);
+
+		assertEquals(-1, stats.getOutlier(0));
+		assertEquals(4, stats.getCount(0));
+	}
+}
@@ -0,0 +1,138 @@
+package PlateData;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for ResultsJournal reopening files left by a crash part way through an append.
+ *
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class ResultsJournalTest {
+	private static final String POSTINGS = "postings.idx";
+	private static final String NAMES = "names.dict";
+
+	/**
+	 * Returns CTG result of one 96 well plate with named top and bottom data sets.
+	 */
+	private static CTGData ctg(String top, String bottom) throws Exception {
+		PlateMatrix plate = new PlateMatrix(PlateFormat.WELLS_96);
+		for(int i = 0; i < plate.getWells(); i++) {
+			plate.set(i, 1000 + i);
+		}
+		return new CTGData(Collections.singletonList(plate), new ArrayList<>(Arrays.asList(top, bottom)));
+	}
+
+	private static Path journal() throws IOException {
+		Path dir = Files.createTempDirectory("journal");
+		dir.toFile().deleteOnExit();
+		return dir;
+	}
+
+	private static void append(Path dir, String source, String top, String bottom) throws Exception {
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			journal.append(source, ctg(top, bottom));
+		}
+	}
+
+	private static long size(Path dir, String file) throws IOException {
+		return Files.size(dir.resolve(file));
+	}
+
+	private static void truncate(Path dir, String file, long size) throws IOException {
+		try(FileChannel channel = FileChannel.open(dir.resolve(file), StandardOpenOption.WRITE)){
+			channel.truncate(size);
+		}
+	}
+
+	private static List<String> sources(ResultsJournal journal, String name) throws IOException {
+		List<String> sources = new ArrayList<>();
+		for(JournalEntry entry: journal.history(name)) {
+			sources.add(entry.getSource());
+		}
+		return sources;
+	}
+
+	@Test
+	public void tornPostingIsDropped() throws Exception {
+		Path dir = journal();
+		append(dir, "first.xlsx", "Top", "Bottom");
+		append(dir, "second.xlsx", "Top", "Bottom");
+		truncate(dir, POSTINGS, size(dir, POSTINGS) - 20);
+
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			assertEquals(3, journal.getEntryCount());
+			assertEquals(Arrays.asList("second.xlsx", "first.xlsx"), sources(journal, "Top"));
+			assertEquals(Arrays.asList("first.xlsx"), sources(journal, "Bottom"));
+
+			journal.append("third.xlsx", ctg("Top", "Bottom"));
+		}
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			assertEquals(5, journal.getEntryCount());
+			assertEquals(Arrays.asList("third.xlsx", "first.xlsx"), sources(journal, "Bottom"));
+		}
+	}
+
+	@Test
+	public void partialRecordWithoutPostingsIsSkipped() throws Exception {
+		Path dir = journal();
+		String segment = ResultsJournalFormat.segmentName(0);
+		append(dir, "first.xlsx", "Top", "Bottom");
+		long postings = size(dir, POSTINGS);
+		long records = size(dir, segment);
+		append(dir, "second.xlsx", "Top", "Bottom");
+		truncate(dir, POSTINGS, postings);
+		truncate(dir, segment, records + (size(dir, segment) - records) / 2 + 4);
+
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			assertEquals(2, journal.getEntryCount());
+			assertEquals(Arrays.asList("first.xlsx"), sources(journal, "Top"));
+
+			journal.append("third.xlsx", ctg("Top", "Bottom"));
+		}
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			assertEquals(Arrays.asList("third.xlsx", "first.xlsx"), sources(journal, "Top"));
+			assertEquals(Arrays.asList("third.xlsx", "first.xlsx"), sources(journal, "Bottom"));
+			List<JournalEntry> top = journal.history("Top");
+			assertEquals(top.get(1).getControlAverage(), top.get(0).getControlAverage(), 0);
+		}
+	}
+
+	@Test
+	public void tornNameIsDropped() throws Exception {
+		Path dir = journal();
+		String segment = ResultsJournalFormat.segmentName(0);
+		append(dir, "first.xlsx", "Top", "Bottom");
+		long names = size(dir, NAMES);
+		long postings = size(dir, POSTINGS);
+		long records = size(dir, segment);
+		append(dir, "second.xlsx", "Left", "Right");
+		truncate(dir, NAMES, names + 3);
+		truncate(dir, POSTINGS, postings);
+		truncate(dir, segment, records);
+
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			assertEquals(Arrays.asList("Top", "Bottom"), journal.getSampleNames());
+
+			journal.append("third.xlsx", ctg("Left", "Right"));
+		}
+		try(ResultsJournal journal = new ResultsJournal(dir)){
+			assertEquals(Arrays.asList("Top", "Bottom", "Left", "Right"), journal.getSampleNames());
+			assertEquals(Arrays.asList("third.xlsx"), sources(journal, "Left"));
+			assertEquals(Arrays.asList("first.xlsx"), sources(journal, "Top"));
+		}
+	}
+}
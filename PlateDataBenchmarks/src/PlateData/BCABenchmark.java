@@ -0,0 +1,67 @@
+package PlateData;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the full BCAData constructor in duplicate and triplicate layouts, and the standard curve
+ * fit in BCAData.lineOfBestFit on its own.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCABenchmark {
+	
+	@Param({"DUPLICATE", "TRIPLICATE"})
+	public ReplicateNum replicateNum;
+	
+	@Param({"WELLS_96", "WELLS_384"})
+	public PlateFormat format;
+	
+	@Param({"WORKBOOK", "STREAMING"})
+	public ReaderMode readerMode;
+	
+	private File file;
+	private BCAData plate;
+	
+	@Setup
+	public void setup() throws Exception{
+		file = SyntheticPlates.tempFile(format, 1);
+		try(FileInputStream in = new FileInputStream(file)){
+			plate = new BCAData(in, 20, replicateNum, null, readerMode, format);
+		}
+	}
+	
+	@Benchmark
+	public BCAData constructor() throws Exception{
+		try(FileInputStream in = new FileInputStream(file)){
+			return new BCAData(in, 20, replicateNum, null, readerMode, format);
+		}
+	}
+	
+	@Benchmark
+	public double lineOfBestFit() {
+		plate.lineOfBestFit();
+		return plate.getSlope();
+	}
+}
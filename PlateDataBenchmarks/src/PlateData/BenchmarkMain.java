@@ -0,0 +1,32 @@
+package PlateData;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every PlateData benchmark with the GC profiler attached so allocation rate (gc.alloc.rate.norm, 
+ * bytes per operation) is reported next to throughput and average time. Any standard JMH command line 
+ * options, for example a benchmark name pattern or -p plates=1, are passed through.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLine);
+		if(commandLine.getIncludes().isEmpty()) {
+			builder.include("PlateData\\..*Benchmark");
+		}
+		
+		Options options = builder.addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
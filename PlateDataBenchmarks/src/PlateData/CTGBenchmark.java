@@ -0,0 +1,91 @@
+package PlateData;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures CTGData construction, processRawData followed by control averaging and normalization, 
+ * and the control average and normalization step on its own over already read data sets, as separate
+ * loops and as the fused kernel.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CTGBenchmark {
+	
+	@Param({"1", "10", "100"})
+	public int plates;
+	
+	@Param({"WELLS_96", "WELLS_384"})
+	public PlateFormat format;
+	
+	@Param({"WORKBOOK", "STREAMING"})
+	public ReaderMode readerMode;
+	
+	private File file;
+	private ArrayList<double[][]> dataSets;
+	private double[] averages;
+	private double[] sds;
+	
+	@Setup
+	public void setup() throws Exception{
+		file = SyntheticPlates.tempFile(format, plates);
+		try(FileInputStream in = new FileInputStream(file)){
+			dataSets = new CTGData(in, null, readerMode, format).getDataSets();
+		}
+		averages = new double[dataSets.size()];
+		sds = new double[dataSets.size()];
+	}
+	
+	@Benchmark
+	public CTGData processRawDataAndNormalize() throws Exception{
+		try(FileInputStream in = new FileInputStream(file)){
+			return new CTGData(in, null, readerMode, format);
+		}
+	}
+	
+	/**
+	 * Data sets are already normalized so control average settles at 100 and 
+	 * repeated normalization keeps values stable between invocations.
+	 */
+	@Benchmark
+	public double normalizeDataSets() {
+		double last = 0;
+		for(double[][] e: dataSets) {
+			last = CTGData.controlAverage(e);
+			CTGData.normalize(e, last);
+		}
+		return last;
+	}
+	
+	/**
+	 * Same work as normalizeDataSets through the fused kernel, split across the common pool
+	 * once there are enough data sets.
+	 */
+	@Benchmark
+	public double normalizeDataSetsFused() {
+		CTGData.normalizeAll(dataSets, averages, sds);
+		return averages[averages.length - 1];
+	}
+}
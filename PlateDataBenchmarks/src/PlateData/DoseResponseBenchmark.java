@@ -0,0 +1,59 @@
+package PlateData;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures four parameter logistic fitting of every row of CTG data sets, on the calling 
+ * thread and split across the common fork join pool.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoseResponseBenchmark {
+	
+	@Param({"1", "10", "100"})
+	public int plates;
+	
+	@Param({"1", "4"})
+	public int parallelism;
+	
+	private DoseResponseEngine engine;
+	private ArrayList<double[][]> dataSets;
+	
+	@Setup
+	public void setup() throws Exception{
+		File file = SyntheticPlates.tempFile(PlateFormat.WELLS_96, plates);
+		try(FileInputStream in = new FileInputStream(file)){
+			CTGData data = new CTGData(in, null, ReaderMode.STREAMING, PlateFormat.WELLS_96);
+			engine = new DoseResponseEngine(data.getColumnLabels());
+			dataSets = data.getDataSets();
+		}
+	}
+	
+	@Benchmark
+	public ArrayList<DoseResponseFit[]> fitDataSets() {
+		return engine.fit(dataSets, parallelism);
+	}
+}
@@ -0,0 +1,57 @@
+package PlateData;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures PlateData.processRawData, reading the first plate of workbooks holding 1, 10 and 100 
+ * stacked plates with the workbook and streaming readers.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+	
+	@Param({"1", "10", "100"})
+	public int plates;
+	
+	@Param({"WELLS_96", "WELLS_384"})
+	public PlateFormat format;
+	
+	@Param({"WORKBOOK", "STREAMING"})
+	public ReaderMode readerMode;
+	
+	private File file;
+	
+	@Setup
+	public void setup() throws Exception{
+		file = SyntheticPlates.tempFile(format, plates);
+	}
+	
+	@Benchmark
+	public PlateData processRawData() throws Exception{
+		try(FileInputStream in = new FileInputStream(file)){
+			return new PlateData(in, readerMode, format);
+		}
+	}
+}
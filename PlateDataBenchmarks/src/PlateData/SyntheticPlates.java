@@ -0,0 +1,85 @@
+package PlateData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Builds synthetic plate workbooks in memory following the template layout, label row then plate rows 
+ * with a row label column, stacked plates separated by one blank row. First 7 rows of first 3 columns 
+ * hold a rising standard curve, every other well holds a random absorbance. Same seed gives same plates.
+ * 
+ * @author Colin Coon
+ * @date 10/16/2026
+ *
+ */
+public class SyntheticPlates {
+	
+	/**
+	 * Builds workbook and returns it as .xlsx bytes.
+	 * 
+	 * @param format plate geometry
+	 * @param plates number of stacked plates
+	 * @return .xlsx file contents
+	 * @throws IOException
+	 */
+	public static byte[] workbook(PlateFormat format, int plates) throws IOException{
+		Random random = new Random(42);
+		
+		try(XSSFWorkbook workbook = new XSSFWorkbook()){
+			XSSFSheet sheet = workbook.createSheet("Plate Read");
+			
+			for(int p = 0; p < plates; p++) {
+				int firstRow = p * (format.getRows() + 2);
+				
+				XSSFRow labels = sheet.createRow(firstRow);
+				for(int c = 1; c <= format.getColumns(); c++) {
+					labels.createCell(c).setCellValue(c);
+				}
+				
+				for(int r = 0; r < format.getRows(); r++) {
+					XSSFRow row = sheet.createRow(firstRow + 1 + r);
+					row.createCell(0).setCellValue(rowLabel(r));
+					
+					for(int c = 1; c <= format.getColumns(); c++) {
+						double value = (r < 7 && c <= 3) ? 0.045 + 0.008 * r * r : 0.045 + 0.2 * random.nextDouble();
+						row.createCell(c).setCellValue(value);
+					}
+				}
+			}
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			workbook.write(out);
+			return out.toByteArray();
+		}
+	}
+	
+	/**
+	 * Writes synthetic workbook to a temporary file, deleted when JVM exits. PlateData constructors 
+	 * take a FileInputStream so benchmarks read from here, file stays in OS page cache between reads.
+	 * 
+	 * @param format plate geometry
+	 * @param plates number of stacked plates
+	 * @return temporary .xlsx file
+	 * @throws IOException
+	 */
+	public static File tempFile(PlateFormat format, int plates) throws IOException{
+		File file = File.createTempFile("plates-" + format + "-" + plates + "-", ".xlsx");
+		file.deleteOnExit();
+		Files.write(file.toPath(), workbook(format, plates));
+		return file;
+	}
+	
+	/**
+	 * Row label A, B, ... Z, AA, AB for 1536 well plates.
+	 */
+	private static String rowLabel(int row) {
+		return row < 26 ? String.valueOf((char) ('A' + row)) : "A" + (char) ('A' + row - 26);
+	}
+}